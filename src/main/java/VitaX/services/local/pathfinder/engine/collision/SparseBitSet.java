@@ -751,6 +751,40 @@ public class SparseBitSet implements Cloneable, Serializable
                 && ((a3[w & MASK3] & (1L << i)) != 0);
     }
 
+    /**
+     *  Returns the 64 bits starting at the specified index as a word, such that
+     *  bit <i>k</i> of the result is the value of bit <i>i + k</i> of this set.
+     *  The index need not be word aligned. Bits beyond the end of the set are
+     *  returned as zero.
+     *
+     * @param       i the index of the first bit
+     * @return      the 64 bits starting at <code>i</code>
+     * @exception   IndexOutOfBoundsException if the specified index is negative
+     */
+    public long getWord(int i)
+    {
+        if (i < 0)
+            throw new IndexOutOfBoundsException("i=" + i);
+        final int w = i >> SHIFT3;
+        /*  A shift of a long only uses the low six bits of the distance, so
+            ">>> i" shifts by the offset within the word and "<< -i" by the
+            remainder of the word; the second word is needed only if unaligned. */
+        final long low = word(w) >>> i;
+        return (i & 0x3F) == 0 ? low : low | (word(w + 1) << -i);
+    }
+
+    /**
+     *  Returns the word at the given word index, or zero if it is not present.
+     */
+    private long word(int w)
+    {
+        if (w > (bitsLength - 1) >> SHIFT3)
+            return 0L;
+        final long[][] a2 = bits[w >> SHIFT1];
+        final long[] a3;
+        return a2 == null || (a3 = a2[(w >> SHIFT2) & MASK2]) == null ? 0L : a3[w & MASK3];
+    }
+
     /**
      *  Returns a new <code>SparseBitSet</code> composed of bits from this
      *  <code>SparseBitSet</code> from <code>i</code> (inclusive) to <code>j</code>
@@ -2156,6 +2190,106 @@ public class SparseBitSet implements Cloneable, Serializable
         Compaction_count_value // 10
     }
 
+    //=============================================================================
+    //  A caller-owned reader remembering the level3 block it last touched
+    //=============================================================================
+
+    /**
+     *  Creates a cursor for reading bits of this set. A cursor remembers the
+     *  level3 block of its last lookup, so lookups falling into the same block
+     *  skip the level1 and level2 array indexing. Cursors are not thread-safe,
+     *  and are only valid while the set is not modified.
+     *
+     * @return      a new cursor over this set
+     */
+    public Cursor cursor()
+    {
+        return new Cursor();
+    }
+
+    /**
+     *  A reader over the bits of the enclosing set that caches the last level3
+     *  block it touched.
+     *
+     * @see         #cursor()
+     */
+    public class Cursor
+    {
+        /**
+         *  The level3 block address (the word index shifted right by
+         *  <i>SHIFT2</i>) of the cached block, or -1 if nothing is cached.
+         */
+        private int blockAddress = -1;
+
+        /**
+         *  The cached level3 block, <code>null</code> if that block is empty.
+         */
+        private long[] block;
+
+        /**
+         *  Returns the value of the bit with the specified index.
+         *
+         * @param       i the bit index
+         * @return      the boolean value of the bit with the specified index.
+         * @exception   IndexOutOfBoundsException if the specified index is
+         *              negative or equal to Integer.MAX_VALUE
+         */
+        public boolean get(int i)
+        {
+            if ((i + 1) < 1)
+                throw new IndexOutOfBoundsException("i=" + i);
+            if (i >= bitsLength)
+                return false;
+            final int w = i >> SHIFT3;
+            final long[] a3 = block(w);
+            return a3 != null && (a3[w & MASK3] & (1L << i)) != 0;
+        }
+
+        /**
+         *  Returns the 64 bits starting at the specified index as a word.
+         *
+         * @param       i the index of the first bit
+         * @return      the 64 bits starting at <code>i</code>
+         * @exception   IndexOutOfBoundsException if the specified index is negative
+         * @see         SparseBitSet#getWord(int)
+         */
+        public long getWord(int i)
+        {
+            if (i < 0)
+                throw new IndexOutOfBoundsException("i=" + i);
+            final int w = i >> SHIFT3;
+            final long low = word(w) >>> i;
+            return (i & 0x3F) == 0 ? low : low | (word(w + 1) << -i);
+        }
+
+        /**
+         *  Returns the word at the given word index through the cached block.
+         */
+        private long word(int w)
+        {
+            if (w > (bitsLength - 1) >> SHIFT3)
+                return 0L;
+            final long[] a3 = block(w);
+            return a3 == null ? 0L : a3[w & MASK3];
+        }
+
+        /**
+         *  Finds the level3 block holding the given word, reusing the cached
+         *  block when the word falls inside it.
+         */
+        private long[] block(int w)
+        {
+            final int address = w >> SHIFT2;
+            if (address != blockAddress)
+            {
+                final long[][] a2 = bits[w >> SHIFT1];
+                block = a2 == null ? null : a2[address & MASK2];
+                blockAddress = address;
+            }
+            return block;
+        }
+    }
+
     //=============================================================================
     //  A set of cached statistics values, recomputed when necessary
     //=============================================================================
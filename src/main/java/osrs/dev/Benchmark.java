@@ -74,18 +74,20 @@ public class Benchmark
 
     public static void main(String[] args) throws Exception {
         if (args.length < 2) {
-            System.err.println("Usage: java osrs.dev.Benchmark <roaring|sparse> <random|realistic>");
+            System.err.println("Usage: java osrs.dev.Benchmark <roaring|sparse> <random|realistic> [cursor]");
             System.err.println("  Format:");
             System.err.println("    roaring - benchmark RoaringBitmap format");
             System.err.println("    sparse  - benchmark SparseBitSet format");
             System.err.println("  Test mode:");
             System.err.println("    random     - random coordinate reads");
             System.err.println("    realistic - realistic coordinate reads (more cache-friendly)");
+            System.err.println("  cursor     - read through a locality-aware cursor");
             System.exit(1);
         }
 
         String format = args[0].toLowerCase();
         String testMode = args[1].toLowerCase();
+        boolean useCursor = args.length > 2 && args[2].equalsIgnoreCase("cursor");
         File mapFile;
 
         if (format.equals("roaring")) {
@@ -110,6 +112,7 @@ public class Benchmark
 
         System.out.println("Test map format: " + format);
         System.out.println("Test mode: " + testMode);
+        System.out.println("Cursor: " + useCursor);
 
         // Measure baseline memory
         long baselineMemory = measureMemoryUsage();
@@ -131,6 +134,9 @@ public class Benchmark
             System.out.println("Memory/Disk ratio: " + String.format("%.2fx", mapMemoryUsage / (double) fileSize));
         }
 
+        if (useCursor) {
+            map = map.cursor();
+        }
 
         if (testMode.equalsIgnoreCase("realistic")) {
             benchmarkRealistic(map);
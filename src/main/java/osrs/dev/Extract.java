@@ -0,0 +1,79 @@
+package osrs.dev;
+
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.tiledatamap.Planes;
+import osrs.dev.tiledatamap.roaring.RoaringAreaExtractor;
+import osrs.dev.tiledatamap.roaring.RoaringTileDataMap;
+import osrs.dev.tiledatamap.roaring.RoaringTileDataMapWriter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Extracts a bounding box or a list of regions from a RoaringBitmap map into a compact map file.
+ * Works for collision maps and tile type maps alike.
+ */
+public class Extract
+{
+    private static void usage() {
+        System.err.println("Usage: java osrs.dev.Extract <input> <output> box <minX> <minY> <maxX> <maxY> [planes]");
+        System.err.println("       java osrs.dev.Extract <input> <output> regions <regionId,regionId,...> [planes]");
+        System.err.println("  input   - RoaringBitmap map file (.dat or .dat.gz)");
+        System.err.println("  output  - compact map file to write (.gz to compress)");
+        System.err.println("  planes  - comma separated planes to keep, all planes if omitted");
+        System.exit(1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            usage();
+        }
+
+        String input = args[0];
+        String output = args[1];
+        String mode = args[2].toLowerCase();
+        if (CollisionMapFactory.detectFormat(input) != CollisionMapFactory.Format.ROARING
+                || CollisionMapFactory.detectFormat(output) != CollisionMapFactory.Format.ROARING) {
+            System.err.println("Error: Area extraction requires RoaringBitmap input and output files");
+            System.exit(1);
+        }
+        if (!new File(input).isFile()) {
+            System.err.println("Error: Map file not found at " + new File(input).getAbsolutePath());
+            System.exit(1);
+        }
+
+        long startTime = System.nanoTime();
+        RoaringTileDataMap.View source;
+        try (FileInputStream fis = new FileInputStream(input);
+             InputStream inputStream = CollisionMapFactory.isGzipped(input) ? new GZIPInputStream(fis) : fis) {
+            source = RoaringTileDataMap.view(inputStream.readAllBytes());
+        }
+
+        RoaringTileDataMapWriter writer;
+        if (mode.equals("box") && args.length >= 7) {
+            int planes = args.length > 7 ? parsePlanes(args[7]) : Planes.ALL;
+            writer = RoaringAreaExtractor.extractBox(source,
+                    Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                    Integer.parseInt(args[5]), Integer.parseInt(args[6]), planes);
+        } else if (mode.equals("regions")) {
+            int[] regionIds = Arrays.stream(args[3].split(",")).mapToInt(Integer::parseInt).toArray();
+            int planes = args.length > 4 ? parsePlanes(args[4]) : Planes.ALL;
+            writer = RoaringAreaExtractor.extractRegions(source, regionIds, planes);
+        } else {
+            usage();
+            return;
+        }
+        writer.save(output);
+
+        double durationMillis = (System.nanoTime() - startTime) / 1_000_000.0;
+        System.out.println("Wrote " + output + " (" + new File(output).length() + " bytes, input "
+                + new File(input).length() + " bytes) in " + String.format("%.2f ms", durationMillis));
+    }
+
+    private static int parsePlanes(String planes) {
+        return Planes.of(Arrays.stream(planes.split(",")).mapToInt(Integer::parseInt).toArray());
+    }
+}
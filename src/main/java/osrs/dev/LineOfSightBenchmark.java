@@ -0,0 +1,132 @@
+package osrs.dev;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.collisionmap.LineOfSight;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Times line of sight checks on random rays, one at a time and in batches from one tile
+ */
+public class LineOfSightBenchmark
+{
+    private static final int MIN_X = 1500;
+    private static final int MAX_X = 3500;
+    private static final int MIN_Y = 1500;
+    private static final int MAX_Y = 3500;
+    private static final int SHORT_RAY = 10;
+    private static final int LONG_RAY = 60;
+    private static final int TARGETS_PER_SOURCE = 64;
+    private static final int WARMUP_RAYS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java osrs.dev.LineOfSightBenchmark <roaring|sparse> [short|long] [rays]");
+            System.err.println("  short - rays of up to " + SHORT_RAY + " tiles, as for melee and most ranged combat");
+            System.err.println("  long  - rays of up to " + LONG_RAY + " tiles");
+            System.exit(1);
+        }
+
+        String format = args[0].toLowerCase();
+        String mode = args.length > 1 ? args[1].toLowerCase() : "short";
+        int rays = args.length > 2 ? Integer.parseInt(args[2]) : 10_000_000;
+        File mapFile;
+
+        if (format.equals("roaring")) {
+            mapFile = Benchmark.ROARING_MAP;
+        } else if (format.equals("sparse")) {
+            mapFile = Benchmark.SPARSE_MAP;
+        } else {
+            System.err.println("Error: Invalid format '" + format + "'. Must be 'roaring' or 'sparse'");
+            System.exit(1);
+            return;
+        }
+
+        int range;
+        if (mode.equals("short")) {
+            range = SHORT_RAY;
+        } else if (mode.equals("long")) {
+            range = LONG_RAY;
+        } else {
+            System.err.println("Error: Invalid mode '" + mode + "'. Must be 'short' or 'long'");
+            System.exit(1);
+            return;
+        }
+
+        if (!mapFile.exists()) {
+            System.err.println("Error: Map file not found at " + mapFile.getAbsolutePath());
+            System.exit(1);
+        }
+
+        CollisionMap map = CollisionMapFactory.load(mapFile.getAbsolutePath());
+        LineOfSight sight = new LineOfSight(map);
+
+        System.out.println("Mode: " + mode);
+        System.out.println("\nWarming up JIT (" + String.format("%,d", WARMUP_RAYS) + " rays)...");
+        runSingle(sight, range, new Random(7), WARMUP_RAYS);
+        runBatch(sight, range, new Random(7), WARMUP_RAYS);
+        System.out.println("Warmup complete");
+
+        System.out.println("\nRunning benchmark (" + String.format("%,d", rays) + " rays)...");
+        long start = System.nanoTime();
+        long singleVisible = runSingle(sight, range, new Random(42), rays);
+        long singleNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        long batchVisible = runBatch(sight, range, new Random(42), rays);
+        long batchNanos = System.nanoTime() - start;
+
+        System.out.println("\nBenchmark Results:");
+        System.out.println("==================");
+        System.out.println("Single average: " + String.format("%.1f ns per ray, %.1f%% visible", singleNanos / (double) rays, singleVisible * 100.0 / rays));
+        System.out.println("Batch average: " + String.format("%.1f ns per ray, %.1f%% visible", batchNanos / (double) rays, batchVisible * 100.0 / rays));
+        System.out.println("Batch speedup: " + String.format("%.2fx", singleNanos / (double) Math.max(batchNanos, 1)));
+    }
+
+    /**
+     * Checks rays one at a time, from a new random tile every {@link #TARGETS_PER_SOURCE} rays
+     */
+    private static long runSingle(LineOfSight sight, int range, Random random, int rays) {
+        long visible = 0;
+        int x = 0;
+        int y = 0;
+        for (int i = 0; i < rays; i++) {
+            if (i % TARGETS_PER_SOURCE == 0) {
+                x = MIN_X + random.nextInt(MAX_X - MIN_X + 1);
+                y = MIN_Y + random.nextInt(MAX_Y - MIN_Y + 1);
+            }
+            int targetX = x + random.nextInt(range * 2 + 1) - range;
+            int targetY = y + random.nextInt(range * 2 + 1) - range;
+            if (sight.hasLineOfSight(x, y, targetX, targetY, 0)) {
+                visible++;
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Checks the same rays as {@link #runSingle}, one batch per source tile
+     */
+    private static long runBatch(LineOfSight sight, int range, Random random, int rays) {
+        int[] targetXs = new int[TARGETS_PER_SOURCE];
+        int[] targetYs = new int[TARGETS_PER_SOURCE];
+        boolean[] out = new boolean[TARGETS_PER_SOURCE];
+        long visible = 0;
+        for (int done = 0; done < rays; done += TARGETS_PER_SOURCE) {
+            int x = MIN_X + random.nextInt(MAX_X - MIN_X + 1);
+            int y = MIN_Y + random.nextInt(MAX_Y - MIN_Y + 1);
+            int count = Math.min(TARGETS_PER_SOURCE, rays - done);
+            if (count < TARGETS_PER_SOURCE) {
+                targetXs = new int[count];
+                targetYs = new int[count];
+            }
+            for (int i = 0; i < count; i++) {
+                targetXs[i] = x + random.nextInt(range * 2 + 1) - range;
+                targetYs[i] = y + random.nextInt(range * 2 + 1) - range;
+            }
+            visible += sight.visible(x, y, 0, targetXs, targetYs, out);
+        }
+        return visible;
+    }
+}
@@ -10,9 +10,11 @@ import osrs.dev.tiletypemap.TileTypeMap;
 import osrs.dev.tiletypemap.TileTypeMapFactory;
 import osrs.dev.ui.UIFrame;
 import osrs.dev.util.ConfigManager;
+import osrs.dev.util.ReloadableMap;
 import osrs.dev.util.ThreadPool;
 import javax.swing.*;
 import java.io.File;
+import java.io.IOException;
 
 /**
  * Launches the collision map viewer
@@ -21,9 +23,9 @@ import java.io.File;
 public class Main
 {
     @Getter
-    private static CollisionMap collision;
+    private static ReloadableMap<CollisionMap> collisionHolder;
     @Getter
-    private static TileTypeMap tileTypeMap;
+    private static ReloadableMap<TileTypeMap> tileTypeMapHolder;
     @Getter
     private static ConfigManager configManager;
     private static UIFrame frame;
@@ -41,54 +43,128 @@ public class Main
         SwingUtilities.invokeLater(() -> {
             frame = new UIFrame();
             frame.setVisible(true);
-            if(collision != null)
+            if(getCollision() != null)
             {
                 frame.update();
             }
             frame.requestInitialFocus();
         });
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            closeHolders();
             ThreadPool.shutdown();
             configManager.saveConfig();
         }));
     }
 
     /**
-     * Load the collision map and tile type map
+     * Gets the current collision map snapshot.
+     * Callers should fetch it once per unit of work so a hot reload cannot swap it mid-way.
+     * @return the collision map, or null if none is loaded
+     */
+    public static CollisionMap getCollision()
+    {
+        return collisionHolder == null ? null : collisionHolder.get();
+    }
+
+    /**
+     * Gets the current tile type map snapshot.
+     * @return the tile type map, or null if none is loaded
+     */
+    public static TileTypeMap getTileTypeMap()
+    {
+        return tileTypeMapHolder == null ? null : tileTypeMapHolder.get();
+    }
+
+    /**
+     * Load the collision map and tile type map and start watching them for changes.
+     * A new dump written to the same paths is swapped in by the watchers without a restart.
      * @throws Exception if an error occurs loading the maps
      */
     public static void load() throws Exception {
         configManager = new ConfigManager();
         String format = configManager.format();
+        closeHolders();
 
         // Load collision map
         String collisionMapPath = configManager.getCollisionMapPath(format);
         Dumper.OUTPUT_MAP = new File(collisionMapPath);
         log.info("Looking for collision map at: {}", Dumper.OUTPUT_MAP.getPath());
+        collisionHolder = new ReloadableMap<>(Dumper.OUTPUT_MAP.getPath(), CollisionMapFactory::load);
         if(Dumper.OUTPUT_MAP.exists())
         {
             log.info("Loading existing collision map");
-            collision = CollisionMapFactory.load(Dumper.OUTPUT_MAP.getPath());
-            log.info("Collision map loaded successfully");
+            if(collisionHolder.reload())
+            {
+                log.info("Collision map loaded successfully");
+            }
         }
         else
         {
             log.warn("No collision map found - viewer will start empty");
         }
+        collisionHolder.addReloadListener(map -> refreshFrame());
+        watch(collisionHolder);
 
         // Load tile type map
         String tileTypeMapPath = configManager.getTileTypeMapPath(format);
         Dumper.OUTPUT_TILE_TYPES = new File(tileTypeMapPath);
         log.info("Looking for tile type map at: {}", Dumper.OUTPUT_TILE_TYPES.getPath());
+        tileTypeMapHolder = new ReloadableMap<>(Dumper.OUTPUT_TILE_TYPES.getPath(), TileTypeMapFactory::load);
         if(Dumper.OUTPUT_TILE_TYPES.exists())
         {
             log.info("Loading existing tile type map");
-            tileTypeMap = TileTypeMapFactory.load(Dumper.OUTPUT_TILE_TYPES.getPath());
-            log.info("Tile type map loaded successfully");
+            if(tileTypeMapHolder.reload())
+            {
+                log.info("Tile type map loaded successfully");
+            }
         }
         else
         {
             log.warn("No tile type map found");
         }
+        tileTypeMapHolder.addReloadListener(map -> refreshFrame());
+        watch(tileTypeMapHolder);
+    }
+
+    /**
+     * Starts watching a map file, logging instead of failing if its directory cannot be watched.
+     * @param holder the map holder
+     */
+    private static void watch(ReloadableMap<?> holder)
+    {
+        try
+        {
+            holder.startWatching();
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to watch {} for changes - hot reload disabled", holder.getFile(), e);
+        }
+    }
+
+    /**
+     * Stops the watchers of the currently loaded maps.
+     */
+    private static void closeHolders()
+    {
+        if(collisionHolder != null)
+        {
+            collisionHolder.close();
+        }
+        if(tileTypeMapHolder != null)
+        {
+            tileTypeMapHolder.close();
+        }
+    }
+
+    /**
+     * Re-renders the viewer after a map was swapped in.
+     */
+    private static void refreshFrame()
+    {
+        if(frame != null)
+        {
+            SwingUtilities.invokeLater(frame::update);
+        }
     }
 }
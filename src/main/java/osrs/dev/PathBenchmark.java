@@ -0,0 +1,136 @@
+package osrs.dev;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.pathfinder.AStarPathfinder;
+import osrs.dev.pathfinder.BfsPathfinder;
+import osrs.dev.pathfinder.BidirectionalPathfinder;
+import osrs.dev.pathfinder.JumpPointPathfinder;
+import osrs.dev.pathfinder.PathResult;
+import osrs.dev.pathfinder.PathSearch;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Compares pathfinders on random searches: Jump Point Search against A*, or bidirectional
+ * BFS against one-way BFS
+ */
+public class PathBenchmark
+{
+    private static final int MIN_X = 1500;
+    private static final int MAX_X = 3500;
+    private static final int MIN_Y = 1500;
+    private static final int MAX_Y = 3500;
+    private static final int MAX_DISTANCE = 200;
+    private static final int WARMUP_SEARCHES = 200;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java osrs.dev.PathBenchmark <roaring|sparse> [jps|bidirectional] [searches]");
+            System.err.println("  jps           - Jump Point Search against A*, comparing path costs");
+            System.err.println("  bidirectional - bidirectional BFS against BFS, comparing path steps");
+            System.exit(1);
+        }
+
+        String format = args[0].toLowerCase();
+        String mode = args.length > 1 ? args[1].toLowerCase() : "jps";
+        int searches = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        File mapFile;
+
+        if (format.equals("roaring")) {
+            mapFile = Benchmark.ROARING_MAP;
+        } else if (format.equals("sparse")) {
+            mapFile = Benchmark.SPARSE_MAP;
+        } else {
+            System.err.println("Error: Invalid format '" + format + "'. Must be 'roaring' or 'sparse'");
+            System.exit(1);
+            return;
+        }
+
+        if (!mapFile.exists()) {
+            System.err.println("Error: Map file not found at " + mapFile.getAbsolutePath());
+            System.exit(1);
+        }
+
+        CollisionMap map = CollisionMapFactory.load(mapFile.getAbsolutePath());
+        PathSearch baseline;
+        PathSearch candidate;
+        boolean compareCost;
+        if (mode.equals("jps")) {
+            baseline = new AStarPathfinder(map)::find;
+            candidate = new JumpPointPathfinder(map)::find;
+            compareCost = true;
+        } else if (mode.equals("bidirectional")) {
+            baseline = new BfsPathfinder(map)::find;
+            candidate = new BidirectionalPathfinder(map)::find;
+            compareCost = false;
+        } else {
+            System.err.println("Error: Invalid mode '" + mode + "'. Must be 'jps' or 'bidirectional'");
+            System.exit(1);
+            return;
+        }
+
+        System.out.println("Mode: " + mode);
+        System.out.println("\nWarming up JIT (" + WARMUP_SEARCHES + " searches)...");
+        run(map, baseline, candidate, compareCost, new Random(7), WARMUP_SEARCHES);
+        System.out.println("Warmup complete");
+
+        System.out.println("\nRunning benchmark (" + String.format("%,d", searches) + " searches)...");
+        run(map, baseline, candidate, compareCost, new Random(42), searches).print(mode);
+    }
+
+    /**
+     * Runs both pathfinders on the same random searches between walkable tiles
+     */
+    private static Totals run(CollisionMap map, PathSearch baseline, PathSearch candidate, boolean compareCost, Random random, int searches) {
+        Totals totals = new Totals();
+        while (totals.searches < searches) {
+            int startX = MIN_X + random.nextInt(MAX_X - MIN_X + 1);
+            int startY = MIN_Y + random.nextInt(MAX_Y - MIN_Y + 1);
+            int goalX = startX + random.nextInt(MAX_DISTANCE * 2 + 1) - MAX_DISTANCE;
+            int goalY = startY + random.nextInt(MAX_DISTANCE * 2 + 1) - MAX_DISTANCE;
+            if (map.isBlocked(startX, startY, 0) || map.isBlocked(goalX, goalY, 0)) {
+                continue;
+            }
+
+            PathResult expected = baseline.find(startX, startY, goalX, goalY, 0);
+            PathResult actual = candidate.find(startX, startY, goalX, goalY, 0);
+            totals.searches++;
+            totals.baselineNodes += expected.getNodesExpanded();
+            totals.baselineNanos += expected.getNanos();
+            totals.candidateNodes += actual.getNodesExpanded();
+            totals.candidateNanos += actual.getNanos();
+            if (expected.isFound()) {
+                totals.found++;
+            }
+            boolean sameLength = compareCost ? expected.getCost() == actual.getCost() : expected.getSteps() == actual.getSteps();
+            if (expected.isFound() == actual.isFound() && sameLength) {
+                totals.matching++;
+            }
+        }
+        return totals;
+    }
+
+    private static class Totals {
+        private int searches;
+        private int found;
+        private int matching;
+        private long baselineNodes;
+        private long baselineNanos;
+        private long candidateNodes;
+        private long candidateNanos;
+
+        private void print(String mode) {
+            String baseline = mode.equals("jps") ? "A*" : "BFS";
+            String candidate = mode.equals("jps") ? "JPS" : "Bidirectional";
+            System.out.println("\nBenchmark Results:");
+            System.out.println("==================");
+            System.out.println("Searches: " + String.format("%,d (%,d found)", searches, found));
+            System.out.println(baseline + " average: " + String.format("%,.0f nodes, %.3f ms", baselineNodes / (double) searches, baselineNanos / 1_000_000.0 / searches));
+            System.out.println(candidate + " average: " + String.format("%,.0f nodes, %.3f ms", candidateNodes / (double) searches, candidateNanos / 1_000_000.0 / searches));
+            System.out.println("Expanded node reduction: " + String.format("%.1fx", baselineNodes / (double) Math.max(candidateNodes, 1)));
+            System.out.println("Matching path lengths: " + String.format("%,d / %,d", matching, searches));
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package osrs.dev;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.dumper.ConfigurableCoordIndexer;
+import osrs.dev.dumper.ICoordIndexer;
+import osrs.dev.tiletypemap.TileTypeMap;
+import osrs.dev.tiletypemap.TileTypeMapFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Annotates a file of coordinates with their collision flags and tile types, without the viewer.
+ * Binary input holds big-endian x, y and plane ints per coordinate and gives two bytes per
+ * coordinate, the movement flags (see {@link CollisionMap#all}) and the tile type. CSV input
+ * holds {@code x,y,plane} lines, skipping lines that do not start with a number such as a
+ * header, and gives {@code x,y,plane,flags,type} lines. Coordinates outside the range a map's
+ * layout can hold get 0 from that map rather than the tile they would wrap onto.
+ * The input is memory mapped and cut into chunks that are resolved in parallel, each into one
+ * output buffer, and written out in input order.
+ */
+public class Query
+{
+    private static final int BINARY_RECORD_BYTES = 12;
+    private static final int BINARY_CHUNK_RECORDS = 1 << 20;
+    private static final int CSV_CHUNK_BYTES = 16 << 20;
+    /**
+     * Longest CSV line accepted, so a chunk knows how far past its end its last line may run.
+     */
+    private static final int MAX_LINE_BYTES = 4096;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: java osrs.dev.Query <collision map> <tile type map|-> <input> <output> [threads]");
+            System.err.println("  input   - coordinates, as .csv lines of x,y,plane or binary big-endian int triples");
+            System.err.println("  output  - flags and tile type per coordinate, as .csv lines or two bytes each");
+            System.exit(1);
+        }
+
+        for (String path : new String[]{args[0], args[2]}) {
+            if (!new File(path).isFile()) {
+                System.err.println("Error: File not found at " + new File(path).getAbsolutePath());
+                System.exit(1);
+            }
+        }
+        CollisionMap collisionMap = CollisionMapFactory.load(args[0]);
+        TileTypeMap tileTypeMap = args[1].equals("-") ? null : TileTypeMapFactory.load(args[1]);
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        long startTime = System.nanoTime();
+        long rows = annotate(collisionMap, tileTypeMap, Paths.get(args[2]), Paths.get(args[3]), threads);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        long bytes = new File(args[2]).length();
+        System.out.println(String.format("Annotated %,d coordinates in %.2f s (%,.0f coordinates/s, %.1f MB/s of input)",
+                rows, seconds, rows / seconds, bytes / seconds / (1024 * 1024)));
+    }
+
+    /**
+     * Annotates a coordinate file, as CSV if its name ends with .csv and as binary otherwise.
+     *
+     * @param tileTypeMap the tile types, or {@code null} to write type 0 everywhere
+     * @param threads     the number of chunks to resolve at once
+     * @return the number of coordinates annotated
+     * @throws IOException if reading or writing fails, or the input is malformed
+     */
+    public static long annotate(CollisionMap collisionMap, TileTypeMap tileTypeMap, Path input, Path output, int threads)
+            throws IOException, InterruptedException, ExecutionException {
+        boolean csv = input.getFileName().toString().toLowerCase().endsWith(".csv");
+        return annotate(collisionMap, tileTypeMap, input, output, threads,
+                csv ? CSV_CHUNK_BYTES : BINARY_CHUNK_RECORDS * BINARY_RECORD_BYTES);
+    }
+
+    /**
+     * Annotates a coordinate file in chunks of a given size, binary chunks being rounded down to whole records.
+     */
+    static long annotate(CollisionMap collisionMap, TileTypeMap tileTypeMap, Path input, Path output, int threads, int chunkSize)
+            throws IOException, InterruptedException, ExecutionException {
+        boolean csv = input.getFileName().toString().toLowerCase().endsWith(".csv");
+        Bounds collisionBounds = Bounds.of(collisionMap.getIndexer());
+        Bounds tileTypeBounds = tileTypeMap == null ? null : Bounds.of(tileTypeMap.getIndexer());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            if (!csv && size % BINARY_RECORD_BYTES != 0) {
+                throw new IOException("Binary input size " + size + " is not a multiple of " + BINARY_RECORD_BYTES + " bytes");
+            }
+            long chunkBytes = csv ? chunkSize : Math.max(chunkSize / BINARY_RECORD_BYTES, 1) * BINARY_RECORD_BYTES;
+            long chunks = (size + chunkBytes - 1) / chunkBytes;
+
+            // Keep a bounded number of chunks in flight and write them out in order
+            Deque<Future<Chunk>> pending = new ArrayDeque<>();
+            long rows = 0;
+            long next = 0;
+            while (next < chunks || !pending.isEmpty()) {
+                while (next < chunks && pending.size() < threads * 2) {
+                    long start = next++ * chunkBytes;
+                    long end = Math.min(start + chunkBytes, size);
+                    pending.add(executor.submit(() -> csv
+                            ? annotateCsv(new Lookup(collisionMap, collisionBounds, tileTypeMap, tileTypeBounds), in, start, end, size)
+                            : annotateBinary(new Lookup(collisionMap, collisionBounds, tileTypeMap, tileTypeBounds), in, start, end)));
+                }
+                Chunk chunk;
+                try {
+                    chunk = pending.poll().get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw e;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(chunk.bytes, 0, chunk.length);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                rows += chunk.rows;
+            }
+            return rows;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Chunk annotateBinary(Lookup lookup, FileChannel in, long start, long end)
+            throws IOException {
+        MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int rows = (int) ((end - start) / BINARY_RECORD_BYTES);
+        byte[] out = new byte[rows * 2];
+        for (int row = 0; row < rows; row++) {
+            int x = buffer.getInt();
+            int y = buffer.getInt();
+            int plane = buffer.getInt();
+            out[row * 2] = lookup.flags(x, y, plane);
+            out[row * 2 + 1] = lookup.type(x, y, plane);
+        }
+        return new Chunk(out, out.length, rows);
+    }
+
+    /**
+     * Annotates the lines starting inside a byte range, reading on past its end to finish the last line.
+     */
+    private static Chunk annotateCsv(Lookup lookup, FileChannel in, long start, long end, long size)
+            throws IOException {
+        // Map one byte before the range, to tell whether a line starts at its first byte
+        long mapStart = Math.max(start - 1, 0);
+        long mapEnd = Math.min(end + MAX_LINE_BYTES, size);
+        MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int limit = buffer.limit();
+        int stop = (int) (end - mapStart);
+        int pos = 0;
+        if (start > 0) {
+            while (pos < limit && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos++;
+        }
+
+        Output out = new Output((int) (end - start) + (int) (end - start) / 2 + 64);
+        int rows = 0;
+        int[] fields = new int[3];
+        while (pos < stop) {
+            int lineEnd = pos;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == limit && mapEnd < size) {
+                throw new IOException("CSV line at byte " + (mapStart + pos) + " is longer than " + MAX_LINE_BYTES + " bytes");
+            }
+            if (parseLine(buffer, pos, lineEnd, fields, mapStart)) {
+                int x = fields[0];
+                int y = fields[1];
+                int plane = fields[2];
+                out.writeInt(x);
+                out.write(',');
+                out.writeInt(y);
+                out.write(',');
+                out.writeInt(plane);
+                out.write(',');
+                out.writeInt(lookup.flags(x, y, plane) & 0xFF);
+                out.write(',');
+                out.writeInt(lookup.type(x, y, plane));
+                out.write('\n');
+                rows++;
+            }
+            pos = lineEnd + 1;
+        }
+        return new Chunk(out.bytes, out.length, rows);
+    }
+
+    /**
+     * Parses an {@code x,y,plane} line.
+     *
+     * @return false if the line is blank or does not start with a number
+     * @throws IOException if the line starts with a number but is not three integers
+     */
+    private static boolean parseLine(ByteBuffer buffer, int from, int to, int[] fields, long offset) throws IOException {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        if (from == to || !isNumberStart(buffer.get(from))) {
+            return false;
+        }
+        int pos = from;
+        for (int field = 0; field < fields.length; field++) {
+            boolean negative = pos < to && buffer.get(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            int digits = 0;
+            long value = 0;
+            while (pos < to && buffer.get(pos) >= '0' && buffer.get(pos) <= '9') {
+                value = value * 10 + (buffer.get(pos++) - '0');
+                if (++digits > 10) {
+                    break;
+                }
+            }
+            boolean separated = field == fields.length - 1 ? pos == to : pos < to && buffer.get(pos) == ',';
+            if (digits == 0 || digits > 10 || !separated) {
+                throw new IOException("Malformed CSV line at byte " + (offset + from) + ", expected x,y,plane");
+            }
+            fields[field] = (int) (negative ? -value : value);
+            pos++;
+        }
+        return true;
+    }
+
+    private static boolean isNumberStart(byte b) {
+        return b == '-' || (b >= '0' && b <= '9');
+    }
+
+    /**
+     * Cursors over the maps for one chunk, reading 0 for coordinates outside a map's layout.
+     */
+    private static final class Lookup {
+        private final CollisionMap collisionMap;
+        private final Bounds collisionBounds;
+        private final TileTypeMap tileTypeMap;
+        private final Bounds tileTypeBounds;
+
+        private Lookup(CollisionMap collisionMap, Bounds collisionBounds, TileTypeMap tileTypeMap, Bounds tileTypeBounds) {
+            this.collisionMap = collisionMap.cursor();
+            this.collisionBounds = collisionBounds;
+            this.tileTypeMap = tileTypeMap == null ? null : tileTypeMap.cursor();
+            this.tileTypeBounds = tileTypeBounds;
+        }
+
+        private byte flags(int x, int y, int plane) {
+            return collisionBounds.contains(x, y, plane) ? collisionMap.all(x, y, plane) : 0;
+        }
+
+        private byte type(int x, int y, int plane) {
+            return tileTypeMap != null && tileTypeBounds.contains(x, y, plane) ? tileTypeMap.getTileType(x, y, plane) : 0;
+        }
+    }
+
+    /**
+     * The coordinates a map's layout can pack without wrapping onto another tile.
+     */
+    private static final class Bounds {
+        private final int minX;
+        private final int maxX;
+        private final int minY;
+        private final int maxY;
+        private final int minPlane;
+        private final int maxPlane;
+
+        private Bounds(int minX, int maxX, int minY, int maxY, int minPlane, int maxPlane) {
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.minPlane = minPlane;
+            this.maxPlane = maxPlane;
+        }
+
+        private static Bounds of(ICoordIndexer indexer) {
+            if (indexer instanceof ConfigurableCoordIndexer) {
+                ConfigurableCoordIndexer layout = (ConfigurableCoordIndexer) indexer;
+                return new Bounds(layout.getMinX(), layout.getMaxX(), layout.getMinY(), layout.getMaxY(),
+                        layout.getMinPlane(), layout.getMaxPlane());
+            }
+            return new Bounds(0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, 0, 3);
+        }
+
+        private boolean contains(int x, int y, int plane) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && plane >= minPlane && plane <= maxPlane;
+        }
+    }
+
+    /**
+     * The output of one chunk.
+     */
+    private static final class Chunk {
+        private final byte[] bytes;
+        private final int length;
+        private final int rows;
+
+        private Chunk(byte[] bytes, int length, int rows) {
+            this.bytes = bytes;
+            this.length = length;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Growable byte buffer writing decimal integers without creating strings.
+     */
+    private static final class Output {
+        private byte[] bytes;
+        private int length;
+        private final byte[] digits = new byte[11];
+
+        private Output(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private void write(char c) {
+            ensure(1);
+            bytes[length++] = (byte) c;
+        }
+
+        private void writeInt(int value) {
+            ensure(11);
+            long v = value;
+            if (v < 0) {
+                bytes[length++] = '-';
+                v = -v;
+            }
+            int count = 0;
+            do {
+                digits[count++] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v != 0);
+            while (count > 0) {
+                bytes[length++] = digits[--count];
+            }
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package osrs.dev.collisionmap;
 
+import osrs.dev.dumper.ICoordIndexer;
 import osrs.dev.tiledatamap.ITileDataMap;
 
 /**
@@ -19,6 +20,20 @@ public class CollisionMap {
         this.dataMap = dataMap;
     }
 
+    /**
+     * Creates a view of this map reading through a cursor, see {@link ITileDataMap#cursor()}.
+     * Hold one per search or render pass; it is not thread-safe.
+     *
+     * @return a cursor-backed view of this map
+     */
+    public CollisionMap cursor() {
+        return new CollisionMap(dataMap.cursor());
+    }
+
+    public ICoordIndexer getIndexer() {
+        return dataMap.getIndexer();
+    }
+
     public boolean pathableNorth(int x, int y, int plane) {
         return !dataMap.isDataBitSet(x, y, plane, NORTH_DATA_BIT_POS);
     }
@@ -35,6 +50,147 @@ public class CollisionMap {
         return pathableEast(x - 1, y, plane);
     }
 
+    /**
+     * Checks if one tile can see another on the same plane, see {@link LineOfSight}.
+     * Hold a {@link LineOfSight} instead when checking many lines.
+     */
+    public boolean hasLineOfSight(int x0, int y0, int x1, int y1, int plane) {
+        return new LineOfSight(this).hasLineOfSight(x0, y0, x1, y1, plane);
+    }
+
+    /**
+     * Gets north-blocked bits for 64 consecutive tiles, bit {@code i} for the tile at {@code x + i}.
+     */
+    public long northBlockedMask(int x, int y, int plane) {
+        return dataMap.getDataBitWord(x, y, plane, NORTH_DATA_BIT_POS);
+    }
+
+    /**
+     * Gets east-blocked bits for 64 consecutive tiles, bit {@code i} for the tile at {@code x + i}.
+     */
+    public long eastBlockedMask(int x, int y, int plane) {
+        return dataMap.getDataBitWord(x, y, plane, EAST_DATA_BIT_POS);
+    }
+
+    /**
+     * Gets south-blocked bits for 64 consecutive tiles, read from the north bits of the row below.
+     */
+    public long southBlockedMask(int x, int y, int plane) {
+        return northBlockedMask(x, y - 1, plane);
+    }
+
+    /**
+     * Gets west-blocked bits for 64 consecutive tiles, derived from the east bits of the
+     * same row shifted one tile east, plus the east bit of the tile before the run.
+     */
+    public long westBlockedMask(int x, int y, int plane) {
+        return (eastBlockedMask(x, y, plane) << 1) | (pathableEast(x - 1, y, plane) ? 0L : 1L);
+    }
+
+    /**
+     * Fills a reusable buffer with the blocked-direction bitboards of a row segment,
+     * starting at x and spanning the buffer's width.
+     *
+     * @param x     the x coordinate of the first tile
+     * @param y     the y coordinate of the row
+     * @param plane the plane
+     * @param out   the buffer to fill
+     * @return the filled buffer
+     */
+    public RowMasks fillRowMasks(int x, int y, int plane, RowMasks out) {
+        long[] north = out.north;
+        long[] east = out.east;
+        long[] south = out.south;
+        long[] west = out.west;
+        long carry = pathableEast(x - 1, y, plane) ? 0L : 1L;
+        for (int i = 0; i < out.getWords(); i++) {
+            int wordX = x + (i << 6);
+            north[i] = northBlockedMask(wordX, y, plane);
+            east[i] = eastBlockedMask(wordX, y, plane);
+            south[i] = southBlockedMask(wordX, y, plane);
+            west[i] = (east[i] << 1) | carry;
+            carry = east[i] >>> 63;
+        }
+        out.set(x, y, plane);
+        return out;
+    }
+
+    /**
+     * Gets the pathable directions of 64 consecutive tiles as one bitboard per direction,
+     * bit {@code i} of {@code out[b]} being direction bit {@code b} of {@link #all} for the
+     * tile at {@code x + i}. Built from ten row mask reads instead of per-tile lookups.
+     *
+     * @param out array of 8 words to fill
+     */
+    public void allMasks(int x, int y, int plane, long[] out) {
+        // Blocked bits of the runs starting one tile west of x, then the two tiles past the run
+        long northLo = northBlockedMask(x - 1, y, plane), northHi = northBlockedMask(x + 63, y, plane);
+        long southLo = northBlockedMask(x - 1, y - 1, plane), southHi = northBlockedMask(x + 63, y - 1, plane);
+        long eastLo = eastBlockedMask(x - 1, y, plane), eastHi = eastBlockedMask(x + 63, y, plane);
+        long aboveLo = eastBlockedMask(x - 1, y + 1, plane), aboveHi = eastBlockedMask(x + 63, y + 1, plane);
+        long belowLo = eastBlockedMask(x - 1, y - 1, plane), belowHi = eastBlockedMask(x + 63, y - 1, plane);
+
+        combine(northLo, northHi, southLo, southHi, eastLo, eastHi, aboveLo, aboveHi, belowLo, belowHi, out);
+    }
+
+    /**
+     * Gets the pathable directions of 64 tiles like {@link #allMasks(int, int, int, long[])}, from
+     * blocked words a caller already holds. Each array holds 9 words aligned on 64 tiles: rows
+     * {@code y - 1}, {@code y} and {@code y + 1}, each as the runs starting at {@code x - 64},
+     * {@code x} and {@code x + 64}. Lets callers sweeping an area read every word only once.
+     *
+     * @param northBlocked north-blocked words, see {@link #northBlockedMask}
+     * @param eastBlocked  east-blocked words, see {@link #eastBlockedMask}
+     * @param out          array of 8 words to fill
+     */
+    public static void allMasks(long[] northBlocked, long[] eastBlocked, long[] out) {
+        combine(lo(northBlocked, 1), hi(northBlocked, 1), lo(northBlocked, 0), hi(northBlocked, 0),
+                lo(eastBlocked, 1), hi(eastBlocked, 1), lo(eastBlocked, 2), hi(eastBlocked, 2),
+                lo(eastBlocked, 0), hi(eastBlocked, 0), out);
+    }
+
+    /**
+     * Gets the bits of the 64 tiles starting one tile west of the middle word of a row.
+     */
+    private static long lo(long[] words, int row) {
+        return (words[row * 3 + 1] << 1) | (words[row * 3] >>> 63);
+    }
+
+    /**
+     * Gets the bits of the 64 tiles following {@link #lo}.
+     */
+    private static long hi(long[] words, int row) {
+        return (words[row * 3 + 1] >>> 63) | (words[row * 3 + 2] << 1);
+    }
+
+    /**
+     * Combines blocked runs starting one tile west of x, and the runs following them,
+     * into direction bitboards.
+     */
+    private static void combine(long northLo, long northHi, long southLo, long southHi, long eastLo, long eastHi,
+                                long aboveLo, long aboveHi, long belowLo, long belowHi, long[] out) {
+        long n = ~shifted(northLo, northHi, 1);
+        long s = ~shifted(southLo, southHi, 1);
+        long e = ~shifted(eastLo, eastHi, 1);
+        long w = ~eastLo;
+
+        out[0] = n & w & ~aboveLo & ~northLo;
+        out[1] = n;
+        out[2] = n & e & ~shifted(aboveLo, aboveHi, 1) & ~shifted(northLo, northHi, 2);
+        out[3] = w;
+        out[4] = e;
+        out[5] = s & w & ~belowLo & ~southLo;
+        out[6] = s;
+        out[7] = s & e & ~shifted(belowLo, belowHi, 1) & ~shifted(southLo, southHi, 2);
+    }
+
+    /**
+     * Reads 64 bits starting {@code offset} bits into a pair of consecutive words.
+     */
+    private static long shifted(long lo, long hi, int offset) {
+        return (lo >>> offset) | (hi << (64 - offset));
+    }
+
     public boolean isBlocked(int x, int y, int plane) {
         return !pathableNorth(x, y, plane)
                 && !pathableEast(x, y, plane)
@@ -0,0 +1,159 @@
+package osrs.dev.collisionmap;
+
+/**
+ * Line of sight between tiles, walking the tiles a straight line between their centres passes
+ * through and checking the edge crossed at each step. Where the line passes exactly through a
+ * corner it sees past it if either way around the corner is open.
+ * The map holds movement collision only, so sight is blocked by anything that blocks walking.
+ * Batches of short rays from one tile read the edges of the smallest square around it holding
+ * every target as row bitboards once, then walk every ray against those words instead of
+ * looking up each edge.
+ * Not thread-safe, use one instance per thread.
+ */
+public class LineOfSight {
+    /**
+     * Largest distance on either axis from the source at which batches use the bitboard window.
+     */
+    public static final int SHORT_RANGE = 64;
+    private static final int MAX_WINDOW_ROWS = SHORT_RANGE * 2 + 2;
+    private static final int MAX_WINDOW_WORDS = ((SHORT_RANGE * 2 + 2) >>> 6) + 2;
+
+    private final CollisionMap map;
+    private final long[] northWindow = new long[MAX_WINDOW_ROWS * MAX_WINDOW_WORDS];
+    private final long[] eastWindow = new long[MAX_WINDOW_ROWS * MAX_WINDOW_WORDS];
+    private boolean windowed;
+    private int windowX;
+    private int windowY;
+    private int windowWords;
+    private int plane;
+
+    public LineOfSight(CollisionMap map) {
+        this.map = map.cursor();
+    }
+
+    /**
+     * Checks if one tile can see another on the same plane.
+     *
+     * @return {@code true} if no blocked edge lies on the line between the tiles
+     */
+    public boolean hasLineOfSight(int x0, int y0, int x1, int y1, int plane) {
+        windowed = false;
+        this.plane = plane;
+        return walk(x0, y0, x1, y1);
+    }
+
+    /**
+     * Checks which of a set of tiles one tile can see.
+     *
+     * @param targetXs the x coordinate of each target
+     * @param targetYs the y coordinate of each target
+     * @param out      set to whether each target is visible
+     * @return the number of visible targets
+     */
+    public int visible(int x, int y, int plane, int[] targetXs, int[] targetYs, boolean[] out) {
+        int range = 0;
+        for (int i = 0; i < targetXs.length; i++) {
+            range = Math.max(range, Math.max(Math.abs(targetXs[i] - x), Math.abs(targetYs[i] - y)));
+        }
+        this.plane = plane;
+        windowed = range <= SHORT_RANGE;
+        if (windowed) {
+            loadWindow(x, y, range);
+        }
+        int count = 0;
+        for (int i = 0; i < targetXs.length; i++) {
+            out[i] = walk(x, y, targetXs[i], targetYs[i]);
+            if (out[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads the blocked words of every tile within a range of a tile, plus the row and column
+     * below and west of that area whose north and east edges bound it.
+     */
+    private void loadWindow(int x, int y, int range) {
+        windowX = (x - range - 1) & ~63;
+        windowY = y - range - 1;
+        windowWords = ((x + range - windowX) >>> 6) + 1;
+        for (int row = 0; row < range * 2 + 2; row++) {
+            for (int word = 0; word < windowWords; word++) {
+                int wordX = windowX + (word << 6);
+                northWindow[row * windowWords + word] = map.northBlockedMask(wordX, windowY + row, plane);
+                eastWindow[row * windowWords + word] = map.eastBlockedMask(wordX, windowY + row, plane);
+            }
+        }
+    }
+
+    /**
+     * Walks the tiles from one tile to another, stepping in x, in y, or through a corner.
+     * A step is in x while the line leaves the current tile through its east or west side,
+     * compared in doubled coordinates to stay on integers.
+     */
+    private boolean walk(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int sx = x1 > x0 ? 1 : -1;
+        int sy = y1 > y0 ? 1 : -1;
+        int x = x0;
+        int y = y0;
+        int ix = 0;
+        int iy = 0;
+        while (ix < dx || iy < dy) {
+            long decision = (1L + 2 * ix) * dy - (1L + 2 * iy) * dx;
+            if (decision == 0) {
+                boolean aroundX = openX(x, y, sx) && openY(x + sx, y, sy);
+                boolean aroundY = openY(x, y, sy) && openX(x, y + sy, sx);
+                if (!aroundX && !aroundY) {
+                    return false;
+                }
+                x += sx;
+                y += sy;
+                ix++;
+                iy++;
+            } else if (decision < 0) {
+                if (!openX(x, y, sx)) {
+                    return false;
+                }
+                x += sx;
+                ix++;
+            } else {
+                if (!openY(x, y, sy)) {
+                    return false;
+                }
+                y += sy;
+                iy++;
+            }
+        }
+        return true;
+    }
+
+    private boolean openX(int x, int y, int sx) {
+        return !eastBlocked(sx > 0 ? x : x - 1, y);
+    }
+
+    private boolean openY(int x, int y, int sy) {
+        return !northBlocked(x, sy > 0 ? y : y - 1);
+    }
+
+    private boolean eastBlocked(int x, int y) {
+        if (windowed) {
+            return isSet(eastWindow, x, y);
+        }
+        return !map.pathableEast(x, y, plane);
+    }
+
+    private boolean northBlocked(int x, int y) {
+        if (windowed) {
+            return isSet(northWindow, x, y);
+        }
+        return !map.pathableNorth(x, y, plane);
+    }
+
+    private boolean isSet(long[] window, int x, int y) {
+        int dx = x - windowX;
+        return (window[(y - windowY) * windowWords + (dx >>> 6)] >>> (dx & 63) & 1) != 0;
+    }
+}
@@ -0,0 +1,94 @@
+package osrs.dev.collisionmap;
+
+import lombok.Getter;
+
+/**
+ * Reusable buffer holding blocked-direction bitboards for a horizontal run of tiles.
+ * Bit {@code i} of word {@code k} describes the tile at {@code x + 64 * k + i}.
+ * Filled by {@link CollisionMap#fillRowMasks(int, int, int, RowMasks)}; refilling it
+ * for another row allocates nothing.
+ */
+@Getter
+public class RowMasks {
+    private final int width;
+    private final int words;
+    private int x;
+    private int y;
+    private int plane;
+
+    final long[] north;
+    final long[] east;
+    final long[] south;
+    final long[] west;
+
+    /**
+     * Creates a buffer for row segments of the given width.
+     *
+     * @param width the number of tiles per row segment
+     */
+    public RowMasks(int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Row width must be positive: " + width);
+        }
+        this.width = width;
+        this.words = (width + 63) >>> 6;
+        this.north = new long[words];
+        this.east = new long[words];
+        this.south = new long[words];
+        this.west = new long[words];
+    }
+
+    void set(int x, int y, int plane) {
+        this.x = x;
+        this.y = y;
+        this.plane = plane;
+    }
+
+    /**
+     * Gets the bits of a word that fall inside the row segment.
+     */
+    public long validMask(int word) {
+        int remaining = width - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    public long northBlocked(int word) {
+        return north[word];
+    }
+
+    public long eastBlocked(int word) {
+        return east[word];
+    }
+
+    public long southBlocked(int word) {
+        return south[word];
+    }
+
+    public long westBlocked(int word) {
+        return west[word];
+    }
+
+    public long pathableNorth(int word) {
+        return ~north[word] & validMask(word);
+    }
+
+    public long pathableEast(int word) {
+        return ~east[word] & validMask(word);
+    }
+
+    public long pathableSouth(int word) {
+        return ~south[word] & validMask(word);
+    }
+
+    public long pathableWest(int word) {
+        return ~west[word] & validMask(word);
+    }
+
+    /**
+     * Gets the tiles that cannot be left in any cardinal direction,
+     * matching {@link CollisionMap#isBlocked(int, int, int)}.
+     */
+    public long blocked(int word) {
+        return north[word] & east[word] & south[word] & west[word] & validMask(word);
+    }
+}
@@ -146,6 +146,27 @@ Z range: 0 to 3 (span: 4)
         return packCoordinate(x, y, plane) | packDataBitOffset(dataBitPosition);
     }
 
+    /**
+     * Unpacks the X coordinate from a packed index.
+     */
+    public int unpackX(int index) {
+        return ((index >>> xShift) & xMask) + xBase;
+    }
+
+    /**
+     * Unpacks the Y coordinate from a packed index.
+     */
+    public int unpackY(int index) {
+        return ((index >>> yShift) & yMask) + yBase;
+    }
+
+    /**
+     * Unpacks the plane from a packed index.
+     */
+    public int unpackPlane(int index) {
+        return ((index >>> planeShift) & planeMask) + planeBase;
+    }
+
     private int packCoordinate(int x, int y, int plane) {
         return packX(x) | packY(y) | packPlane(plane);
     }
@@ -18,11 +18,24 @@ import net.runelite.cache.region.Region;
 import net.runelite.cache.region.RegionLoader;
 import net.runelite.cache.util.KeyProvider;
 import net.runelite.cache.util.XteaKeyManager;
+import osrs.dev.collisionmap.CollisionMap;
 import osrs.dev.collisionmap.CollisionMapFactory;
 import osrs.dev.collisionmap.CollisionMapWriter;
 import osrs.dev.tiletypemap.TileTypeMapFactory;
 import osrs.dev.dumper.openrs2.OpenRS2;
+import osrs.dev.pathfinder.ClearanceMap;
+import osrs.dev.pathfinder.ComponentLabeller;
+import osrs.dev.pathfinder.ComponentMap;
+import osrs.dev.pathfinder.DistanceTransform;
+import osrs.dev.pathfinder.RegionConnectivity;
+import osrs.dev.pathfinder.RegionConnectivityBuilder;
+import osrs.dev.pathfinder.RegionGraph;
+import osrs.dev.pathfinder.RegionGraphBuilder;
+import osrs.dev.pathfinder.TransportLayer;
+import osrs.dev.pathfinder.TransportLayerBuilder;
 import osrs.dev.tiletypemap.TileType;
+import osrs.dev.tiletypemap.TileTypeAreaBuilder;
+import osrs.dev.tiletypemap.TileTypeAreas;
 import osrs.dev.tiletypemap.TileTypeMapWriter;
 import osrs.dev.util.OptionsParser;
 import osrs.dev.util.ProgressBar;
@@ -48,6 +61,12 @@ public class Dumper
 {
     public static File OUTPUT_MAP = new File(System.getProperty("user.home") + "/VitaX/map_roaring.dat.gz");
     public static File OUTPUT_TILE_TYPES = new File(System.getProperty("user.home") + "/VitaX/tile_types_roaring.dat.gz");
+    public static File OUTPUT_REGION_GRAPH = new File(System.getProperty("user.home") + "/VitaX/region_graph.dat.gz");
+    public static File OUTPUT_COMPONENTS = new File(System.getProperty("user.home") + "/VitaX/components.dat.gz");
+    public static File OUTPUT_TRANSPORTS = new File(System.getProperty("user.home") + "/VitaX/transports.dat.gz");
+    public static File OUTPUT_CLEARANCE = new File(System.getProperty("user.home") + "/VitaX/clearance.dat.gz");
+    public static File OUTPUT_TILE_TYPE_AREAS = new File(System.getProperty("user.home") + "/VitaX/tile_type_areas.dat.gz");
+    public static File OUTPUT_REGION_CONNECTIVITY = new File(System.getProperty("user.home") + "/VitaX/region_connectivity.dat.gz");
     public static final String COLLISION_DIR = System.getProperty("user.home") + "/VitaX/cachedumper/";
     public static final String CACHE_DIR = COLLISION_DIR + "/cache/";
     public static final String XTEA_DIR = COLLISION_DIR + "/keys/";
@@ -57,6 +76,7 @@ public class Dumper
     private final UnderlayManager underlayManager;
     private final CollisionMapWriter collisionMapWriter;
     private final TileTypeMapWriter tileTypeMapWriter;
+    private final TransportLayerBuilder transportLayerBuilder = new TransportLayerBuilder();
 
     // Coordinate bounds tracking
     private int minX = Integer.MAX_VALUE;
@@ -131,16 +151,22 @@ public class Dumper
      * Dumps the collision data.
      *
      * @param args the command-line arguments
-     * @throws IOException if an I/O error occurs
+     * @throws Exception if an I/O error occurs or the written collision map cannot be read back
      */
-    public static void main(String[] args) throws IOException
+    public static void main(String[] args) throws Exception
     {
         optionsParser = new OptionsParser(args);
         format = optionsParser.getFormat();
         OUTPUT_MAP = new File(optionsParser.getCollisionMapPath());
         OUTPUT_TILE_TYPES = new File(optionsParser.getTileTypeMapPath());
-
-        log.info("Dumper options - dir: {}, format: {}", optionsParser.getOutputDir(), format);
+        OUTPUT_REGION_GRAPH = new File(optionsParser.getRegionGraphPath());
+        OUTPUT_COMPONENTS = new File(optionsParser.getComponentMapPath());
+        OUTPUT_TRANSPORTS = new File(optionsParser.getTransportLayerPath());
+        OUTPUT_CLEARANCE = new File(optionsParser.getClearanceMapPath());
+        OUTPUT_TILE_TYPE_AREAS = new File(optionsParser.getTileTypeAreasPath());
+        OUTPUT_REGION_CONNECTIVITY = new File(optionsParser.getRegionConnectivityPath());
+
+        log.info("Dumper options - dir: {}, format: {}, derived layers: {}", optionsParser.getOutputDir(), format, optionsParser.getDerivedLayers());
         log.info("Collision map path: {}", OUTPUT_MAP.getPath());
         log.info("Tile type map path: {}", OUTPUT_TILE_TYPES.getPath());
         ensureDirectory(optionsParser.getOutputDir());
@@ -211,6 +237,57 @@ public class Dumper
             dumper.tileTypeMapWriter.save(OUTPUT_TILE_TYPES.getPath());
             log.info("Wrote tile type map to {}", OUTPUT_TILE_TYPES.getPath());
 
+            // Derive the optional layers from the saved maps; one failing leaves the others and the maps in place
+            if (!optionsParser.getDerivedLayers().isEmpty())
+            {
+                List<Integer> regionIds = new ArrayList<>();
+                for (Region region : regions)
+                {
+                    regionIds.add(region.getRegionID());
+                }
+                CollisionMap collisionMap = CollisionMapFactory.load(OUTPUT_MAP.getPath());
+                buildLayer(OptionsParser.LAYER_REGION_GRAPH, () ->
+                {
+                    RegionGraph regionGraph = RegionGraphBuilder.build(collisionMap, regionIds, Region.Z);
+                    regionGraph.save(OUTPUT_REGION_GRAPH.getPath());
+                    log.info("Wrote region graph with {} entrances and {} edges to {}",
+                            regionGraph.getNodeCount(), regionGraph.getEdgeCount(), OUTPUT_REGION_GRAPH.getPath());
+                });
+                buildLayer(OptionsParser.LAYER_REGION_CONNECTIVITY, () ->
+                {
+                    RegionConnectivity regionConnectivity = RegionConnectivityBuilder.build(collisionMap, regionIds, Region.Z);
+                    regionConnectivity.save(OUTPUT_REGION_CONNECTIVITY.getPath());
+                    log.info("Wrote region connectivity with {} nodes and {} edges to {}",
+                            regionConnectivity.getNodeCount(), regionConnectivity.getEdgeCount(), OUTPUT_REGION_CONNECTIVITY.getPath());
+                });
+                buildLayer(OptionsParser.LAYER_COMPONENTS, () ->
+                {
+                    ComponentMap componentMap = ComponentLabeller.label(collisionMap, regionIds, Region.Z);
+                    componentMap.save(OUTPUT_COMPONENTS.getPath());
+                    log.info("Wrote {} connected components to {}", componentMap.getComponentCount(), OUTPUT_COMPONENTS.getPath());
+                });
+                buildLayer(OptionsParser.LAYER_TRANSPORTS, () ->
+                {
+                    TransportLayer transportLayer = dumper.transportLayerBuilder.build(collisionMap);
+                    transportLayer.save(OUTPUT_TRANSPORTS.getPath());
+                    log.info("Wrote {} transports from {} tiles to {}",
+                            transportLayer.getTransportCount(), transportLayer.getSourceCount(), OUTPUT_TRANSPORTS.getPath());
+                });
+                buildLayer(OptionsParser.LAYER_CLEARANCE, () ->
+                {
+                    ClearanceMap clearanceMap = DistanceTransform.compute(collisionMap, regionIds, Region.Z);
+                    clearanceMap.save(OUTPUT_CLEARANCE.getPath());
+                    log.info("Wrote distance transform of {} regions to {}", clearanceMap.getRegionCount(), OUTPUT_CLEARANCE.getPath());
+                });
+                buildLayer(OptionsParser.LAYER_TILE_TYPE_AREAS, () ->
+                {
+                    TileTypeAreas tileTypeAreas = TileTypeAreaBuilder.build(TileTypeMapFactory.load(OUTPUT_TILE_TYPES.getPath()), regionIds, Region.Z);
+                    tileTypeAreas.save(OUTPUT_TILE_TYPE_AREAS.getPath());
+                    log.info("Wrote {} tile type areas in {} rectangles to {}",
+                            tileTypeAreas.getAreaCount(), tileTypeAreas.getRectangleCount(), OUTPUT_TILE_TYPE_AREAS.getPath());
+                });
+            }
+
             // Log coordinate bounds and calculate bits needed
             log.info("=== COORDINATE BOUNDS ===");
             log.info("X range: {} to {} (span: {})", dumper.minX, dumper.maxX, dumper.maxX - dumper.minX + 1);
@@ -238,6 +315,40 @@ public class Dumper
             e.printStackTrace();
         }
     }
+    /**
+     * Builds one derived layer if it is enabled, logging a failure rather than aborting the dump.
+     *
+     * @param layer the layer name, see {@link OptionsParser#DERIVED_LAYERS}
+     * @param build builds and saves the layer
+     * @throws InterruptedException if interrupted while building
+     */
+    private static void buildLayer(String layer, LayerBuild build) throws InterruptedException
+    {
+        if (!optionsParser.isDerivedLayerEnabled(layer))
+        {
+            log.info("Skipping derived layer {}", layer);
+            return;
+        }
+        try
+        {
+            build.run();
+        }
+        catch (InterruptedException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            log.error("Failed to build derived layer {}, continuing with the rest", layer, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LayerBuild
+    {
+        void run() throws Exception;
+    }
+
     /**
      * Processes a region.
      *
@@ -501,6 +612,9 @@ public class Dumper
             int sizeX = (orientation == 1 || orientation == 3) ? object.getSizeY() : object.getSizeX();
             int sizeY = (orientation == 1 || orientation == 3) ? object.getSizeX() : object.getSizeY();
 
+            // Ladders and stairs linking this plane to the next
+            transportLayerBuilder.add(loc.getId(), object.getActions(), regionX, regionY, plane, sizeX, sizeY);
+
             // Handle walls and doors
             if (type >= 0 && type <= 3)
             {
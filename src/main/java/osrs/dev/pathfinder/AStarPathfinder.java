@@ -0,0 +1,340 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+
+/**
+ * A* pathfinder over a collision map, moving in the 8 directions the map allows.
+ * Straight steps cost 10 and diagonal steps 14, guided by the octile distance, which
+ * never overestimates these costs, so the paths found are cheapest paths.
+ * The open list is an indexed primitive heap over the tiles of the search window; the
+ * per-tile state is reused between searches like in {@link BfsPathfinder}.
+ * Each search can be bounded by a node budget and a timeout to cap its latency, and
+ * {@link #start} runs a search in slices that each return the best partial path so far.
+ * {@link #findNearest} finds the cheapest path to the nearest of many goals in one search.
+ * Not thread-safe, use one pathfinder per thread.
+ */
+public class AStarPathfinder {
+    public static final int DEFAULT_WINDOW_SIZE = 1024;
+    /**
+     * Number of expansions between two clock reads when a timeout is set.
+     */
+    private static final int TIMEOUT_CHECK_INTERVAL = 1024;
+
+    private final CollisionMap map;
+    private final SearchWindow window;
+    private final IndexedMinHeap open;
+    private final int[] cost;
+
+    /**
+     * Counts the searches started, so a {@link Search} can tell when another search took over.
+     */
+    private int searchGeneration;
+    private int goalX;
+    private int goalY;
+    private int plane;
+    private int goal;
+    /**
+     * Expanded tile nearest the goal by the heuristic, cheapest first among ties.
+     */
+    private int best;
+    private int bestDistance;
+
+    public AStarPathfinder(CollisionMap map) {
+        this(map, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a pathfinder.
+     *
+     * @param map        the collision map to search
+     * @param windowSize the side length of the search window in tiles, a power of two
+     */
+    public AStarPathfinder(CollisionMap map, int windowSize) {
+        this.map = map.cursor();
+        this.window = new SearchWindow(windowSize);
+        this.open = new IndexedMinHeap(windowSize * windowSize);
+        this.cost = new int[windowSize * windowSize];
+    }
+
+    /**
+     * Finds a cheapest path between two tiles on the same plane without limits.
+     *
+     * @return the path, empty if the goal is unreachable or outside the search window
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane) {
+        return find(startX, startY, goalX, goalY, plane, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds a cheapest path between two tiles on the same plane.
+     *
+     * @param nodeBudget   the maximum number of tiles to expand
+     * @param timeoutNanos the maximum time to search for
+     * @return the path, empty if no path was found, with the reason in its status
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane, int nodeBudget, long timeoutNanos) {
+        long startTime = System.nanoTime();
+        if (!begin(startX, startY, goalX, goalY, plane)) {
+            return PathResult.notFound(PathResult.Status.OUT_OF_WINDOW, 0, System.nanoTime() - startTime);
+        }
+        return expand(nodeBudget, timeoutNanos, startTime, false);
+    }
+
+    /**
+     * Starts a search that can run in slices, for callers that prefer a partial path now to a
+     * cheapest path later. Each {@link Search#resume} expands up to a budget and, if the goal
+     * is not reached, returns the path to the expanded tile nearest the goal; the next call
+     * carries on from where the last stopped.
+     * The search keeps its state in this pathfinder, so starting any other search here ends it.
+     *
+     * @return the search, not yet run
+     */
+    public Search start(int startX, int startY, int goalX, int goalY, int plane) {
+        if (!begin(startX, startY, goalX, goalY, plane)) {
+            return new Search(PathResult.notFound(PathResult.Status.OUT_OF_WINDOW, 0, 0));
+        }
+        return new Search(null);
+    }
+
+    /**
+     * Resets the search state and puts the start on the open list.
+     *
+     * @return false if the start and goal do not both fit in the search window
+     */
+    private boolean begin(int startX, int startY, int goalX, int goalY, int plane) {
+        searchGeneration++;
+        SearchWindow window = this.window;
+        if (!window.reset(startX, startY, goalX, goalY, plane)) {
+            return false;
+        }
+        int start = window.index(startX, startY);
+        open.clear();
+        window.visit(start);
+        window.parent[start] = -1;
+        cost[start] = 0;
+        open.insert(start, Directions.octile(startX, startY, goalX, goalY));
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.plane = plane;
+        this.goal = window.index(goalX, goalY);
+        this.best = start;
+        this.bestDistance = Directions.octile(startX, startY, goalX, goalY);
+        return true;
+    }
+
+    /**
+     * Expands tiles of the search set up by {@link #begin} until the goal is reached or a limit is hit.
+     *
+     * @param partial whether to return the path to the expanded tile nearest the goal when the goal is not reached
+     */
+    private PathResult expand(int nodeBudget, long timeoutNanos, long startTime, boolean partial) {
+        SearchWindow window = this.window;
+        IndexedMinHeap open = this.open;
+        int[] cost = this.cost;
+        int[] parent = window.parent;
+        int goalX = this.goalX;
+        int goalY = this.goalY;
+        int plane = this.plane;
+        int goal = this.goal;
+        int expanded = 0;
+
+        while (!open.isEmpty()) {
+            if (expanded >= nodeBudget) {
+                return stopped(PathResult.Status.NODE_BUDGET_EXHAUSTED, partial, expanded, startTime);
+            }
+            if (expanded % TIMEOUT_CHECK_INTERVAL == 0 && timeoutNanos != Long.MAX_VALUE
+                    && System.nanoTime() - startTime >= timeoutNanos) {
+                return stopped(PathResult.Status.TIMED_OUT, partial, expanded, startTime);
+            }
+
+            int current = open.poll();
+            expanded++;
+            if (current == goal) {
+                return new PathResult(window.path(current), expanded, System.nanoTime() - startTime);
+            }
+
+            int x = window.x(current);
+            int y = window.y(current);
+            int currentCost = cost[current];
+            if (partial) {
+                int distance = Directions.octile(x, y, goalX, goalY);
+                if (distance < bestDistance || (distance == bestDistance && currentCost < cost[best])) {
+                    best = current;
+                    bestDistance = distance;
+                }
+            }
+            int flags = map.all(x, y, plane);
+            for (int bit : Directions.ORDER) {
+                if ((flags & (1 << bit)) == 0) {
+                    continue;
+                }
+                int nx = x + Directions.DX[bit];
+                int ny = y + Directions.DY[bit];
+                if (!window.contains(nx, ny)) {
+                    continue;
+                }
+                int next = window.index(nx, ny);
+                int nextCost = currentCost + Directions.cost(bit);
+                if (window.visit(next)) {
+                    cost[next] = nextCost;
+                    parent[next] = current;
+                    open.insert(next, nextCost + Directions.octile(nx, ny, goalX, goalY));
+                } else if (nextCost < cost[next] && open.slot(next) != IndexedMinHeap.POLLED) {
+                    // The heuristic is consistent, so expanded tiles never need to be reopened
+                    cost[next] = nextCost;
+                    parent[next] = current;
+                    open.decrease(next, nextCost + Directions.octile(nx, ny, goalX, goalY));
+                }
+            }
+        }
+        return stopped(PathResult.Status.UNREACHABLE, partial, expanded, startTime);
+    }
+
+    private PathResult stopped(PathResult.Status status, boolean partial, int expanded, long startTime) {
+        long nanos = System.nanoTime() - startTime;
+        return partial ? PathResult.partial(window.path(best), status, expanded, nanos) : PathResult.notFound(status, expanded, nanos);
+    }
+
+    /**
+     * Finds a cheapest path to the nearest of a set of goals without limits.
+     *
+     * @return the goal reached and the path to it
+     */
+    public NearestGoal findNearest(int startX, int startY, int plane, GoalSet goals) {
+        return findNearest(startX, startY, plane, goals, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds a cheapest path to the nearest of a set of goals.
+     * The search runs backwards from all goals at once towards the start, guided by the octile
+     * distance to the start, and ends when the start is reached, so its cost does not grow with
+     * the number of goals the way one search per goal does. A tile is reached from a neighbour
+     * only if it can move onto that neighbour, so one-way collision is respected.
+     * Only goals on the plane and inside the search window centred on the start are considered.
+     *
+     * @param goals        the goal tiles
+     * @param nodeBudget   the maximum number of tiles to expand
+     * @param timeoutNanos the maximum time to search for
+     * @return the goal reached and the path to it, no goal if none was reached, with the reason in the result's status
+     */
+    public NearestGoal findNearest(int startX, int startY, int plane, GoalSet goals, int nodeBudget, long timeoutNanos) {
+        long startTime = System.nanoTime();
+        searchGeneration++;
+        SearchWindow window = this.window;
+        window.reset(startX, startY, startX, startY, plane);
+
+        IndexedMinHeap open = this.open;
+        int[] cost = this.cost;
+        int[] parent = window.parent;
+        int start = window.index(startX, startY);
+        open.clear();
+        for (int goal : goals.toArray()) {
+            int gx = Coords.x(goal);
+            int gy = Coords.y(goal);
+            if (Coords.plane(goal) != plane || !window.contains(gx, gy)) {
+                continue;
+            }
+            int index = window.index(gx, gy);
+            window.visit(index);
+            parent[index] = -1;
+            cost[index] = 0;
+            open.insert(index, Directions.octile(gx, gy, startX, startY));
+        }
+        if (open.isEmpty()) {
+            return new NearestGoal(PathResult.notFound(PathResult.Status.OUT_OF_WINDOW, 0, System.nanoTime() - startTime), -1);
+        }
+        int expanded = 0;
+
+        while (!open.isEmpty()) {
+            if (expanded >= nodeBudget) {
+                return new NearestGoal(PathResult.notFound(PathResult.Status.NODE_BUDGET_EXHAUSTED, expanded, System.nanoTime() - startTime), -1);
+            }
+            if (expanded % TIMEOUT_CHECK_INTERVAL == 0 && timeoutNanos != Long.MAX_VALUE
+                    && System.nanoTime() - startTime >= timeoutNanos) {
+                return new NearestGoal(PathResult.notFound(PathResult.Status.TIMED_OUT, expanded, System.nanoTime() - startTime), -1);
+            }
+
+            int current = open.poll();
+            expanded++;
+            if (current == start) {
+                int[] path = window.pathToRoot(current);
+                return new NearestGoal(new PathResult(path, expanded, System.nanoTime() - startTime), path[path.length - 1]);
+            }
+
+            int x = window.x(current);
+            int y = window.y(current);
+            int currentCost = cost[current];
+            for (int bit : Directions.ORDER) {
+                // The tile that reaches this one by moving in this direction
+                int px = x - Directions.DX[bit];
+                int py = y - Directions.DY[bit];
+                if (!window.contains(px, py) || (map.all(px, py, plane) & (1 << bit)) == 0) {
+                    continue;
+                }
+                int previous = window.index(px, py);
+                int previousCost = currentCost + Directions.cost(bit);
+                if (window.visit(previous)) {
+                    cost[previous] = previousCost;
+                    parent[previous] = current;
+                    open.insert(previous, previousCost + Directions.octile(px, py, startX, startY));
+                } else if (previousCost < cost[previous] && open.slot(previous) != IndexedMinHeap.POLLED) {
+                    cost[previous] = previousCost;
+                    parent[previous] = current;
+                    open.decrease(previous, previousCost + Directions.octile(px, py, startX, startY));
+                }
+            }
+        }
+        return new NearestGoal(PathResult.notFound(PathResult.Status.UNREACHABLE, expanded, System.nanoTime() - startTime), -1);
+    }
+
+    /**
+     * A search started by {@link #start} that runs in slices.
+     */
+    public final class Search {
+        private final int generation = searchGeneration;
+        private PathResult result;
+        private long nodesExpanded;
+
+        private Search(PathResult result) {
+            this.result = result;
+        }
+
+        /**
+         * Carries the search on.
+         *
+         * @param nodeBudget   the maximum number of tiles to expand in this call
+         * @param timeoutNanos the maximum time to search for in this call
+         * @return the path if the goal was reached, otherwise the path to the expanded tile nearest
+         * the goal, with the reason the search stopped in its status
+         * @throws IllegalStateException if another search was started on the pathfinder since
+         */
+        public PathResult resume(int nodeBudget, long timeoutNanos) {
+            if (result != null) {
+                return result;
+            }
+            if (generation != searchGeneration) {
+                throw new IllegalStateException("Another search was started on this pathfinder");
+            }
+            PathResult slice = expand(nodeBudget, timeoutNanos, System.nanoTime(), true);
+            nodesExpanded += slice.getNodesExpanded();
+            if (slice.isFound() || slice.getStatus() == PathResult.Status.UNREACHABLE) {
+                result = slice;
+            }
+            return slice;
+        }
+
+        /**
+         * Checks if the search has ended, by reaching the goal or running out of tiles.
+         */
+        public boolean isDone() {
+            return result != null;
+        }
+
+        /**
+         * Gets the number of tiles expanded over all calls so far.
+         */
+        public long getNodesExpanded() {
+            return nodesExpanded;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+
+/**
+ * Breadth-first pathfinder over a collision map, moving one tile per step in any of
+ * the 8 directions the map allows.
+ * The search is confined to a square window around the start and goal tiles. Queue,
+ * parent and visited state live in arrays allocated once per pathfinder, so a search
+ * allocates nothing but its result.
+ * Not thread-safe, use one pathfinder per thread.
+ */
+public class BfsPathfinder {
+    public static final int DEFAULT_WINDOW_SIZE = 512;
+
+    private final CollisionMap map;
+    private final SearchWindow window;
+    private final int[] queue;
+
+    public BfsPathfinder(CollisionMap map) {
+        this(map, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a pathfinder.
+     *
+     * @param map        the collision map to search
+     * @param windowSize the side length of the search window in tiles, a power of two
+     */
+    public BfsPathfinder(CollisionMap map, int windowSize) {
+        this.map = map.cursor();
+        this.window = new SearchWindow(windowSize);
+        this.queue = new int[windowSize * windowSize];
+    }
+
+    /**
+     * Finds a shortest path between two tiles on the same plane.
+     *
+     * @return the path, empty if the goal is unreachable or outside the search window
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane) {
+        long startTime = System.nanoTime();
+        SearchWindow window = this.window;
+        if (!window.reset(startX, startY, goalX, goalY, plane)) {
+            return PathResult.notFound(PathResult.Status.OUT_OF_WINDOW, 0, System.nanoTime() - startTime);
+        }
+
+        int[] queue = this.queue;
+        int[] parent = window.parent;
+        int goal = window.index(goalX, goalY);
+        int start = window.index(startX, startY);
+        window.visit(start);
+        parent[start] = -1;
+        queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        int expanded = 0;
+
+        while (head < tail) {
+            int current = queue[head++];
+            expanded++;
+            if (current == goal) {
+                return new PathResult(window.path(current), expanded, System.nanoTime() - startTime);
+            }
+
+            int x = window.x(current);
+            int y = window.y(current);
+            int flags = map.all(x, y, plane);
+            for (int bit : Directions.ORDER) {
+                if ((flags & (1 << bit)) == 0) {
+                    continue;
+                }
+                int nx = x + Directions.DX[bit];
+                int ny = y + Directions.DY[bit];
+                if (!window.contains(nx, ny)) {
+                    continue;
+                }
+                int next = window.index(nx, ny);
+                if (window.visit(next)) {
+                    parent[next] = current;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return PathResult.notFound(PathResult.Status.UNREACHABLE, expanded, System.nanoTime() - startTime);
+    }
+}
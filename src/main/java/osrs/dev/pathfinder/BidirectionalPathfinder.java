@@ -0,0 +1,164 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+
+/**
+ * Breadth-first pathfinder searching from both ends at once, which explores roughly half the
+ * area of {@link BfsPathfinder} on long open routes and finds paths of the same number of steps.
+ * Each round expands one whole level of the smaller frontier. The forward search follows the
+ * moves {@link CollisionMap#all} allows out of a tile. The backward search reaches a tile from
+ * a neighbour only if the tile can move onto that neighbour, since the map's south and west
+ * edges are the north and east edges of the neighbouring tiles and a tile's moves out are not
+ * always the reverse of its moves in.
+ * Not thread-safe, use one pathfinder per thread.
+ */
+public class BidirectionalPathfinder {
+    public static final int DEFAULT_WINDOW_SIZE = 512;
+
+    private final CollisionMap map;
+    /**
+     * Forward state, each tile's parent being the tile it was reached from.
+     */
+    private final SearchWindow forward;
+    /**
+     * Backward state over the same area, each tile's parent being its next step towards the goal.
+     */
+    private final SearchWindow backward;
+    private final int[] forwardQueue;
+    private final int[] backwardQueue;
+    private final int[] forwardDepth;
+    private final int[] backwardDepth;
+
+    public BidirectionalPathfinder(CollisionMap map) {
+        this(map, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a pathfinder.
+     *
+     * @param map        the collision map to search
+     * @param windowSize the side length of the search window in tiles, a power of two
+     */
+    public BidirectionalPathfinder(CollisionMap map, int windowSize) {
+        this.map = map.cursor();
+        this.forward = new SearchWindow(windowSize);
+        this.backward = new SearchWindow(windowSize);
+        this.forwardQueue = new int[windowSize * windowSize];
+        this.backwardQueue = new int[windowSize * windowSize];
+        this.forwardDepth = new int[windowSize * windowSize];
+        this.backwardDepth = new int[windowSize * windowSize];
+    }
+
+    /**
+     * Finds a shortest path between two tiles on the same plane.
+     *
+     * @return the path, empty if the goal is unreachable or outside the search window
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane) {
+        long startTime = System.nanoTime();
+        if (!forward.reset(startX, startY, goalX, goalY, plane)) {
+            return PathResult.notFound(PathResult.Status.OUT_OF_WINDOW, 0, System.nanoTime() - startTime);
+        }
+        backward.reset(startX, startY, goalX, goalY, plane);
+
+        int start = forward.index(startX, startY);
+        int goal = forward.index(goalX, goalY);
+        if (start == goal) {
+            return new PathResult(new int[]{forward.pack(start)}, 0, System.nanoTime() - startTime);
+        }
+        forward.visit(start);
+        forward.parent[start] = -1;
+        forwardDepth[start] = 0;
+        forwardQueue[0] = start;
+        backward.visit(goal);
+        backward.parent[goal] = -1;
+        backwardDepth[goal] = 0;
+        backwardQueue[0] = goal;
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+        int expanded = 0;
+
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            // Tiles first reached by both searches in this level, keeping the shortest join;
+            // no later level can join more cheaply
+            int meet = -1;
+            int best = Integer.MAX_VALUE;
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int levelEnd = forwardTail;
+                while (forwardHead < levelEnd) {
+                    int current = forwardQueue[forwardHead++];
+                    expanded++;
+                    int x = forward.x(current);
+                    int y = forward.y(current);
+                    int flags = map.all(x, y, plane);
+                    for (int bit : Directions.ORDER) {
+                        if ((flags & (1 << bit)) == 0) {
+                            continue;
+                        }
+                        int nx = x + Directions.DX[bit];
+                        int ny = y + Directions.DY[bit];
+                        if (!forward.contains(nx, ny)) {
+                            continue;
+                        }
+                        int next = forward.index(nx, ny);
+                        if (!forward.visit(next)) {
+                            continue;
+                        }
+                        forward.parent[next] = current;
+                        forwardDepth[next] = forwardDepth[current] + 1;
+                        forwardQueue[forwardTail++] = next;
+                        if (backward.isVisited(next) && forwardDepth[next] + backwardDepth[next] < best) {
+                            best = forwardDepth[next] + backwardDepth[next];
+                            meet = next;
+                        }
+                    }
+                }
+            } else {
+                int levelEnd = backwardTail;
+                while (backwardHead < levelEnd) {
+                    int current = backwardQueue[backwardHead++];
+                    expanded++;
+                    int x = backward.x(current);
+                    int y = backward.y(current);
+                    for (int bit : Directions.ORDER) {
+                        // The tile that reaches this one by moving in this direction
+                        int px = x - Directions.DX[bit];
+                        int py = y - Directions.DY[bit];
+                        if (!backward.contains(px, py) || (map.all(px, py, plane) & (1 << bit)) == 0) {
+                            continue;
+                        }
+                        int previous = backward.index(px, py);
+                        if (!backward.visit(previous)) {
+                            continue;
+                        }
+                        backward.parent[previous] = current;
+                        backwardDepth[previous] = backwardDepth[current] + 1;
+                        backwardQueue[backwardTail++] = previous;
+                        if (forward.isVisited(previous) && forwardDepth[previous] + backwardDepth[previous] < best) {
+                            best = forwardDepth[previous] + backwardDepth[previous];
+                            meet = previous;
+                        }
+                    }
+                }
+            }
+            if (meet >= 0) {
+                return new PathResult(join(meet), expanded, System.nanoTime() - startTime);
+            }
+        }
+        return PathResult.notFound(PathResult.Status.UNREACHABLE, expanded, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Joins the forward path to the meeting tile with the backward path from it to the goal.
+     */
+    private int[] join(int meet) {
+        int[] head = forward.path(meet);
+        int[] tail = backward.pathToRoot(meet);
+        int[] path = new int[head.length + tail.length - 1];
+        System.arraycopy(head, 0, path, 0, head.length);
+        System.arraycopy(tail, 1, path, head.length, tail.length - 1);
+        return path;
+    }
+}
@@ -0,0 +1,144 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds every tile reachable from a start tile within a number of steps, 64 tiles per operation.
+ * The frontier and visited sets are row bitboards over a square window centred on the start.
+ * Each step moves the whole frontier in the 8 directions at once: a frontier word is masked with
+ * the tiles that may move in a direction ({@link CollisionMap#allMasks}, built from the north and
+ * east blocked masks) and shifted into the neighbouring row and column, carrying the end bits
+ * into the adjacent words. The moves of the window are read once per search.
+ * Not thread-safe, use one instance per thread.
+ */
+public class BitboardReachability {
+    public static final int DEFAULT_WINDOW_SIZE = 256;
+
+    private final CollisionMap map;
+    private final int size;
+    private final int wordsPerRow;
+    /**
+     * Tiles of each window word that can move in each direction, at {@code word * 8 + bit}.
+     */
+    private final long[] moves;
+    private final long[] masks = new long[8];
+
+    public BitboardReachability(CollisionMap map) {
+        this(map, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a reachability search.
+     *
+     * @param map        the collision map to search
+     * @param windowSize the side length of the window in tiles, a multiple of 64
+     */
+    public BitboardReachability(CollisionMap map, int windowSize) {
+        if (windowSize <= 0 || (windowSize & 63) != 0) {
+            throw new IllegalArgumentException("Window size must be a multiple of 64: " + windowSize);
+        }
+        this.map = map.cursor();
+        this.size = windowSize;
+        this.wordsPerRow = windowSize >>> 6;
+        this.moves = new long[windowSize * wordsPerRow * 8];
+    }
+
+    /**
+     * Expands from a start tile until nothing new is reached or the step limit is hit.
+     *
+     * @param maxSteps the maximum number of steps from the start
+     * @return the reached tiles and their step counts
+     */
+    public ReachableArea expand(int startX, int startY, int plane, int maxSteps) {
+        int originX = startX - size / 2;
+        int originY = startY - size / 2;
+        int words = size * wordsPerRow;
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < wordsPerRow; column++) {
+                map.allMasks(originX + (column << 6), originY + row, plane, masks);
+                System.arraycopy(masks, 0, moves, (row * wordsPerRow + column) << 3, 8);
+            }
+        }
+
+        long[] reached = new long[words];
+        long[] frontier = new long[words];
+        int startIndex = (startY - originY) * wordsPerRow + ((startX - originX) >>> 6);
+        frontier[startIndex] = 1L << ((startX - originX) & 63);
+        reached[startIndex] = frontier[startIndex];
+        List<long[]> rings = new ArrayList<>();
+        rings.add(frontier.clone());
+        int minRow = startY - originY;
+        int maxRow = minRow;
+
+        for (int steps = 1; steps <= maxSteps; steps++) {
+            long[] next = new long[words];
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = 0; column < wordsPerRow; column++) {
+                    int word = row * wordsPerRow + column;
+                    long tiles = frontier[word];
+                    if (tiles == 0) {
+                        continue;
+                    }
+                    for (int bit = 0; bit < 8; bit++) {
+                        long moving = tiles & moves[(word << 3) + bit];
+                        if (moving != 0) {
+                            move(next, moving, row + Directions.DY[bit], column, Directions.DX[bit]);
+                        }
+                    }
+                }
+            }
+
+            boolean any = false;
+            int nextMin = size;
+            int nextMax = -1;
+            for (int row = Math.max(minRow - 1, 0); row <= Math.min(maxRow + 1, size - 1); row++) {
+                for (int column = 0; column < wordsPerRow; column++) {
+                    int word = row * wordsPerRow + column;
+                    long fresh = next[word] & ~reached[word];
+                    next[word] = fresh;
+                    if (fresh != 0) {
+                        reached[word] |= fresh;
+                        any = true;
+                        nextMin = Math.min(nextMin, row);
+                        nextMax = Math.max(nextMax, row);
+                    }
+                }
+            }
+            if (!any) {
+                break;
+            }
+            rings.add(next);
+            frontier = next;
+            minRow = nextMin;
+            maxRow = nextMax;
+        }
+        return new ReachableArea(originX, originY, plane, size, reached, rings.toArray(new long[0][]));
+    }
+
+    /**
+     * Adds tiles of one word, moved one column to the east or west, to a row of a bitboard.
+     * Tiles moved outside the window are dropped.
+     */
+    private void move(long[] target, long tiles, int row, int column, int dx) {
+        if (row < 0 || row >= size) {
+            return;
+        }
+        int word = row * wordsPerRow + column;
+        if (dx == 0) {
+            target[word] |= tiles;
+        } else if (dx > 0) {
+            target[word] |= tiles << 1;
+            if (column + 1 < wordsPerRow) {
+                target[word + 1] |= tiles >>> 63;
+            }
+        } else {
+            target[word] |= tiles >>> 1;
+            if (column > 0) {
+                target[word - 1] |= tiles << 63;
+            }
+        }
+    }
+}
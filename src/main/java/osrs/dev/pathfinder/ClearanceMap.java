@@ -0,0 +1,186 @@
+package osrs.dev.pathfinder;
+
+import lombok.Getter;
+import osrs.dev.util.Regions;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Distance transform of a collision map: for every tile that can be stood on, its clearance to
+ * the nearest tile that cannot, and for every other tile its distance to the nearest tile that
+ * can. Distances are in tiles on either axis, exact below {@link #MAX_DISTANCE} and capped at it.
+ * Built by {@link DistanceTransform}.
+ * Each tile is one byte, the top bit set for tiles that can be stood on and the distance in the
+ * rest. Regions whose tiles all hold the same byte, such as open sea, store just that byte.
+ * Tiles outside the transformed regions read as blocked with no walkable tile in range.
+ * Immutable and safe to share between threads.
+ */
+public class ClearanceMap {
+    /**
+     * Largest distance stored, larger distances read as this.
+     */
+    public static final int MAX_DISTANCE = 32;
+    private static final int MAGIC = 0x52434C48; // "RCLH"
+    private static final int VERSION = 1;
+    private static final int TILES = Regions.SIZE * Regions.SIZE;
+    static final int WALKABLE = 0x80;
+
+    /**
+     * Sorted keys of the transformed regions, see {@link RegionGraph#regionKey(int, int)}.
+     */
+    private final int[] regionKeys;
+    /**
+     * Offset of each region's tiles in {@link #tiles}, or -1 if every tile holds {@link #uniform}.
+     */
+    private final int[] tileOffsets;
+    private final byte[] uniform;
+    private final byte[] tiles;
+    @Getter
+    private final int regionCount;
+
+    ClearanceMap(int[] regionKeys, int[] tileOffsets, byte[] uniform, byte[] tiles) {
+        this.regionKeys = regionKeys;
+        this.tileOffsets = tileOffsets;
+        this.uniform = uniform;
+        this.tiles = tiles;
+        this.regionCount = regionKeys.length;
+    }
+
+    public boolean isWalkable(int x, int y, int plane) {
+        return (value(x, y, plane) & WALKABLE) != 0;
+    }
+
+    /**
+     * Gets the distance from a tile that can be stood on to the nearest tile that cannot.
+     *
+     * @return the distance, capped at {@link #MAX_DISTANCE}, or 0 if the tile cannot be stood on
+     */
+    public int clearance(int x, int y, int plane) {
+        int value = value(x, y, plane);
+        return (value & WALKABLE) != 0 ? value & ~WALKABLE : 0;
+    }
+
+    /**
+     * Gets the distance from a tile to the nearest tile that can be stood on.
+     *
+     * @return the distance, 0 if the tile can be stood on, or -1 if there is none closer than
+     * {@link #MAX_DISTANCE}
+     */
+    public int distanceToWalkable(int x, int y, int plane) {
+        int value = value(x, y, plane);
+        if ((value & WALKABLE) != 0) {
+            return 0;
+        }
+        return value >= MAX_DISTANCE ? -1 : value;
+    }
+
+    /**
+     * Finds the tile that can be stood on nearest to a tile, checking only the ring of tiles at
+     * the stored distance, so at most {@code 8 * distance} lookups. Of several tiles in the ring
+     * the one nearest in a straight line is picked.
+     *
+     * @return the packed tile, see {@link Coords}, the tile itself if it can be stood on, or -1
+     * if there is none closer than {@link #MAX_DISTANCE}
+     */
+    public int nearestWalkable(int x, int y, int plane) {
+        int distance = distanceToWalkable(x, y, plane);
+        if (distance <= 0) {
+            return distance == 0 ? Coords.pack(x, y, plane) : -1;
+        }
+        int best = -1;
+        int bestSquared = Integer.MAX_VALUE;
+        for (int dy = -distance; dy <= distance; dy++) {
+            // Only the left and right edge of the ring between its top and bottom rows
+            int step = dy == -distance || dy == distance ? 1 : distance * 2;
+            for (int dx = -distance; dx <= distance; dx += step) {
+                int squared = dx * dx + dy * dy;
+                if (squared < bestSquared && isWalkable(x + dx, y + dy, plane)) {
+                    best = Coords.pack(x + dx, y + dy, plane);
+                    bestSquared = squared;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int value(int x, int y, int plane) {
+        int slot = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(Regions.id(x, y), plane));
+        if (slot < 0) {
+            return MAX_DISTANCE;
+        }
+        if (tileOffsets[slot] < 0) {
+            return uniform[slot] & 0xFF;
+        }
+        return tiles[tileOffsets[slot] + (((y & (Regions.SIZE - 1)) << Regions.SHIFT) | (x & (Regions.SIZE - 1)))] & 0xFF;
+    }
+
+    /**
+     * Saves the transform, gzipped if the path ends with .gz.
+     *
+     * @param filePath the file to write
+     * @throws IOException if writing fails
+     */
+    public void save(String filePath) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filePath);
+             OutputStream out = filePath.endsWith(".gz") ? new GZIPOutputStream(fos) : fos;
+             DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(regionKeys.length);
+            for (int slot = 0; slot < regionKeys.length; slot++) {
+                dos.writeInt(regionKeys[slot]);
+                dos.writeBoolean(tileOffsets[slot] >= 0);
+                if (tileOffsets[slot] >= 0) {
+                    dos.write(tiles, tileOffsets[slot], TILES);
+                } else {
+                    dos.writeByte(uniform[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads a transform written by {@link #save}, gunzipping it if the path ends with .gz.
+     *
+     * @param filePath the file to read
+     * @return the transform
+     * @throws IOException if reading fails or the file does not hold a distance transform
+     */
+    public static ClearanceMap load(String filePath) throws IOException {
+        try (FileInputStream fis = new FileInputStream(filePath);
+             InputStream in = filePath.endsWith(".gz") ? new GZIPInputStream(fis) : fis;
+             DataInputStream dis = new DataInputStream(new BufferedInputStream(in))) {
+            if (dis.readInt() != MAGIC) {
+                throw new IOException("Not a clearance map: " + filePath);
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported clearance map version " + version);
+            }
+            int regions = dis.readInt();
+            int[] regionKeys = new int[regions];
+            int[] tileOffsets = new int[regions];
+            byte[] uniform = new byte[regions];
+            byte[] tiles = new byte[0];
+            int size = 0;
+            for (int slot = 0; slot < regions; slot++) {
+                regionKeys[slot] = dis.readInt();
+                tileOffsets[slot] = -1;
+                if (dis.readBoolean()) {
+                    if (size + TILES > tiles.length) {
+                        tiles = Arrays.copyOf(tiles, Math.max(size + TILES, tiles.length * 2));
+                    }
+                    dis.readFully(tiles, size, TILES);
+                    tileOffsets[slot] = size;
+                    size += TILES;
+                } else {
+                    uniform[slot] = dis.readByte();
+                }
+            }
+            return new ClearanceMap(regionKeys, tileOffsets, uniform, Arrays.copyOf(tiles, size));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+import osrs.dev.util.UnionFind;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Labels the connected components of a collision map into a {@link ComponentMap}.
+ * Every region is flood filled on its own, in parallel, and the local labels of neighbouring
+ * regions are then merged with a union-find wherever a border can be crossed.
+ * Diagonal moves need both cardinal moves they cut across, so cardinal moves alone decide
+ * which tiles are connected.
+ */
+public final class ComponentLabeller {
+    private static final int TILES = Regions.SIZE * Regions.SIZE;
+
+    private ComponentLabeller() {}
+
+    /**
+     * Labels a set of regions. Borders to regions outside the set are treated as closed.
+     *
+     * @param map       the collision map
+     * @param regionIds the regions to label, see {@link Regions#id}
+     * @param planes    the number of planes to label, starting at plane 0
+     * @return the labels
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws ExecutionException   if a worker failed
+     */
+    public static ComponentMap label(CollisionMap map, Collection<Integer> regionIds, int planes) throws InterruptedException, ExecutionException {
+        int[] regionKeys = new int[regionIds.size() * planes];
+        int slots = 0;
+        for (int regionId : new TreeSet<>(regionIds)) {
+            for (int plane = 0; plane < planes; plane++) {
+                regionKeys[slots++] = RegionGraph.regionKey(regionId, plane);
+            }
+        }
+        Arrays.sort(regionKeys);
+
+        char[][] labels = new char[slots][];
+        int[] labelCounts = new int[slots];
+        Regions.forEachParallel(slots, slot -> {
+            labels[slot] = new char[TILES];
+            labelCounts[slot] = fill(map.cursor(), regionKeys[slot], labels[slot]);
+        });
+
+        int[] componentOffsets = new int[slots];
+        int total = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            componentOffsets[slot] = total;
+            total += labelCounts[slot];
+        }
+
+        // Merge local labels across the east and north border of each region
+        UnionFind sets = new UnionFind(total);
+        for (int slot = 0; slot < slots; slot++) {
+            int regionId = regionKeys[slot] & 0xFFFF;
+            int plane = regionKeys[slot] >>> 16;
+            int baseX = Regions.baseX(regionId);
+            int baseY = Regions.baseY(regionId);
+            int east = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(Regions.id(baseX + Regions.SIZE, baseY), plane));
+            int north = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(Regions.id(baseX, baseY + Regions.SIZE), plane));
+            for (int i = 0; i < Regions.SIZE; i++) {
+                if (east >= 0 && map.pathableEast(baseX + Regions.SIZE - 1, baseY + i, plane)) {
+                    sets.union(componentOffsets[slot] + labels[slot][index(Regions.SIZE - 1, i)] - 1,
+                            componentOffsets[east] + labels[east][index(0, i)] - 1);
+                }
+                if (north >= 0 && map.pathableNorth(baseX + i, baseY + Regions.SIZE - 1, plane)) {
+                    sets.union(componentOffsets[slot] + labels[slot][index(i, Regions.SIZE - 1)] - 1,
+                            componentOffsets[north] + labels[north][index(i, 0)] - 1);
+                }
+            }
+        }
+
+        // Number the merged sets densely from 1 and drop the tiles of uniform regions
+        int[] components = sets.labels();
+        for (int i = 0; i < total; i++) {
+            components[i]++;
+        }
+        int componentCount = sets.getSetCount();
+        int[] tileOffsets = new int[slots];
+        int kept = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            tileOffsets[slot] = isUniform(labels[slot], labelCounts[slot]) ? -1 : kept++ * TILES;
+        }
+        char[] packed = new char[kept * TILES];
+        for (int slot = 0; slot < slots; slot++) {
+            if (tileOffsets[slot] >= 0) {
+                System.arraycopy(labels[slot], 0, packed, tileOffsets[slot], TILES);
+            }
+        }
+        return new ComponentMap(regionKeys, tileOffsets, packed, componentOffsets, components, componentCount);
+    }
+
+    /**
+     * Flood fills a region with local labels from 1, leaving tiles that cannot be stood on at 0.
+     *
+     * @return the number of local labels
+     */
+    private static int fill(CollisionMap map, int regionKey, char[] labels) {
+        int regionId = regionKey & 0xFFFF;
+        int plane = regionKey >>> 16;
+        int baseX = Regions.baseX(regionId);
+        int baseY = Regions.baseY(regionId);
+        int[] queue = new int[TILES];
+        int count = 0;
+        for (int start = 0; start < TILES; start++) {
+            if (labels[start] != 0 || map.isBlocked(baseX + x(start), baseY + y(start), plane)) {
+                continue;
+            }
+            char label = (char) ++count;
+            labels[start] = label;
+            queue[0] = start;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int current = queue[head++];
+                int x = x(current);
+                int y = y(current);
+                int tx = baseX + x;
+                int ty = baseY + y;
+                if (x > 0 && map.pathableWest(tx, ty, plane)) {
+                    tail = visit(labels, queue, tail, current - 1, label);
+                }
+                if (x < Regions.SIZE - 1 && map.pathableEast(tx, ty, plane)) {
+                    tail = visit(labels, queue, tail, current + 1, label);
+                }
+                if (y > 0 && map.pathableSouth(tx, ty, plane)) {
+                    tail = visit(labels, queue, tail, current - Regions.SIZE, label);
+                }
+                if (y < Regions.SIZE - 1 && map.pathableNorth(tx, ty, plane)) {
+                    tail = visit(labels, queue, tail, current + Regions.SIZE, label);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int visit(char[] labels, int[] queue, int tail, int index, char label) {
+        if (labels[index] == 0) {
+            labels[index] = label;
+            queue[tail++] = index;
+        }
+        return tail;
+    }
+
+    private static boolean isUniform(char[] labels, int count) {
+        if (count != 1) {
+            return false;
+        }
+        for (char label : labels) {
+            if (label == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int index(int x, int y) {
+        return (y << Regions.SHIFT) | x;
+    }
+
+    private static int x(int index) {
+        return index & (Regions.SIZE - 1);
+    }
+
+    private static int y(int index) {
+        return index >>> Regions.SHIFT;
+    }
+}
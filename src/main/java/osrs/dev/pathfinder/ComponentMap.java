@@ -0,0 +1,174 @@
+package osrs.dev.pathfinder;
+
+import lombok.Getter;
+import osrs.dev.util.Regions;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Connected component label of every tile, answering whether one tile can be reached from
+ * another without searching. Built by {@link ComponentLabeller}.
+ * Labels are kept per 64x64 region: a region whose tiles all share one label stores just that
+ * label, any other region stores a local label per tile plus the global component of each local
+ * label. Label 0 marks tiles that cannot be stood on or lie outside the labelled regions.
+ * Immutable and safe to share between threads.
+ */
+public class ComponentMap {
+    private static final int MAGIC = 0x52434D48; // "RCMH"
+    private static final int VERSION = 1;
+    private static final int TILES = Regions.SIZE * Regions.SIZE;
+
+    /**
+     * Sorted keys of the labelled regions, see {@link RegionGraph#regionKey(int, int)}.
+     */
+    private final int[] regionKeys;
+    /**
+     * Offset of each region's local labels in {@link #labels}, or -1 if every tile of the
+     * region has local label 1.
+     */
+    private final int[] tileOffsets;
+    private final char[] labels;
+    /**
+     * Offset of each region's first local label in {@link #components}.
+     */
+    private final int[] componentOffsets;
+    private final int[] components;
+    @Getter
+    private final int componentCount;
+
+    ComponentMap(int[] regionKeys, int[] tileOffsets, char[] labels, int[] componentOffsets, int[] components, int componentCount) {
+        this.regionKeys = regionKeys;
+        this.tileOffsets = tileOffsets;
+        this.labels = labels;
+        this.componentOffsets = componentOffsets;
+        this.components = components;
+        this.componentCount = componentCount;
+    }
+
+    /**
+     * Gets the component of a tile.
+     *
+     * @return the component, from 1, or 0 if the tile is blocked or was not labelled
+     */
+    public int component(int x, int y, int plane) {
+        int slot = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(Regions.id(x, y), plane));
+        if (slot < 0) {
+            return 0;
+        }
+        int local = 1;
+        if (tileOffsets[slot] >= 0) {
+            local = labels[tileOffsets[slot] + (((y & (Regions.SIZE - 1)) << Regions.SHIFT) | (x & (Regions.SIZE - 1)))];
+            if (local == 0) {
+                return 0;
+            }
+        }
+        return components[componentOffsets[slot] + local - 1];
+    }
+
+    /**
+     * Checks if one tile can be reached from another.
+     *
+     * @param a the first packed tile, see {@link Coords}
+     * @param b the second packed tile
+     * @return {@code true} if both tiles are in the same component
+     */
+    public boolean areConnected(int a, int b) {
+        int component = component(Coords.x(a), Coords.y(a), Coords.plane(a));
+        return component != 0 && component == component(Coords.x(b), Coords.y(b), Coords.plane(b));
+    }
+
+    /**
+     * Checks if one tile can be reached from another on the same plane.
+     */
+    public boolean areConnected(int x0, int y0, int x1, int y1, int plane) {
+        int component = component(x0, y0, plane);
+        return component != 0 && component == component(x1, y1, plane);
+    }
+
+    /**
+     * Saves the labels, gzipped if the path ends with .gz.
+     *
+     * @param filePath the file to write
+     * @throws IOException if writing fails
+     */
+    public void save(String filePath) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filePath);
+             OutputStream out = filePath.endsWith(".gz") ? new GZIPOutputStream(fos) : fos;
+             DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(componentCount);
+            dos.writeInt(regionKeys.length);
+            for (int slot = 0; slot < regionKeys.length; slot++) {
+                int labelCount = (slot + 1 < regionKeys.length ? componentOffsets[slot + 1] : components.length) - componentOffsets[slot];
+                dos.writeInt(regionKeys[slot]);
+                dos.writeBoolean(tileOffsets[slot] >= 0);
+                if (tileOffsets[slot] >= 0) {
+                    for (int i = 0; i < TILES; i++) {
+                        dos.writeChar(labels[tileOffsets[slot] + i]);
+                    }
+                }
+                dos.writeInt(labelCount);
+                for (int i = 0; i < labelCount; i++) {
+                    dos.writeInt(components[componentOffsets[slot] + i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads labels written by {@link #save}, gunzipping them if the path ends with .gz.
+     *
+     * @param filePath the file to read
+     * @return the labels
+     * @throws IOException if reading fails or the file does not hold component labels
+     */
+    public static ComponentMap load(String filePath) throws IOException {
+        try (FileInputStream fis = new FileInputStream(filePath);
+             InputStream in = filePath.endsWith(".gz") ? new GZIPInputStream(fis) : fis;
+             DataInputStream dis = new DataInputStream(new BufferedInputStream(in))) {
+            if (dis.readInt() != MAGIC) {
+                throw new IOException("Not a component map: " + filePath);
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported component map version " + version);
+            }
+            int componentCount = dis.readInt();
+            int regions = dis.readInt();
+            int[] regionKeys = new int[regions];
+            int[] tileOffsets = new int[regions];
+            int[] componentOffsets = new int[regions];
+            char[] labels = new char[0];
+            int[] components = new int[0];
+            int labelsSize = 0;
+            int componentsSize = 0;
+            for (int slot = 0; slot < regions; slot++) {
+                regionKeys[slot] = dis.readInt();
+                tileOffsets[slot] = -1;
+                if (dis.readBoolean()) {
+                    if (labelsSize + TILES > labels.length) {
+                        labels = Arrays.copyOf(labels, Math.max(labelsSize + TILES, labels.length * 2));
+                    }
+                    tileOffsets[slot] = labelsSize;
+                    for (int i = 0; i < TILES; i++) {
+                        labels[labelsSize++] = dis.readChar();
+                    }
+                }
+                int labelCount = dis.readInt();
+                if (componentsSize + labelCount > components.length) {
+                    components = Arrays.copyOf(components, Math.max(componentsSize + labelCount, components.length * 2));
+                }
+                componentOffsets[slot] = componentsSize;
+                for (int i = 0; i < labelCount; i++) {
+                    components[componentsSize++] = dis.readInt();
+                }
+            }
+            return new ComponentMap(regionKeys, tileOffsets, Arrays.copyOf(labels, labelsSize), componentOffsets,
+                    Arrays.copyOf(components, componentsSize), componentCount);
+        }
+    }
+}
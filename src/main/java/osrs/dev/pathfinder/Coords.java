@@ -0,0 +1,37 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.dumper.ConfigurableCoordIndexer;
+
+/**
+ * Packs tile coordinates into single ints for paths and search state.
+ * Uses the coordinate fields of the RoaringBitmap map layout, so a packed tile is also the
+ * index of its first data bit in a RoaringBitmap map and can be stored in a RoaringBitmap set.
+ */
+public final class Coords {
+    private static final ConfigurableCoordIndexer INDEXER = ConfigurableCoordIndexer.ROARINGBITMAP_5BIT_DATA_COORD_INDEXER;
+
+    private Coords() {}
+
+    public static int pack(int x, int y, int plane) {
+        return INDEXER.packToBitmapIndex(x, y, plane, 0);
+    }
+
+    public static int x(int packed) {
+        return INDEXER.unpackX(packed);
+    }
+
+    public static int y(int packed) {
+        return INDEXER.unpackY(packed);
+    }
+
+    public static int plane(int packed) {
+        return INDEXER.unpackPlane(packed);
+    }
+
+    /**
+     * Formats a packed tile for logs and error messages.
+     */
+    public static String toString(int packed) {
+        return "(" + x(packed) + ", " + y(packed) + ", " + plane(packed) + ")";
+    }
+}
@@ -0,0 +1,54 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.Flags;
+
+/**
+ * Movement offsets for the direction bits of {@link osrs.dev.collisionmap.CollisionMap#all}.
+ */
+final class Directions {
+    static final int CARDINAL_COST = 10;
+    static final int DIAGONAL_COST = 14;
+
+    /**
+     * The x offset of each direction bit, indexed by bit position.
+     */
+    static final int[] DX = {-1, 0, 1, -1, 1, -1, 0, 1};
+    /**
+     * The y offset of each direction bit, indexed by bit position.
+     */
+    static final int[] DY = {1, 1, 1, 0, 0, -1, -1, -1};
+
+    /**
+     * Bit positions in expansion order: cardinals first, west, east, south, north,
+     * then diagonals, matching the order the game client's own search uses.
+     */
+    static final int[] ORDER = {
+            Integer.numberOfTrailingZeros(Flags.WEST),
+            Integer.numberOfTrailingZeros(Flags.EAST),
+            Integer.numberOfTrailingZeros(Flags.SOUTH & 0xFF),
+            Integer.numberOfTrailingZeros(Flags.NORTH),
+            Integer.numberOfTrailingZeros(Flags.SOUTHWEST),
+            Integer.numberOfTrailingZeros(Flags.SOUTHEAST & 0xFF),
+            Integer.numberOfTrailingZeros(Flags.NORTHWEST),
+            Integer.numberOfTrailingZeros(Flags.NORTHEAST),
+    };
+
+    private Directions() {}
+
+    static boolean isDiagonal(int bit) {
+        return DX[bit] != 0 && DY[bit] != 0;
+    }
+
+    static int cost(int bit) {
+        return isDiagonal(bit) ? DIAGONAL_COST : CARDINAL_COST;
+    }
+
+    /**
+     * Gets the octile distance between two tiles, the cost of the cheapest path on open ground.
+     */
+    static int octile(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        return CARDINAL_COST * Math.max(dx, dy) + (DIAGONAL_COST - CARDINAL_COST) * Math.min(dx, dy);
+    }
+}
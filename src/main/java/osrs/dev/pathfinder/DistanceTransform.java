@@ -0,0 +1,166 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Computes the {@link ClearanceMap} of a collision map, in parallel across regions.
+ * Each region is transformed inside a window reaching {@link ClearanceMap#MAX_DISTANCE} tiles
+ * past its borders, so every distance below the cap is exact without merging regions. Blocked
+ * tiles are read 64 at a time from the blocked masks of each window row, and the distances come
+ * from two chamfer passes with unit steps in all 8 directions, which measure distance on either
+ * axis exactly.
+ */
+public final class DistanceTransform {
+    private static final int MARGIN = ClearanceMap.MAX_DISTANCE;
+    private static final int WINDOW = Regions.SIZE + MARGIN * 2;
+    private static final int TILES = Regions.SIZE * Regions.SIZE;
+
+    private DistanceTransform() {}
+
+    /**
+     * Transforms a set of regions. Tiles of regions outside the set count as blocked.
+     *
+     * @param map       the collision map
+     * @param regionIds the regions to transform, see {@link Regions#id}
+     * @param planes    the number of planes to transform, starting at plane 0
+     * @return the transform
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws ExecutionException   if a worker failed
+     */
+    public static ClearanceMap compute(CollisionMap map, Collection<Integer> regionIds, int planes) throws InterruptedException, ExecutionException {
+        Set<Integer> regions = new HashSet<>(regionIds);
+        int[] regionKeys = new int[regions.size() * planes];
+        int slots = 0;
+        for (int regionId : regions) {
+            for (int plane = 0; plane < planes; plane++) {
+                regionKeys[slots++] = RegionGraph.regionKey(regionId, plane);
+            }
+        }
+        Arrays.sort(regionKeys);
+
+        byte[][] values = new byte[slots][];
+        Regions.forEachParallel(slots, slot -> values[slot] = transform(map.cursor(), regionKeys[slot], regions));
+
+        int[] tileOffsets = new int[slots];
+        byte[] uniform = new byte[slots];
+        int kept = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            tileOffsets[slot] = isUniform(values[slot]) ? -1 : kept++ * TILES;
+            uniform[slot] = values[slot][0];
+        }
+        byte[] tiles = new byte[kept * TILES];
+        for (int slot = 0; slot < slots; slot++) {
+            if (tileOffsets[slot] >= 0) {
+                System.arraycopy(values[slot], 0, tiles, tileOffsets[slot], TILES);
+            }
+        }
+        return new ClearanceMap(regionKeys, tileOffsets, uniform, tiles);
+    }
+
+    /**
+     * Transforms one region.
+     *
+     * @return the value of each tile of the region, see {@link ClearanceMap}
+     */
+    private static byte[] transform(CollisionMap map, int regionKey, Set<Integer> regions) {
+        int regionId = regionKey & 0xFFFF;
+        int plane = regionKey >>> 16;
+        int originX = Regions.baseX(regionId) - MARGIN;
+        int originY = Regions.baseY(regionId) - MARGIN;
+
+        boolean[] blocked = new boolean[WINDOW * WINDOW];
+        for (int row = 0; row < WINDOW; row++) {
+            int y = originY + row;
+            for (int column = 0; column < WINDOW; column += 64) {
+                int x = originX + column;
+                long bits = map.northBlockedMask(x, y, plane) & map.eastBlockedMask(x, y, plane)
+                        & map.southBlockedMask(x, y, plane) & map.westBlockedMask(x, y, plane);
+                for (int i = 0; i < 64 && column + i < WINDOW; i++) {
+                    blocked[row * WINDOW + column + i] = (bits >>> i & 1) != 0
+                            || !regions.contains(Regions.id(x + i, y));
+                }
+            }
+        }
+
+        int[] toBlocked = distances(blocked, true);
+        int[] toWalkable = distances(blocked, false);
+        byte[] values = new byte[TILES];
+        for (int y = 0; y < Regions.SIZE; y++) {
+            for (int x = 0; x < Regions.SIZE; x++) {
+                int tile = (y + MARGIN) * WINDOW + x + MARGIN;
+                int value = blocked[tile]
+                        ? Math.min(toWalkable[tile], ClearanceMap.MAX_DISTANCE)
+                        : Math.min(toBlocked[tile], ClearanceMap.MAX_DISTANCE) | ClearanceMap.WALKABLE;
+                values[(y << Regions.SHIFT) | x] = (byte) value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the distance on either axis from each window tile to the nearest tile whose blocked
+     * state is {@code target}, by a forward and a backward chamfer pass.
+     */
+    private static int[] distances(boolean[] blocked, boolean target) {
+        int far = WINDOW * 2;
+        int[] distances = new int[WINDOW * WINDOW];
+        for (int y = 0; y < WINDOW; y++) {
+            for (int x = 0; x < WINDOW; x++) {
+                int i = y * WINDOW + x;
+                if (blocked[i] == target) {
+                    continue;
+                }
+                int best = far;
+                if (x > 0) {
+                    best = Math.min(best, distances[i - 1] + 1);
+                }
+                if (y > 0) {
+                    best = Math.min(best, distances[i - WINDOW] + 1);
+                    if (x > 0) {
+                        best = Math.min(best, distances[i - WINDOW - 1] + 1);
+                    }
+                    if (x < WINDOW - 1) {
+                        best = Math.min(best, distances[i - WINDOW + 1] + 1);
+                    }
+                }
+                distances[i] = best;
+            }
+        }
+        for (int y = WINDOW - 1; y >= 0; y--) {
+            for (int x = WINDOW - 1; x >= 0; x--) {
+                int i = y * WINDOW + x;
+                int best = distances[i];
+                if (best == 0) {
+                    continue;
+                }
+                if (x < WINDOW - 1) {
+                    best = Math.min(best, distances[i + 1] + 1);
+                }
+                if (y < WINDOW - 1) {
+                    best = Math.min(best, distances[i + WINDOW] + 1);
+                    if (x < WINDOW - 1) {
+                        best = Math.min(best, distances[i + WINDOW + 1] + 1);
+                    }
+                    if (x > 0) {
+                        best = Math.min(best, distances[i + WINDOW - 1] + 1);
+                    }
+                }
+                distances[i] = best;
+            }
+        }
+        return distances;
+    }
+
+    private static boolean isUniform(byte[] values) {
+        for (byte value : values) {
+            if (value != values[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,152 @@
+package osrs.dev.pathfinder;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.util.Arrays;
+
+/**
+ * Distance and next step towards one goal for every tile of a square area around it, so any
+ * number of walkers can head for the goal with one array lookup per step.
+ * Built with a breadth-first search backwards from the goal: a tile is reached from a tile it
+ * can move to under {@link CollisionMap#all}, so the field follows the same moves as the
+ * pathfinders even where collision is one-way. Distances count steps, as in {@link BfsPathfinder}.
+ * Immutable and safe to share between threads.
+ */
+@Getter
+public class FlowField {
+    private static final char UNREACHED = Character.MAX_VALUE;
+
+    private final int goalX;
+    private final int goalY;
+    private final int plane;
+    private final int size;
+    private final int originX;
+    private final int originY;
+    /**
+     * Direction bit of the next step from each tile, -1 at the goal and where the goal cannot be reached.
+     */
+    @Getter(AccessLevel.NONE)
+    private final byte[] directions;
+    @Getter(AccessLevel.NONE)
+    private final char[] distances;
+
+    private FlowField(int goalX, int goalY, int plane, int size, byte[] directions, char[] distances) {
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.plane = plane;
+        this.size = size;
+        this.originX = goalX - size / 2;
+        this.originY = goalY - size / 2;
+        this.directions = directions;
+        this.distances = distances;
+    }
+
+    /**
+     * Computes the field of a goal.
+     *
+     * @param map  the collision map
+     * @param size the side length of the area around the goal, at most 256 so distances fit in a char
+     * @return the field
+     */
+    public static FlowField build(CollisionMap map, int goalX, int goalY, int plane, int size) {
+        if (size <= 0 || size > 256) {
+            throw new IllegalArgumentException("Flow field size must be between 1 and 256: " + size);
+        }
+        CollisionMap cursor = map.cursor();
+        int tiles = size * size;
+        byte[] directions = new byte[tiles];
+        char[] distances = new char[tiles];
+        Arrays.fill(directions, (byte) -1);
+        Arrays.fill(distances, UNREACHED);
+        int originX = goalX - size / 2;
+        int originY = goalY - size / 2;
+
+        int[] queue = new int[tiles];
+        int goal = (goalY - originY) * size + (goalX - originX);
+        distances[goal] = 0;
+        queue[0] = goal;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int current = queue[head++];
+            int x = originX + current % size;
+            int y = originY + current / size;
+            char distance = (char) (distances[current] + 1);
+            for (int bit : Directions.ORDER) {
+                // The tile that reaches this one by moving in this direction
+                int px = x - Directions.DX[bit];
+                int py = y - Directions.DY[bit];
+                if (px < originX || py < originY || px >= originX + size || py >= originY + size) {
+                    continue;
+                }
+                int previous = (py - originY) * size + (px - originX);
+                if (distances[previous] != UNREACHED || (cursor.all(px, py, plane) & (1 << bit)) == 0) {
+                    continue;
+                }
+                distances[previous] = distance;
+                directions[previous] = (byte) bit;
+                queue[tail++] = previous;
+            }
+        }
+        return new FlowField(goalX, goalY, plane, size, directions, distances);
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= originX && y >= originY && x < originX + size && y < originY + size;
+    }
+
+    /**
+     * Gets the number of steps from a tile to the goal.
+     *
+     * @return the steps, or -1 if the goal cannot be reached inside the area
+     */
+    public int distance(int x, int y) {
+        if (!contains(x, y)) {
+            return -1;
+        }
+        char distance = distances[(y - originY) * size + (x - originX)];
+        return distance == UNREACHED ? -1 : distance;
+    }
+
+    /**
+     * Gets the direction bit of the next step from a tile, see {@link CollisionMap#all}.
+     *
+     * @return the direction bit, or -1 at the goal and where the goal cannot be reached
+     */
+    public int direction(int x, int y) {
+        return contains(x, y) ? directions[(y - originY) * size + (x - originX)] : -1;
+    }
+
+    /**
+     * Gets the next tile to step to from a tile.
+     *
+     * @return the packed tile, see {@link Coords}, or -1 at the goal and where the goal cannot be reached
+     */
+    public int nextStep(int x, int y) {
+        int bit = direction(x, y);
+        return bit < 0 ? -1 : Coords.pack(x + Directions.DX[bit], y + Directions.DY[bit], plane);
+    }
+
+    /**
+     * Follows the field from a tile to the goal.
+     *
+     * @return the packed tiles from the tile to the goal, both inclusive, empty if the goal cannot be reached
+     */
+    public int[] path(int x, int y) {
+        int distance = distance(x, y);
+        if (distance < 0) {
+            return new int[0];
+        }
+        int[] path = new int[distance + 1];
+        for (int i = 0; i < distance; i++) {
+            path[i] = Coords.pack(x, y, plane);
+            int bit = direction(x, y);
+            x += Directions.DX[bit];
+            y += Directions.DY[bit];
+        }
+        path[distance] = Coords.pack(x, y, plane);
+        return path;
+    }
+}
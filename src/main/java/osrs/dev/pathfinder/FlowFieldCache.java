@@ -0,0 +1,125 @@
+package osrs.dev.pathfinder;
+
+import lombok.extern.slf4j.Slf4j;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.ReloadableMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache of {@link FlowField}s by goal, evicting the least recently used field.
+ * Fields are computed on the calling thread on a miss, outside the cache lock, so a slow
+ * build never holds up lookups of other goals. The cache empties itself whenever its map is
+ * reloaded, and fields computed from the replaced map are not stored.
+ * Thread-safe.
+ */
+@Slf4j
+public class FlowFieldCache {
+    private final ReloadableMap<CollisionMap> maps;
+    private final int fieldSize;
+    private final Map<Integer, FlowField> fields;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    /**
+     * Incremented on every invalidation, so a build can tell if the map changed while it ran.
+     */
+    private int generation;
+
+    /**
+     * Creates a cache over a reloadable map.
+     *
+     * @param maps      the collision map, whose reloads invalidate the cache
+     * @param maxFields the maximum number of fields to keep
+     * @param fieldSize the side length of the area each field covers, see {@link FlowField#build}
+     */
+    public FlowFieldCache(ReloadableMap<CollisionMap> maps, int maxFields, int fieldSize) {
+        this.maps = maps;
+        this.fieldSize = fieldSize;
+        this.fields = new LinkedHashMap<Integer, FlowField>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, FlowField> eldest) {
+                if (size() > maxFields) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        maps.addReloadListener(map -> invalidateAll());
+    }
+
+    /**
+     * Gets the field of a goal, computing it if it is not cached.
+     *
+     * @return the field, or {@code null} if no map is loaded
+     */
+    public FlowField get(int goalX, int goalY, int plane) {
+        int key = Coords.pack(goalX, goalY, plane);
+        int buildGeneration;
+        synchronized (fields) {
+            FlowField field = fields.get(key);
+            if (field != null) {
+                hits.increment();
+                return field;
+            }
+            buildGeneration = generation;
+        }
+        misses.increment();
+
+        CollisionMap map = maps.get();
+        if (map == null) {
+            return null;
+        }
+        FlowField field = FlowField.build(map, goalX, goalY, plane, fieldSize);
+        synchronized (fields) {
+            if (generation == buildGeneration) {
+                fields.put(key, field);
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Drops every cached field.
+     */
+    public void invalidateAll() {
+        synchronized (fields) {
+            generation++;
+            fields.clear();
+        }
+        invalidations.increment();
+        log.debug("Invalidated flow field cache");
+    }
+
+    public int size() {
+        synchronized (fields) {
+            return fields.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d fields, %,d hits, %,d misses, %,d evictions, %,d invalidations",
+                size(), getHits(), getMisses(), getEvictions(), getInvalidations());
+    }
+}
@@ -0,0 +1,44 @@
+package osrs.dev.pathfinder;
+
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Set of goal tiles for nearest-goal searches, held as a RoaringBitmap of tiles packed with
+ * the map's own coordinate layout (see {@link Coords}), so large sets of nearby tiles stay small.
+ * Not thread-safe while being added to.
+ */
+public class GoalSet {
+    private final RoaringBitmap tiles = new RoaringBitmap();
+
+    public GoalSet add(int x, int y, int plane) {
+        tiles.add(Coords.pack(x, y, plane));
+        return this;
+    }
+
+    /**
+     * Adds a packed tile, see {@link Coords}.
+     */
+    public GoalSet add(int packed) {
+        tiles.add(packed);
+        return this;
+    }
+
+    public boolean contains(int x, int y, int plane) {
+        return tiles.contains(Coords.pack(x, y, plane));
+    }
+
+    public int size() {
+        return tiles.getCardinality();
+    }
+
+    public boolean isEmpty() {
+        return tiles.isEmpty();
+    }
+
+    /**
+     * Gets the packed tiles in ascending order.
+     */
+    public int[] toArray() {
+        return tiles.toArray();
+    }
+}
@@ -0,0 +1,184 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical pathfinder for routes of any length, searching the {@link RegionGraph} first
+ * and then refining only the regions on the abstract path.
+ * The start and goal are linked to the entrances of their own regions with a search inside
+ * each region, the abstract path is found with A* over the graph, and each of its legs is
+ * walked with an {@link AStarPathfinder} small enough to hold one region. Moves are assumed
+ * to be symmetric, so the goal's costs can be searched from the goal.
+ * Paths are close to, but not guaranteed to be, the cheapest.
+ * Not thread-safe, use one pathfinder per thread.
+ */
+public class HierarchicalPathfinder {
+    /**
+     * Window of the refining searches, large enough to hold any two tiles of one region.
+     */
+    private static final int REFINE_WINDOW_SIZE = Regions.SIZE * 2;
+
+    private final RegionGraph graph;
+    private final RegionSearch regionSearch;
+    private final AStarPathfinder refiner;
+    private final IndexedMinHeap open;
+    private final int[] cost;
+    private final int[] parent;
+    private final int[] stamp;
+    /**
+     * Costs from the start to the entrances of its region, and from the entrances of the
+     * goal's region to the goal, -1 where there is no path inside the region. A border holds
+     * at most one entrance per two tiles, so a region has at most 4 * 32 entrances.
+     */
+    private final int[] startCosts = new int[Regions.SIZE * 2];
+    private final int[] goalCosts = new int[Regions.SIZE * 2];
+    private int generation;
+
+    public HierarchicalPathfinder(CollisionMap map, RegionGraph graph) {
+        this.graph = graph;
+        this.regionSearch = new RegionSearch(map);
+        this.refiner = new AStarPathfinder(map, REFINE_WINDOW_SIZE);
+        int nodes = graph.getNodeCount() + 2;
+        this.open = new IndexedMinHeap(nodes);
+        this.cost = new int[nodes];
+        this.parent = new int[nodes];
+        this.stamp = new int[nodes];
+    }
+
+    /**
+     * Finds a path between two tiles on the same plane.
+     * Nodes expanded counts graph nodes plus the tiles expanded while refining.
+     *
+     * @return the path, empty if the goal cannot be reached through the graph
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane) {
+        long startTime = System.nanoTime();
+        int n = graph.getNodeCount();
+        int startNode = n;
+        int goalNode = n + 1;
+        int startRegion = RegionGraph.regionKey(Regions.id(startX, startY), plane);
+        int goalRegion = RegionGraph.regionKey(Regions.id(goalX, goalY), plane);
+        int startFirst = graph.firstNode(startRegion);
+        int startEnd = startFirst < 0 ? startFirst : graph.endNode(startRegion);
+        int goalFirst = graph.firstNode(goalRegion);
+        int goalEnd = goalFirst < 0 ? goalFirst : graph.endNode(goalRegion);
+
+        regionSearch.run(startX, startY, plane);
+        int direct = startRegion == goalRegion ? regionSearch.cost(goalX, goalY) : -1;
+        regionCosts(startFirst, startEnd, startCosts);
+        regionSearch.run(goalX, goalY, plane);
+        regionCosts(goalFirst, goalEnd, goalCosts);
+
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        IndexedMinHeap open = this.open;
+        open.clear();
+        stamp[startNode] = generation;
+        cost[startNode] = 0;
+        parent[startNode] = -1;
+        open.insert(startNode, Directions.octile(startX, startY, goalX, goalY));
+        int expanded = 0;
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            expanded++;
+            if (current == goalNode) {
+                return refine(goalNode, startX, startY, goalX, goalY, plane, expanded, startTime);
+            }
+            int currentCost = cost[current];
+            if (current == startNode) {
+                if (direct >= 0) {
+                    relax(current, goalNode, direct, goalX, goalY, goalX, goalY);
+                }
+                for (int node = startFirst; node < startEnd; node++) {
+                    if (startCosts[node - startFirst] >= 0) {
+                        int tile = graph.tile(node);
+                        relax(current, node, startCosts[node - startFirst], Coords.x(tile), Coords.y(tile), goalX, goalY);
+                    }
+                }
+                continue;
+            }
+            if (current >= goalFirst && current < goalEnd && goalCosts[current - goalFirst] >= 0) {
+                relax(current, goalNode, currentCost + goalCosts[current - goalFirst], goalX, goalY, goalX, goalY);
+            }
+            for (int edge = graph.edgeStart(current); edge < graph.edgeEnd(current); edge++) {
+                int next = graph.edgeTarget(edge);
+                int tile = graph.tile(next);
+                relax(current, next, currentCost + graph.edgeCost(edge), Coords.x(tile), Coords.y(tile), goalX, goalY);
+            }
+        }
+        return PathResult.notFound(PathResult.Status.UNREACHABLE, expanded, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Reads the costs of the last region search to the entrances of its region.
+     */
+    private void regionCosts(int first, int end, int[] out) {
+        for (int node = first; node < end; node++) {
+            int tile = graph.tile(node);
+            out[node - first] = regionSearch.cost(Coords.x(tile), Coords.y(tile));
+        }
+    }
+
+    private void relax(int from, int to, int nextCost, int x, int y, int goalX, int goalY) {
+        if (stamp[to] != generation) {
+            stamp[to] = generation;
+            cost[to] = nextCost;
+            parent[to] = from;
+            open.insert(to, nextCost + Directions.octile(x, y, goalX, goalY));
+        } else if (nextCost < cost[to] && open.slot(to) != IndexedMinHeap.POLLED) {
+            cost[to] = nextCost;
+            parent[to] = from;
+            open.decrease(to, nextCost + Directions.octile(x, y, goalX, goalY));
+        }
+    }
+
+    /**
+     * Walks the legs of the abstract path tile by tile and joins them.
+     */
+    private PathResult refine(int goalNode, int startX, int startY, int goalX, int goalY, int plane, int expanded, long startTime) {
+        int legs = 0;
+        for (int node = goalNode; node != -1; node = parent[node]) {
+            legs++;
+        }
+        int[] waypoints = new int[legs];
+        for (int node = goalNode, i = legs - 1; node != -1; node = parent[node], i--) {
+            waypoints[i] = node == goalNode ? Coords.pack(goalX, goalY, plane)
+                    : node == graph.getNodeCount() ? Coords.pack(startX, startY, plane) : graph.tile(node);
+        }
+
+        int[] path = new int[]{waypoints[0]};
+        int length = 1;
+        for (int i = 1; i < waypoints.length; i++) {
+            int from = waypoints[i - 1];
+            int to = waypoints[i];
+            if (from == to) {
+                continue;
+            }
+            int[] leg;
+            if (RegionGraph.regionKey(from) != RegionGraph.regionKey(to)) {
+                // A step across a region border
+                leg = new int[]{from, to};
+            } else {
+                PathResult result = refiner.find(Coords.x(from), Coords.y(from), Coords.x(to), Coords.y(to), plane);
+                expanded += result.getNodesExpanded();
+                if (!result.isFound()) {
+                    // The graph no longer matches the map
+                    return PathResult.notFound(PathResult.Status.UNREACHABLE, expanded, System.nanoTime() - startTime);
+                }
+                leg = result.getPath();
+            }
+            if (length + leg.length - 1 > path.length) {
+                path = Arrays.copyOf(path, Math.max(path.length * 2, length + leg.length - 1));
+            }
+            System.arraycopy(leg, 1, path, length, leg.length - 1);
+            length += leg.length - 1;
+        }
+        return new PathResult(Arrays.copyOf(path, length), expanded, System.nanoTime() - startTime);
+    }
+}
@@ -0,0 +1,134 @@
+package osrs.dev.pathfinder;
+
+/**
+ * Binary min-heap of local tile indices with int priorities, backed by primitive arrays.
+ * Tracks the heap slot of every queued tile, so the priority of a queued tile can be
+ * lowered in place instead of queueing a duplicate.
+ * Slots are only meaningful for tiles queued since the last {@link #clear()}; callers
+ * keep track of which tiles those are.
+ */
+final class IndexedMinHeap {
+    /**
+     * Slot value of a tile that has been polled.
+     */
+    static final int POLLED = -1;
+
+    private final int[] nodes;
+    private final int[] keys;
+    private final int[] slots;
+    private int size;
+
+    /**
+     * Creates a heap.
+     *
+     * @param capacity the number of distinct tile indices
+     */
+    IndexedMinHeap(int capacity) {
+        this.nodes = new int[capacity];
+        this.keys = new int[capacity];
+        this.slots = new int[capacity];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the heap slot of a tile queued since the last clear, {@link #POLLED} once it has been polled.
+     */
+    int slot(int node) {
+        return slots[node];
+    }
+
+    int peekKey() {
+        return keys[0];
+    }
+
+    void insert(int node, int key) {
+        int slot = size++;
+        nodes[slot] = node;
+        keys[slot] = key;
+        slots[node] = slot;
+        siftUp(slot);
+    }
+
+    /**
+     * Lowers the priority of a queued tile.
+     */
+    void decrease(int node, int key) {
+        int slot = slots[node];
+        keys[slot] = key;
+        siftUp(slot);
+    }
+
+    /**
+     * Removes the tile with the lowest priority.
+     *
+     * @return the tile index
+     */
+    int poll() {
+        int top = nodes[0];
+        slots[top] = POLLED;
+        int last = --size;
+        if (last > 0) {
+            nodes[0] = nodes[last];
+            keys[0] = keys[last];
+            slots[nodes[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int slot) {
+        int node = nodes[slot];
+        int key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            move(parent, slot);
+            slot = parent;
+        }
+        place(node, key, slot);
+    }
+
+    private void siftDown(int slot) {
+        int node = nodes[slot];
+        int key = keys[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = (slot << 1) + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            move(child, slot);
+            slot = child;
+        }
+        place(node, key, slot);
+    }
+
+    private void move(int from, int to) {
+        nodes[to] = nodes[from];
+        keys[to] = keys[from];
+        slots[nodes[to]] = to;
+    }
+
+    private void place(int node, int key, int slot) {
+        nodes[slot] = node;
+        keys[slot] = key;
+        slots[node] = slot;
+    }
+}
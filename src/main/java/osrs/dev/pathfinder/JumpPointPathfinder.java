@@ -0,0 +1,436 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.util.Arrays;
+
+/**
+ * Jump Point Search pathfinder, returning paths as cheap as {@link AStarPathfinder} while
+ * expanding far fewer tiles in open terrain.
+ * Instead of queueing every neighbour, the search scans straight and diagonal lines and
+ * only stops on tiles where a neighbour cannot be reached at least as cheaply without
+ * passing through them (forced neighbours). Collision here lives on tile edges rather than
+ * in blocked tiles, so the forced neighbour checks compare the moves {@link CollisionMap#all}
+ * allows directly, which also carries the rule that diagonal moves need both cardinal
+ * moves and the adjacent tiles to be pathable. A check that cannot prove a neighbour is
+ * reachable another way counts it as forced, which only costs extra jump points.
+ * Not thread-safe, use one pathfinder per thread.
+ */
+public class JumpPointPathfinder {
+    public static final int DEFAULT_WINDOW_SIZE = 1024;
+    private static final int TIMEOUT_CHECK_INTERVAL = 256;
+
+    /**
+     * The direction bit of each step, indexed by {@code (dy + 1) * 3 + dx + 1}.
+     */
+    private static final int[] STEP_BITS = new int[9];
+
+    static {
+        for (int bit = 0; bit < 8; bit++) {
+            STEP_BITS[(Directions.DY[bit] + 1) * 3 + Directions.DX[bit] + 1] = bit;
+        }
+    }
+
+    private final CollisionMap map;
+    private final SearchWindow window;
+    private final IndexedMinHeap open;
+    private final int[] cost;
+    /**
+     * Bitboards of the window, in chunks of 64 tiles of a row, read lazily during a search and
+     * valid if the chunk is stamped with the current generation. For each direction bit a chunk
+     * holds the tiles that can move that way, and the tiles a scan moving that way stops on
+     * because they have forced neighbours.
+     */
+    private final long[] moves;
+    private final long[] stops;
+    private final int[] moveStamp;
+    private final int[] stopStamp;
+    /**
+     * The raw north and east blocked words of the window and a ring of one chunk around it,
+     * so that each word is read from the map once per search however many chunks need it.
+     */
+    private final long[] blocked;
+    private final int[] blockedStamp;
+    private final int chunksPerRow;
+    private final long[] masks = new long[8];
+    private final long[] northBlocked = new long[9];
+    private final long[] eastBlocked = new long[9];
+    private int generation;
+
+    private int goalX;
+    private int goalY;
+
+    public JumpPointPathfinder(CollisionMap map) {
+        this(map, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a pathfinder.
+     *
+     * @param map        the collision map to search
+     * @param windowSize the side length of the search window in tiles, a power of two
+     */
+    public JumpPointPathfinder(CollisionMap map, int windowSize) {
+        this.map = map.cursor();
+        this.window = new SearchWindow(windowSize);
+        this.open = new IndexedMinHeap(windowSize * windowSize);
+        this.cost = new int[windowSize * windowSize];
+        this.chunksPerRow = (windowSize + 63) >>> 6;
+        this.moves = new long[windowSize * chunksPerRow * 8];
+        this.stops = new long[windowSize * chunksPerRow * 8];
+        this.moveStamp = new int[windowSize * chunksPerRow];
+        this.stopStamp = new int[windowSize * chunksPerRow];
+        this.blocked = new long[(windowSize + 2) * (chunksPerRow + 2) * 2];
+        this.blockedStamp = new int[(windowSize + 2) * (chunksPerRow + 2)];
+    }
+
+    /**
+     * Finds a cheapest path between two tiles on the same plane without limits.
+     *
+     * @return the path, empty if the goal is unreachable or outside the search window
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane) {
+        return find(startX, startY, goalX, goalY, plane, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds a cheapest path between two tiles on the same plane.
+     * Nodes expanded counts jump points taken off the open list.
+     *
+     * @param nodeBudget   the maximum number of jump points to expand
+     * @param timeoutNanos the maximum time to search for
+     * @return the path, empty if no path was found, with the reason in its status
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane, int nodeBudget, long timeoutNanos) {
+        long startTime = System.nanoTime();
+        SearchWindow window = this.window;
+        if (!window.reset(startX, startY, goalX, goalY, plane)) {
+            return PathResult.notFound(PathResult.Status.OUT_OF_WINDOW, 0, System.nanoTime() - startTime);
+        }
+        if (++generation == 0) {
+            Arrays.fill(moveStamp, 0);
+            Arrays.fill(stopStamp, 0);
+            Arrays.fill(blockedStamp, 0);
+            generation = 1;
+        }
+        this.goalX = goalX;
+        this.goalY = goalY;
+
+        IndexedMinHeap open = this.open;
+        int[] parent = window.parent;
+        int goal = window.index(goalX, goalY);
+        int start = window.index(startX, startY);
+        open.clear();
+        window.visit(start);
+        parent[start] = -1;
+        cost[start] = 0;
+        open.insert(start, Directions.octile(startX, startY, goalX, goalY));
+        int expanded = 0;
+
+        while (!open.isEmpty()) {
+            if (expanded >= nodeBudget) {
+                return PathResult.notFound(PathResult.Status.NODE_BUDGET_EXHAUSTED, expanded, System.nanoTime() - startTime);
+            }
+            if (expanded % TIMEOUT_CHECK_INTERVAL == 0 && timeoutNanos != Long.MAX_VALUE
+                    && System.nanoTime() - startTime >= timeoutNanos) {
+                return PathResult.notFound(PathResult.Status.TIMED_OUT, expanded, System.nanoTime() - startTime);
+            }
+
+            int current = open.poll();
+            expanded++;
+            if (current == goal) {
+                return new PathResult(path(current), expanded, System.nanoTime() - startTime);
+            }
+
+            int x = window.x(current);
+            int y = window.y(current);
+            int directions = successors(x, y, current);
+            for (int bit : Directions.ORDER) {
+                if ((directions & (1 << bit)) == 0) {
+                    continue;
+                }
+                int jumpPoint = jump(x, y, Directions.DX[bit], Directions.DY[bit]);
+                if (jumpPoint != -1) {
+                    relax(current, jumpPoint);
+                }
+            }
+        }
+        return PathResult.notFound(PathResult.Status.UNREACHABLE, expanded, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Queues a jump point reached from an expanded tile, or lowers its cost if already queued.
+     */
+    private void relax(int from, int to) {
+        int tx = window.x(to);
+        int ty = window.y(to);
+        int nextCost = cost[from] + Directions.octile(window.x(from), window.y(from), tx, ty);
+        if (window.visit(to)) {
+            cost[to] = nextCost;
+            window.parent[to] = from;
+            open.insert(to, nextCost + Directions.octile(tx, ty, goalX, goalY));
+        } else if (nextCost < cost[to] && open.slot(to) != IndexedMinHeap.POLLED) {
+            cost[to] = nextCost;
+            window.parent[to] = from;
+            open.decrease(to, nextCost + Directions.octile(tx, ty, goalX, goalY));
+        }
+    }
+
+    /**
+     * Scans from a tile in one direction until a jump point is found.
+     *
+     * @return the local index of the jump point, or -1 if the scan is blocked first
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        boolean diagonal = dx != 0 && dy != 0;
+        while (canMove(x, y, dx, dy)) {
+            x += dx;
+            y += dy;
+            if (!window.contains(x, y)) {
+                return -1;
+            }
+            if ((x == goalX && y == goalY) || isStop(x, y, dx, dy)) {
+                return window.index(x, y);
+            }
+            if (diagonal && (jump(x, y, dx, 0) != -1 || jump(x, y, 0, dy) != -1)) {
+                return window.index(x, y);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the neighbours of a tile entered by a straight step that are only reached cheaply
+     * through it. Both sides are checked: the tile beside it, the tile diagonally ahead and
+     * the tile diagonally behind.
+     *
+     * @return the direction bits of the forced neighbours
+     */
+    private int forcedStraight(int x, int y, int dx, int dy) {
+        int cx = x - dx;
+        int cy = y - dy;
+        int forced = 0;
+        for (int side = -1; side <= 1; side += 2) {
+            int sx = dy * side;
+            int sy = dx * side;
+            if (canMove(x, y, sx, sy) && !canMove(cx, cy, dx + sx, dy + sy)) {
+                forced |= bit(sx, sy);
+            }
+            if (canMove(x, y, dx + sx, dy + sy) && !(canMove(cx, cy, dx + sx, dy + sy) && canMove(x + sx, y + sy, dx, dy))) {
+                forced |= bit(dx + sx, dy + sy);
+            }
+            if (canMove(x, y, sx - dx, sy - dy) && !canMove(cx, cy, sx, sy)) {
+                forced |= bit(sx - dx, sy - dy);
+            }
+        }
+        return forced;
+    }
+
+    /**
+     * Finds the neighbours of a tile entered by a diagonal step that are only reached cheaply
+     * through it. The moves continuing the scan are covered by the straight sub-scans instead.
+     *
+     * @return the direction bits of the forced neighbours
+     */
+    private int forcedDiagonal(int x, int y, int dx, int dy) {
+        int cx = x - dx;
+        int cy = y - dy;
+        int forced = 0;
+        if (canMove(x, y, -dx, 0) && !canMove(cx, cy, 0, dy)) {
+            forced |= bit(-dx, 0);
+        }
+        if (canMove(x, y, 0, -dy) && !canMove(cx, cy, dx, 0)) {
+            forced |= bit(0, -dy);
+        }
+        if (canMove(x, y, -dx, dy) && !(canMove(cx, cy, 0, dy) && canMove(cx, cy + dy, 0, dy))) {
+            forced |= bit(-dx, dy);
+        }
+        if (canMove(x, y, dx, -dy) && !(canMove(cx, cy, dx, 0) && canMove(cx + dx, cy, dx, 0))) {
+            forced |= bit(dx, -dy);
+        }
+        return forced;
+    }
+
+    /**
+     * Gets the directions to scan from an expanded tile: every move from the start, otherwise
+     * the natural moves continuing the step it was reached by, plus its forced neighbours.
+     */
+    private int successors(int x, int y, int node) {
+        int parent = window.parent[node];
+        if (parent == -1) {
+            return 0xFF;
+        }
+        int dx = Integer.signum(x - window.x(parent));
+        int dy = Integer.signum(y - window.y(parent));
+        if (dx != 0 && dy != 0) {
+            return bit(dx, dy) | bit(dx, 0) | bit(0, dy) | forcedDiagonal(x, y, dx, dy);
+        }
+        return bit(dx, dy) | forcedStraight(x, y, dx, dy);
+    }
+
+    private static int bit(int dx, int dy) {
+        return 1 << step(dx, dy);
+    }
+
+    private static int step(int dx, int dy) {
+        return STEP_BITS[(dy + 1) * 3 + dx + 1];
+    }
+
+    private boolean canMove(int x, int y, int dx, int dy) {
+        if (!window.contains(x, y)) {
+            return false;
+        }
+        int localX = x - window.originX;
+        return (moveWord(y - window.originY, localX >>> 6, step(dx, dy)) >>> localX & 1) != 0;
+    }
+
+    /**
+     * Checks if a tile entered by a step has forced neighbours, the bitboard form of
+     * {@link #forcedStraight} and {@link #forcedDiagonal}.
+     */
+    private boolean isStop(int x, int y, int dx, int dy) {
+        int localX = x - window.originX;
+        int localY = y - window.originY;
+        int chunk = localY * chunksPerRow + (localX >>> 6);
+        if (stopStamp[chunk] != generation) {
+            stopStamp[chunk] = generation;
+            fillStops(localY, localX >>> 6, chunk << 3);
+        }
+        return (stops[(chunk << 3) + step(dx, dy)] >>> localX & 1) != 0;
+    }
+
+    /**
+     * Gets the tiles of a window chunk that can move in a direction, none outside the window.
+     */
+    private long moveWord(int localY, int column, int bit) {
+        if (localY < 0 || localY >= window.size || column < 0 || column >= chunksPerRow) {
+            return 0L;
+        }
+        int chunk = localY * chunksPerRow + column;
+        if (moveStamp[chunk] != generation) {
+            moveStamp[chunk] = generation;
+            fillMoves(localY, column, chunk << 3);
+        }
+        return moves[(chunk << 3) + bit];
+    }
+
+    /**
+     * Reads the moves of up to 64 tiles of a window row from the map's bitboards.
+     */
+    private void fillMoves(int localY, int column, int offset) {
+        for (int i = 0; i < 9; i++) {
+            int word = blockedWord(localY + i / 3 - 1, column + i % 3 - 1);
+            northBlocked[i] = blocked[word];
+            eastBlocked[i] = blocked[word + 1];
+        }
+        CollisionMap.allMasks(northBlocked, eastBlocked, masks);
+        int width = Math.min(64, window.size - (column << 6));
+        long inside = width == 64 ? -1L : (1L << width) - 1;
+        for (int bit = 0; bit < 8; bit++) {
+            moves[offset + bit] = masks[bit] & inside;
+        }
+    }
+
+    /**
+     * Gets the offset of the north and east blocked words of a chunk in {@link #blocked},
+     * reading them if this search has not yet.
+     *
+     * @param localY the window row, -1 to the window size
+     * @param column the chunk column, -1 to the number of chunks per row
+     */
+    private int blockedWord(int localY, int column) {
+        int chunk = (localY + 1) * (chunksPerRow + 2) + column + 1;
+        int offset = chunk << 1;
+        if (blockedStamp[chunk] != generation) {
+            blockedStamp[chunk] = generation;
+            int x = window.originX + (column << 6);
+            int y = window.originY + localY;
+            blocked[offset] = map.northBlockedMask(x, y, window.plane);
+            blocked[offset + 1] = map.eastBlockedMask(x, y, window.plane);
+        }
+        return offset;
+    }
+
+    /**
+     * Gets the moves of the tiles at a fixed offset from each tile of a chunk.
+     *
+     * @param dx the x offset, -1 to 1
+     * @param dy the y offset
+     */
+    private long moveWord(int localY, int column, int dx, int dy, int bit) {
+        long word = moveWord(localY + dy, column, bit);
+        if (dx > 0) {
+            return (word >>> 1) | (moveWord(localY + dy, column + 1, bit) << 63);
+        } else if (dx < 0) {
+            return (word << 1) | (moveWord(localY + dy, column - 1, bit) >>> 63);
+        }
+        return word;
+    }
+
+    /**
+     * Computes the stop tiles of a chunk for every scan direction, 64 tiles at a time,
+     * with the same checks as {@link #forcedStraight} and {@link #forcedDiagonal}.
+     */
+    private void fillStops(int localY, int column, int offset) {
+        for (int bit = 0; bit < 8; bit++) {
+            int dx = Directions.DX[bit];
+            int dy = Directions.DY[bit];
+            long stop = 0L;
+            if (dx != 0 && dy != 0) {
+                long fromWest = moveWord(localY, column, -dx, -dy, step(0, dy));
+                long fromSouth = moveWord(localY, column, -dx, -dy, step(dx, 0));
+                stop |= moveWord(localY, column, 0, 0, step(-dx, 0)) & ~fromWest;
+                stop |= moveWord(localY, column, 0, 0, step(0, -dy)) & ~fromSouth;
+                stop |= moveWord(localY, column, 0, 0, step(-dx, dy)) & ~(fromWest & moveWord(localY, column, -dx, 0, step(0, dy)));
+                stop |= moveWord(localY, column, 0, 0, step(dx, -dy)) & ~(fromSouth & moveWord(localY, column, 0, -dy, step(dx, 0)));
+            } else {
+                for (int side = -1; side <= 1; side += 2) {
+                    int sx = dy * side;
+                    int sy = dx * side;
+                    long aheadFromBehind = moveWord(localY, column, -dx, -dy, step(dx + sx, dy + sy));
+                    stop |= moveWord(localY, column, 0, 0, step(sx, sy)) & ~aheadFromBehind;
+                    stop |= moveWord(localY, column, 0, 0, step(dx + sx, dy + sy))
+                            & ~(aheadFromBehind & moveWord(localY, column, sx, sy, step(dx, dy)));
+                    stop |= moveWord(localY, column, 0, 0, step(sx - dx, sy - dy))
+                            & ~moveWord(localY, column, -dx, -dy, step(sx, sy));
+                }
+            }
+            stops[offset + bit] = stop;
+        }
+    }
+
+    /**
+     * Builds the packed path through the jump points, filling in the straight or diagonal
+     * runs between consecutive jump points tile by tile.
+     */
+    private int[] path(int goal) {
+        int[] parent = window.parent;
+        int length = 1;
+        for (int i = goal; parent[i] != -1; i = parent[i]) {
+            length += steps(i, parent[i]);
+        }
+        int[] path = new int[length];
+        int plane = window.plane;
+        int position = length;
+        for (int i = goal; ; i = parent[i]) {
+            int x = window.x(i);
+            int y = window.y(i);
+            if (parent[i] == -1) {
+                path[--position] = Coords.pack(x, y, plane);
+                break;
+            }
+            int dx = Integer.signum(window.x(parent[i]) - x);
+            int dy = Integer.signum(window.y(parent[i]) - y);
+            for (int step = steps(i, parent[i]); step > 0; step--) {
+                path[--position] = Coords.pack(x, y, plane);
+                x += dx;
+                y += dy;
+            }
+        }
+        return path;
+    }
+
+    private int steps(int a, int b) {
+        return Math.max(Math.abs(window.x(a) - window.x(b)), Math.abs(window.y(a) - window.y(b)));
+    }
+}
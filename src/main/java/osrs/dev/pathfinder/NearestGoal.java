@@ -0,0 +1,29 @@
+package osrs.dev.pathfinder;
+
+import lombok.Getter;
+
+/**
+ * Outcome of a nearest-goal search: the goal that was reached and the path to it.
+ */
+@Getter
+public class NearestGoal {
+    private final PathResult result;
+    /**
+     * The packed goal tile the path leads to, see {@link Coords}, or -1 if no goal was reached.
+     */
+    private final int goal;
+
+    NearestGoal(PathResult result, int goal) {
+        this.result = result;
+        this.goal = goal;
+    }
+
+    public boolean isFound() {
+        return result.isFound();
+    }
+
+    @Override
+    public String toString() {
+        return (goal < 0 ? "no goal" : "goal " + Coords.toString(goal)) + ", " + result;
+    }
+}
@@ -0,0 +1,349 @@
+package osrs.dev.pathfinder;
+
+import lombok.extern.slf4j.Slf4j;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+import osrs.dev.util.ReloadableMap;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of found paths keyed by packed start and goal tiles, placed in front of a
+ * {@link PathSearch}.
+ * Each entry remembers the regions its path crosses, so patching a region drops only the
+ * paths through it. Entries are spread over independently locked segments by key, each
+ * evicting its least recently used entry when full, so lookups of different routes rarely
+ * contend. Paths that were not found are not cached, nor are paths whose segment was
+ * invalidated while they were being searched, as they may have been found on the old map.
+ * Thread-safe.
+ */
+@Slf4j
+public class PathCache {
+    private static final int SEGMENTS = 16;
+    /**
+     * Rough size of an entry besides its arrays: map node, boxed key, result and entry objects.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder memoryBytes = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries the maximum number of paths to keep, split evenly between the segments
+     */
+    public PathCache(int maxEntries) {
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Clears the cache whenever a map is reloaded, since a reload may change any region.
+     *
+     * @param maps the collision map the cached paths were found on
+     */
+    public void invalidateOnReload(ReloadableMap<CollisionMap> maps) {
+        maps.addReloadListener(map -> invalidateAll());
+    }
+
+    /**
+     * Gets a cached path, searching and caching it on a miss.
+     *
+     * @param search the search to run on a miss
+     * @return the path
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane, PathSearch search) {
+        int start = Coords.pack(startX, startY, plane);
+        int goal = Coords.pack(goalX, goalY, plane);
+        PathResult cached = get(start, goal);
+        if (cached != null) {
+            return cached;
+        }
+        long key = key(start, goal);
+        Segment segment = segment(key);
+        int searchGeneration = segment.generation();
+        PathResult result = search.find(startX, startY, goalX, goalY, plane);
+        if (result.isFound()) {
+            segment.put(key, new Entry(result, regionsCrossed(result.getPath())), searchGeneration);
+        }
+        return result;
+    }
+
+    /**
+     * Gets a cached path.
+     *
+     * @param start the packed start tile, see {@link Coords}
+     * @param goal  the packed goal tile
+     * @return the path, or {@code null} if it is not cached
+     */
+    public PathResult get(int start, int goal) {
+        long key = key(start, goal);
+        PathResult result = segment(key).get(key);
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Marks the start of a search whose path will be passed to {@link #put}, for callers that
+     * search outside {@link #find}. Call it before reading the map.
+     *
+     * @param start the packed start tile, see {@link Coords}
+     * @param goal  the packed goal tile
+     * @return the token to pass to {@link #put}
+     */
+    public int beginSearch(int start, int goal) {
+        return segment(key(start, goal)).generation();
+    }
+
+    /**
+     * Caches a path if it was found and no invalidation that could affect it happened since
+     * its search began.
+     *
+     * @param start            the packed start tile, see {@link Coords}
+     * @param goal             the packed goal tile
+     * @param result           the path from the start to the goal
+     * @param searchGeneration the token {@link #beginSearch} returned before the search
+     */
+    public void put(int start, int goal, PathResult result, int searchGeneration) {
+        if (!result.isFound()) {
+            return;
+        }
+        long key = key(start, goal);
+        segment(key).put(key, new Entry(result, regionsCrossed(result.getPath())), searchGeneration);
+    }
+
+    /**
+     * Drops the paths crossing a region on any plane.
+     *
+     * @param regionId the region, see {@link Regions#id}
+     * @return the number of paths dropped
+     */
+    public int invalidateRegion(int regionId) {
+        int dropped = 0;
+        for (Segment segment : segments) {
+            dropped += segment.invalidateRegion(regionId);
+        }
+        invalidations.add(dropped);
+        log.debug("Invalidated {} cached paths through region {}", dropped, regionId);
+        return dropped;
+    }
+
+    /**
+     * Drops every cached path.
+     */
+    public void invalidateAll() {
+        int dropped = 0;
+        for (Segment segment : segments) {
+            dropped += segment.clear();
+        }
+        invalidations.add(dropped);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups that were hits, 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : hits / (double) total;
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of entries dropped by invalidation.
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Gets an estimate of the heap used by the cached entries.
+     */
+    public long getMemoryBytes() {
+        return memoryBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d paths, %.1f%% hit rate, %,d evictions, %,d invalidations, ~%,d KB",
+                size(), getHitRate() * 100, getEvictions(), getInvalidations(), getMemoryBytes() / 1024);
+    }
+
+    private static long key(int start, int goal) {
+        return ((long) start << 32) | (goal & 0xFFFFFFFFL);
+    }
+
+    private Segment segment(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 60)];
+    }
+
+    /**
+     * Gets the sorted distinct region ids a path passes through.
+     */
+    private static int[] regionsCrossed(int[] path) {
+        int[] regions = new int[4];
+        int count = 0;
+        int last = -1;
+        for (int tile : path) {
+            int regionId = Regions.id(Coords.x(tile), Coords.y(tile));
+            if (regionId == last) {
+                continue;
+            }
+            last = regionId;
+            if (count == regions.length) {
+                regions = Arrays.copyOf(regions, count * 2);
+            }
+            regions[count++] = regionId;
+        }
+        regions = Arrays.copyOf(regions, count);
+        Arrays.sort(regions);
+        int distinct = 0;
+        for (int i = 0; i < regions.length; i++) {
+            if (i == 0 || regions[i] != regions[i - 1]) {
+                regions[distinct++] = regions[i];
+            }
+        }
+        return Arrays.copyOf(regions, distinct);
+    }
+
+    private static final class Entry {
+        private final PathResult result;
+        private final int[] regions;
+        private final long bytes;
+
+        private Entry(PathResult result, int[] regions) {
+            this.result = result;
+            this.regions = regions;
+            this.bytes = ENTRY_OVERHEAD_BYTES + 4L * result.getPath().length + 4L * regions.length;
+        }
+    }
+
+    /**
+     * One lock's share of the entries, with an index of its keys by the regions they cross.
+     */
+    private final class Segment {
+        private final LinkedHashMap<Long, Entry> entries;
+        private final Map<Integer, Set<Long>> keysByRegion = new HashMap<>();
+        /**
+         * Bumped by every invalidation, so a search started before one does not cache its path.
+         */
+        private int generation;
+
+        private Segment(int maxEntries) {
+            this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() <= maxEntries) {
+                        return false;
+                    }
+                    unindex(eldest.getKey(), eldest.getValue());
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        private synchronized PathResult get(long key) {
+            Entry entry = entries.get(key);
+            return entry == null ? null : entry.result;
+        }
+
+        private synchronized int generation() {
+            return generation;
+        }
+
+        /**
+         * Caches an entry unless the segment was invalidated since the given generation.
+         */
+        private synchronized void put(long key, Entry entry, int searchGeneration) {
+            if (generation != searchGeneration) {
+                return;
+            }
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            for (int regionId : entry.regions) {
+                keysByRegion.computeIfAbsent(regionId, r -> new HashSet<>()).add(key);
+            }
+            memoryBytes.add(entry.bytes);
+        }
+
+        private synchronized int invalidateRegion(int regionId) {
+            generation++;
+            Set<Long> keys = keysByRegion.get(regionId);
+            if (keys == null) {
+                return 0;
+            }
+            int dropped = 0;
+            for (Long key : new ArrayList<>(keys)) {
+                Entry entry = entries.remove(key);
+                if (entry != null) {
+                    unindex(key, entry);
+                    dropped++;
+                }
+            }
+            return dropped;
+        }
+
+        private synchronized int clear() {
+            generation++;
+            int dropped = entries.size();
+            for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+                memoryBytes.add(-entry.getValue().bytes);
+            }
+            entries.clear();
+            keysByRegion.clear();
+            return dropped;
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        /**
+         * Removes an entry's key from the region index and its size from the memory estimate.
+         */
+        private void unindex(long key, Entry entry) {
+            for (int regionId : entry.regions) {
+                Set<Long> keys = keysByRegion.get(regionId);
+                if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                    keysByRegion.remove(regionId);
+                }
+            }
+            memoryBytes.add(-entry.bytes);
+        }
+    }
+}
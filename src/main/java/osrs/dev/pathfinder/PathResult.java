@@ -0,0 +1,101 @@
+package osrs.dev.pathfinder;
+
+import lombok.Getter;
+
+/**
+ * Outcome of a single path search.
+ * The path holds packed tiles (see {@link Coords}) from the start to the goal, both inclusive,
+ * and is empty if no path was found. A partial result from a search run in slices (see
+ * {@link AStarPathfinder#start}) instead holds the path from the start to the tile nearest the
+ * goal reached so far.
+ */
+@Getter
+public class PathResult {
+    private static final int[] NO_PATH = new int[0];
+
+    /**
+     * Why a search ended.
+     */
+    public enum Status {
+        FOUND,
+        /**
+         * Every tile reachable inside the search window was expanded.
+         */
+        UNREACHABLE,
+        /**
+         * The start and goal do not both fit in the search window.
+         */
+        OUT_OF_WINDOW,
+        NODE_BUDGET_EXHAUSTED,
+        TIMED_OUT
+    }
+
+    private final int[] path;
+    private final Status status;
+    /**
+     * Number of tiles taken off the open list and expanded.
+     */
+    private final int nodesExpanded;
+    /**
+     * Wall clock time the search took.
+     */
+    private final long nanos;
+
+    public PathResult(int[] path, int nodesExpanded, long nanos) {
+        this(path, Status.FOUND, nodesExpanded, nanos);
+    }
+
+    private PathResult(int[] path, Status status, int nodesExpanded, long nanos) {
+        this.path = path;
+        this.status = status;
+        this.nodesExpanded = nodesExpanded;
+        this.nanos = nanos;
+    }
+
+    public static PathResult notFound(Status status, int nodesExpanded, long nanos) {
+        return new PathResult(NO_PATH, status, nodesExpanded, nanos);
+    }
+
+    /**
+     * Creates the result of a search stopped before the goal, holding the path toward the goal found so far.
+     */
+    public static PathResult partial(int[] path, Status status, int nodesExpanded, long nanos) {
+        return new PathResult(path, status, nodesExpanded, nanos);
+    }
+
+    public boolean isFound() {
+        return status == Status.FOUND;
+    }
+
+    /**
+     * Checks if the search stopped before the goal but still holds a path toward it.
+     */
+    public boolean isPartial() {
+        return !isFound() && path.length > 0;
+    }
+
+    /**
+     * Gets the octile cost of the path, 10 per straight step and 14 per diagonal step.
+     */
+    public int getCost() {
+        int cost = 0;
+        for (int i = 1; i < path.length; i++) {
+            boolean diagonal = Coords.x(path[i]) != Coords.x(path[i - 1]) && Coords.y(path[i]) != Coords.y(path[i - 1]);
+            cost += diagonal ? Directions.DIAGONAL_COST : Directions.CARDINAL_COST;
+        }
+        return cost;
+    }
+
+    /**
+     * Gets the number of steps taken along the path.
+     */
+    public int getSteps() {
+        return Math.max(path.length - 1, 0);
+    }
+
+    @Override
+    public String toString() {
+        return (isFound() ? getSteps() + " steps" : status + (isPartial() ? " after " + getSteps() + " steps" : ""))
+                + String.format(", %,d nodes expanded in %.3f ms", nodesExpanded, nanos / 1_000_000.0);
+    }
+}
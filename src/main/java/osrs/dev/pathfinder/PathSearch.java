@@ -0,0 +1,9 @@
+package osrs.dev.pathfinder;
+
+/**
+ * A point to point path search, such as {@link AStarPathfinder#find(int, int, int, int, int)}.
+ */
+@FunctionalInterface
+public interface PathSearch {
+    PathResult find(int startX, int startY, int goalX, int goalY, int plane);
+}
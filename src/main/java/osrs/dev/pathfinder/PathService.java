@@ -0,0 +1,257 @@
+package osrs.dev.pathfinder;
+
+import lombok.Getter;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.LatencyRecorder;
+import osrs.dev.util.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs many path searches at once for callers that submit them concurrently.
+ * Each request runs on its own virtual thread where the runtime has them, falling back to a
+ * cached thread pool, so waiting requests cost little. Searches run on a bounded pool of
+ * {@link AStarPathfinder}s, whose search buffers are reused from one request to the next and
+ * created only as the pool fills; requests wait in turn for a free pathfinder.
+ * A request for a start and goal already being searched joins that search rather than
+ * starting another, if that search's deadline is no earlier than its own. Every request gets
+ * its own future, so cancelling or completing one does not affect the others.
+ * Thread-safe.
+ */
+public class PathService implements AutoCloseable {
+    private final Supplier<AStarPathfinder> factory;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<AStarPathfinder> idle = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Search> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger pathfinderCount = new AtomicInteger();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    /**
+     * Time from submitting a search to its result, including the wait for a pathfinder.
+     */
+    @Getter
+    private final LatencyRecorder latency = new LatencyRecorder();
+
+    /**
+     * Creates a service with one pathfinder per processor.
+     *
+     * @param map the collision map to search
+     */
+    public PathService(CollisionMap map) {
+        this(map, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param map      the collision map to search
+     * @param poolSize the most searches to run at once
+     */
+    public PathService(CollisionMap map, int poolSize) {
+        this(() -> new AStarPathfinder(map), poolSize);
+    }
+
+    PathService(Supplier<AStarPathfinder> factory, int poolSize) {
+        this.factory = factory;
+        this.permits = new Semaphore(poolSize, true);
+        this.executor = VirtualThreads.newPerTaskExecutor();
+    }
+
+    /**
+     * Submits a search between two tiles on the same plane.
+     *
+     * @param timeoutNanos the time the search may take from now, including the wait for a pathfinder
+     * @return the path, completed with a {@link PathResult.Status#TIMED_OUT} result if the deadline passed first
+     */
+    public CompletableFuture<PathResult> submit(int startX, int startY, int goalX, int goalY, int plane, long timeoutNanos) {
+        long key = ((long) Coords.pack(startX, startY, plane) << 32) | (Coords.pack(goalX, goalY, plane) & 0xFFFFFFFFL);
+        long submitted = System.nanoTime();
+        long deadline = submitted + Math.min(Math.max(timeoutNanos, 0), Long.MAX_VALUE / 4);
+        Search search = new Search(deadline);
+        while (true) {
+            Search existing = inFlight.putIfAbsent(key, search);
+            if (existing == null) {
+                break;
+            }
+            if (existing.deadline - deadline >= 0) {
+                coalesced.increment();
+                return existing.future.copy();
+            }
+            // The search in flight ends too soon for this request, so search again and let later requests join this one
+            if (inFlight.replace(key, existing, search)) {
+                break;
+            }
+        }
+        queueDepth.incrementAndGet();
+        try {
+            executor.execute(() -> run(key, search, startX, startY, goalX, goalY, plane, submitted));
+        } catch (RejectedExecutionException e) {
+            queueDepth.decrementAndGet();
+            inFlight.remove(key, search);
+            search.future.completeExceptionally(e);
+        }
+        return search.future.copy();
+    }
+
+    /**
+     * Finds a path between two tiles on the same plane, waiting for the result.
+     *
+     * @param timeoutNanos the time the search may take, including the wait for a pathfinder
+     * @return the path, empty if no path was found, with the reason in its status
+     */
+    public PathResult find(int startX, int startY, int goalX, int goalY, int plane, long timeoutNanos) {
+        return submit(startX, startY, goalX, goalY, plane, timeoutNanos).join();
+    }
+
+    /**
+     * Finds the paths of a batch of requests, running them concurrently.
+     * Each goal is searched for on the plane of its start.
+     *
+     * @param starts       the packed start tiles, see {@link Coords}
+     * @param goals        the packed goal tiles, one per start
+     * @param timeoutNanos the time each search may take
+     * @return the path of each request, in order
+     */
+    public PathResult[] findAll(int[] starts, int[] goals, long timeoutNanos) {
+        if (starts.length != goals.length) {
+            throw new IllegalArgumentException("Expected one goal per start, got " + starts.length + " starts and " + goals.length + " goals");
+        }
+        List<CompletableFuture<PathResult>> futures = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            futures.add(submit(Coords.x(starts[i]), Coords.y(starts[i]), Coords.x(goals[i]), Coords.y(goals[i]),
+                    Coords.plane(starts[i]), timeoutNanos));
+        }
+        PathResult[] results = new PathResult[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            results[i] = futures.get(i).join();
+        }
+        return results;
+    }
+
+    private void run(long key, Search search, int startX, int startY, int goalX, int goalY, int plane, long submitted) {
+        CompletableFuture<PathResult> future = search.future;
+        long deadline = search.deadline;
+        PathResult result;
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            queueDepth.decrementAndGet();
+            if (!acquired) {
+                timeouts.increment();
+                result = PathResult.notFound(PathResult.Status.TIMED_OUT, 0, System.nanoTime() - submitted);
+            } else {
+                AStarPathfinder pathfinder = idle.poll();
+                if (pathfinder == null) {
+                    pathfinder = factory.get();
+                    pathfinderCount.incrementAndGet();
+                }
+                try {
+                    result = pathfinder.find(startX, startY, goalX, goalY, plane, Integer.MAX_VALUE,
+                            Math.max(deadline - System.nanoTime(), 0));
+                } finally {
+                    idle.add(pathfinder);
+                }
+                if (result.getStatus() == PathResult.Status.TIMED_OUT) {
+                    timeouts.increment();
+                }
+            }
+        } catch (InterruptedException e) {
+            queueDepth.decrementAndGet();
+            Thread.currentThread().interrupt();
+            inFlight.remove(key, search);
+            future.completeExceptionally(e);
+            return;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, search);
+            future.completeExceptionally(e);
+            return;
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+        }
+        searches.increment();
+        latency.record(System.nanoTime() - submitted);
+        // Leave the in-flight table first so later requests search again rather than join a finished search
+        inFlight.remove(key, search);
+        future.complete(result);
+    }
+
+    /**
+     * Gets the number of searches submitted and still waiting for a pathfinder.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Gets the number of routes with a search waiting or running.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Gets the number of pathfinders created so far, at most the pool size.
+     */
+    public int getPathfinderCount() {
+        return pathfinderCount.get();
+    }
+
+    /**
+     * Gets the number of searches finished, excluding requests that joined another search.
+     */
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    /**
+     * Gets the number of requests that joined a search already in flight.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the number of searches that ended at their deadline.
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d searches, %,d coalesced, %,d timed out, %d queued, latency %s",
+                getSearches(), getCoalesced(), getTimeouts(), getQueueDepth(), latency);
+    }
+
+    /**
+     * Stops accepting requests; searches already submitted still finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * A search in flight, shared by the requests that joined it.
+     */
+    private static final class Search {
+        private final CompletableFuture<PathResult> future = new CompletableFuture<>();
+        private final long deadline;
+
+        private Search(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package osrs.dev.pathfinder;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Tiles reachable from a start tile within a number of steps, as computed by
+ * {@link BitboardReachability}. Held as row bitboards over a square window: bit {@code i} of
+ * word {@code row * wordsPerRow + column} is the tile at {@code (originX + column * 64 + i, originY + row)}.
+ * One bitboard holds every reached tile and one per step count holds the tiles first reached
+ * after that many steps.
+ */
+@Getter
+public class ReachableArea {
+    private final int originX;
+    private final int originY;
+    private final int plane;
+    private final int size;
+    @Getter(AccessLevel.NONE)
+    private final int wordsPerRow;
+    @Getter(AccessLevel.NONE)
+    private final long[] reached;
+    @Getter(AccessLevel.NONE)
+    private final long[][] rings;
+
+    ReachableArea(int originX, int originY, int plane, int size, long[] reached, long[][] rings) {
+        this.originX = originX;
+        this.originY = originY;
+        this.plane = plane;
+        this.size = size;
+        this.wordsPerRow = size >>> 6;
+        this.reached = reached;
+        this.rings = rings;
+    }
+
+    /**
+     * Gets the largest step count any tile was reached with.
+     */
+    public int getMaxDistance() {
+        return rings.length - 1;
+    }
+
+    public boolean contains(int x, int y) {
+        return isSet(reached, x, y);
+    }
+
+    /**
+     * Gets the number of steps from the start to a tile.
+     *
+     * @return the steps, or -1 if the tile was not reached
+     */
+    public int distance(int x, int y) {
+        if (!contains(x, y)) {
+            return -1;
+        }
+        for (int steps = 0; steps < rings.length; steps++) {
+            if (isSet(rings[steps], x, y)) {
+                return steps;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the reached tiles.
+     */
+    public int count() {
+        int count = 0;
+        for (long word : reached) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Gets every reached tile as a bitmap of packed tiles, see {@link Coords}.
+     */
+    public RoaringBitmap toBitmap() {
+        return toBitmap(reached);
+    }
+
+    /**
+     * Gets the tiles first reached after a number of steps as a bitmap of packed tiles.
+     *
+     * @param steps the step count, 0 for just the start tile
+     */
+    public RoaringBitmap ring(int steps) {
+        return steps < 0 || steps >= rings.length ? new RoaringBitmap() : toBitmap(rings[steps]);
+    }
+
+    private RoaringBitmap toBitmap(long[] words) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            int x = originX + ((i % wordsPerRow) << 6);
+            int y = originY + i / wordsPerRow;
+            while (word != 0) {
+                bitmap.add(Coords.pack(x + Long.numberOfTrailingZeros(word), y, plane));
+                word &= word - 1;
+            }
+        }
+        return bitmap;
+    }
+
+    private boolean isSet(long[] words, int x, int y) {
+        int dx = x - originX;
+        int dy = y - originY;
+        if (dx < 0 || dy < 0 || dx >= size || dy >= size) {
+            return false;
+        }
+        return (words[dy * wordsPerRow + (dx >>> 6)] >>> (dx & 63) & 1) != 0;
+    }
+}
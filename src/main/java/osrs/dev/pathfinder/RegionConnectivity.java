@@ -0,0 +1,276 @@
+package osrs.dev.pathfinder;
+
+import lombok.Getter;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Coarse connectivity between the 64x64 regions of a collision map, for ruling out or
+ * routing between regions before a detailed search. Built by {@link RegionConnectivityBuilder}.
+ * Each node is one set of tiles connected inside a region that can step across at least one
+ * of its borders, marked with the sides it crosses. Edges join nodes of neighbouring regions
+ * that a border step connects, and every node carries the label of the set of nodes connected
+ * to it, so connectivity checks need no search.
+ * Only walking on one plane is modelled, not transports between planes.
+ * Immutable and safe to share between threads.
+ */
+public class RegionConnectivity {
+    private static final int MAGIC = 0x52524348; // "RRCH"
+    private static final int VERSION = 1;
+
+    public static final int NORTH = 1;
+    public static final int EAST = 1 << 1;
+    public static final int SOUTH = 1 << 2;
+    public static final int WEST = 1 << 3;
+
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Sorted keys of the regions holding nodes, see {@link RegionGraph#regionKey(int, int)}.
+     */
+    private final int[] regionKeys;
+    /**
+     * First node of each region, with one extra closing entry.
+     */
+    private final int[] regionStarts;
+    /**
+     * Sides each node crosses, see {@link #NORTH} and the other sides.
+     */
+    private final byte[] nodeSides;
+    /**
+     * Label of the set of connected nodes each node belongs to.
+     */
+    private final int[] nodeLabels;
+    private final int[] edgeStarts;
+    private final int[] edgeTargets;
+    /**
+     * Region key of each node, rebuilt on load.
+     */
+    private final int[] nodeRegionKeys;
+    @Getter
+    private final int nodeCount;
+
+    RegionConnectivity(int[] regionKeys, int[] regionStarts, byte[] nodeSides, int[] nodeLabels, int[] edgeStarts, int[] edgeTargets) {
+        this.regionKeys = regionKeys;
+        this.regionStarts = regionStarts;
+        this.nodeSides = nodeSides;
+        this.nodeLabels = nodeLabels;
+        this.edgeStarts = edgeStarts;
+        this.edgeTargets = edgeTargets;
+        this.nodeCount = nodeSides.length;
+        this.nodeRegionKeys = new int[nodeCount];
+        for (int slot = 0; slot < regionKeys.length; slot++) {
+            Arrays.fill(nodeRegionKeys, regionStarts[slot], regionStarts[slot + 1], regionKeys[slot]);
+        }
+    }
+
+    public int getEdgeCount() {
+        return edgeTargets.length;
+    }
+
+    public int getRegionCount() {
+        return regionKeys.length;
+    }
+
+    /**
+     * Checks if some tile of one region can walk to some tile of another on a plane.
+     * A region connects to itself if it crosses any border; tiles shut in a region are not
+     * modelled.
+     */
+    public boolean isConnected(int regionA, int regionB, int plane) {
+        int slotA = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(regionA, plane));
+        int slotB = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(regionB, plane));
+        if (slotA < 0 || slotB < 0) {
+            return false;
+        }
+        for (int a = regionStarts[slotA]; a < regionStarts[slotA + 1]; a++) {
+            for (int b = regionStarts[slotB]; b < regionStarts[slotB + 1]; b++) {
+                if (nodeLabels[a] == nodeLabels[b]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if one set of tiles inside a region crosses both of two of its sides.
+     *
+     * @param sideA a side, see {@link #NORTH} and the other sides
+     * @param sideB another side
+     */
+    public boolean areSidesConnected(int regionId, int plane, int sideA, int sideB) {
+        int slot = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(regionId, plane));
+        if (slot < 0) {
+            return false;
+        }
+        for (int node = regionStarts[slot]; node < regionStarts[slot + 1]; node++) {
+            if ((nodeSides[node] & sideA) != 0 && (nodeSides[node] & sideB) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the sides of a region that can be crossed.
+     *
+     * @return the sides, see {@link #NORTH} and the other sides
+     */
+    public int openSides(int regionId, int plane) {
+        int slot = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(regionId, plane));
+        if (slot < 0) {
+            return 0;
+        }
+        int sides = 0;
+        for (int node = regionStarts[slot]; node < regionStarts[slot + 1]; node++) {
+            sides |= nodeSides[node];
+        }
+        return sides;
+    }
+
+    /**
+     * Finds a shortest chain of neighbouring regions from one region to another, counting
+     * border crossings. A region appears twice if the route leaves it and comes back into a
+     * part of it that is not connected inside the region.
+     *
+     * @return the region ids from the first region to the second, both inclusive, or an empty
+     * array if they are not connected
+     */
+    public int[] route(int fromRegion, int toRegion, int plane) {
+        int fromKey = RegionGraph.regionKey(fromRegion, plane);
+        int toKey = RegionGraph.regionKey(toRegion, plane);
+        int fromSlot = Arrays.binarySearch(regionKeys, fromKey);
+        if (fromRegion == toRegion) {
+            return fromSlot < 0 ? NONE : new int[]{fromRegion};
+        }
+        if (!isConnected(fromRegion, toRegion, plane)) {
+            return NONE;
+        }
+        int[] parents = new int[nodeCount];
+        Arrays.fill(parents, -2);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int node = regionStarts[fromSlot]; node < regionStarts[fromSlot + 1]; node++) {
+            parents[node] = -1;
+            queue.add(node);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            if (nodeRegionKeys[node] == toKey) {
+                int length = 0;
+                for (int n = node; n >= 0; n = parents[n]) {
+                    length++;
+                }
+                int[] route = new int[length];
+                for (int n = node; n >= 0; n = parents[n]) {
+                    route[--length] = nodeRegionKeys[n] & 0xFFFF;
+                }
+                return route;
+            }
+            for (int edge = edgeStarts[node]; edge < edgeStarts[node + 1]; edge++) {
+                int next = edgeTargets[edge];
+                if (parents[next] == -2) {
+                    parents[next] = node;
+                    queue.add(next);
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Gets the neighbouring regions a region steps into directly on a plane.
+     *
+     * @return the sorted region ids
+     */
+    public int[] neighbours(int regionId, int plane) {
+        int slot = Arrays.binarySearch(regionKeys, RegionGraph.regionKey(regionId, plane));
+        if (slot < 0) {
+            return NONE;
+        }
+        int[] neighbours = new int[4];
+        int count = 0;
+        for (int node = regionStarts[slot]; node < regionStarts[slot + 1]; node++) {
+            for (int edge = edgeStarts[node]; edge < edgeStarts[node + 1]; edge++) {
+                int neighbour = nodeRegionKeys[edgeTargets[edge]] & 0xFFFF;
+                boolean seen = false;
+                for (int i = 0; i < count; i++) {
+                    seen |= neighbours[i] == neighbour;
+                }
+                if (!seen) {
+                    neighbours[count++] = neighbour;
+                }
+            }
+        }
+        neighbours = Arrays.copyOf(neighbours, count);
+        Arrays.sort(neighbours);
+        return neighbours;
+    }
+
+    /**
+     * Saves the connectivity, gzipped if the path ends with .gz.
+     *
+     * @param filePath the file to write
+     * @throws IOException if writing fails
+     */
+    public void save(String filePath) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filePath);
+             OutputStream out = filePath.endsWith(".gz") ? new GZIPOutputStream(fos) : fos;
+             DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            writeArray(dos, regionKeys);
+            writeArray(dos, regionStarts);
+            dos.writeInt(nodeSides.length);
+            dos.write(nodeSides);
+            writeArray(dos, nodeLabels);
+            writeArray(dos, edgeStarts);
+            writeArray(dos, edgeTargets);
+        }
+    }
+
+    /**
+     * Loads connectivity written by {@link #save}, gunzipping it if the path ends with .gz.
+     *
+     * @param filePath the file to read
+     * @return the connectivity
+     * @throws IOException if reading fails or the file does not hold region connectivity
+     */
+    public static RegionConnectivity load(String filePath) throws IOException {
+        try (FileInputStream fis = new FileInputStream(filePath);
+             InputStream in = filePath.endsWith(".gz") ? new GZIPInputStream(fis) : fis;
+             DataInputStream dis = new DataInputStream(new BufferedInputStream(in))) {
+            if (dis.readInt() != MAGIC) {
+                throw new IOException("Not a region connectivity file: " + filePath);
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported region connectivity version " + version);
+            }
+            int[] regionKeys = readArray(dis);
+            int[] regionStarts = readArray(dis);
+            byte[] nodeSides = new byte[dis.readInt()];
+            dis.readFully(nodeSides);
+            return new RegionConnectivity(regionKeys, regionStarts, nodeSides, readArray(dis), readArray(dis), readArray(dis));
+        }
+    }
+
+    private static void writeArray(DataOutputStream dos, int[] values) throws IOException {
+        dos.writeInt(values.length);
+        for (int value : values) {
+            dos.writeInt(value);
+        }
+    }
+
+    private static int[] readArray(DataInputStream dis) throws IOException {
+        int[] values = new int[dis.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = dis.readInt();
+        }
+        return values;
+    }
+}
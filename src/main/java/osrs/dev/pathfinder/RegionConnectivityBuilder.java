@@ -0,0 +1,226 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+import osrs.dev.util.UnionFind;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Builds the {@link RegionConnectivity} of a collision map.
+ * Each region is flood filled on its own, in parallel, to label the tiles on its borders by
+ * the set of tiles connected inside the region they belong to, and to find the border tiles
+ * that can step into the neighbouring region. The labels on either side of each open border
+ * step are then joined into the region level graph.
+ */
+public final class RegionConnectivityBuilder {
+    private static final int SIZE = Regions.SIZE;
+    private static final int TILES = SIZE * SIZE;
+
+    private RegionConnectivityBuilder() {}
+
+    /**
+     * Builds the connectivity of a set of regions. Borders to regions outside the set are treated as closed.
+     *
+     * @param map       the collision map
+     * @param regionIds the regions to connect, see {@link Regions#id}
+     * @param planes    the number of planes to connect, starting at plane 0
+     * @return the connectivity
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws ExecutionException   if a worker failed
+     */
+    public static RegionConnectivity build(CollisionMap map, Collection<Integer> regionIds, int planes) throws InterruptedException, ExecutionException {
+        Set<Integer> regions = new HashSet<>(regionIds);
+        int[] keys = new int[regions.size() * planes];
+        int slots = 0;
+        for (int regionId : regions) {
+            for (int plane = 0; plane < planes; plane++) {
+                keys[slots++] = RegionGraph.regionKey(regionId, plane);
+            }
+        }
+        Arrays.sort(keys);
+
+        Border[] borders = new Border[slots];
+        Regions.forEachParallel(slots, slot -> borders[slot] = border(map.cursor(), keys[slot], regions));
+
+        // Mark the sides each border label crosses and collect the crossings as label pairs
+        int[] labelOffsets = new int[slots + 1];
+        for (int slot = 0; slot < slots; slot++) {
+            labelOffsets[slot + 1] = labelOffsets[slot] + borders[slot].labelCount;
+        }
+        byte[] labelSides = new byte[labelOffsets[slots]];
+        Set<Long> crossings = new HashSet<>();
+        for (int slot = 0; slot < slots; slot++) {
+            Border border = borders[slot];
+            int regionId = keys[slot] & 0xFFFF;
+            int plane = keys[slot] >>> 16;
+            int east = Arrays.binarySearch(keys, RegionGraph.regionKey(Regions.id(Regions.baseX(regionId) + SIZE, Regions.baseY(regionId)), plane));
+            int north = Arrays.binarySearch(keys, RegionGraph.regionKey(Regions.id(Regions.baseX(regionId), Regions.baseY(regionId) + SIZE), plane));
+            for (int i = 0; i < SIZE; i++) {
+                if (east >= 0 && (border.crossEast & (1L << i)) != 0) {
+                    int a = labelOffsets[slot] + border.east[i];
+                    int b = labelOffsets[east] + borders[east].west[i];
+                    labelSides[a] |= RegionConnectivity.EAST;
+                    labelSides[b] |= RegionConnectivity.WEST;
+                    crossings.add(((long) a << 32) | b);
+                }
+                if (north >= 0 && (border.crossNorth & (1L << i)) != 0) {
+                    int a = labelOffsets[slot] + border.north[i];
+                    int b = labelOffsets[north] + borders[north].south[i];
+                    labelSides[a] |= RegionConnectivity.NORTH;
+                    labelSides[b] |= RegionConnectivity.SOUTH;
+                    crossings.add(((long) a << 32) | b);
+                }
+            }
+        }
+
+        // Labels crossing a side become nodes, numbered by region
+        int[] labelNodes = new int[labelSides.length];
+        Arrays.fill(labelNodes, -1);
+        List<Integer> regionKeys = new ArrayList<>();
+        List<Integer> regionStarts = new ArrayList<>();
+        int nodes = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            for (int label = labelOffsets[slot]; label < labelOffsets[slot + 1]; label++) {
+                if (labelSides[label] == 0) {
+                    continue;
+                }
+                if (regionKeys.isEmpty() || regionKeys.get(regionKeys.size() - 1) != keys[slot]) {
+                    regionKeys.add(keys[slot]);
+                    regionStarts.add(nodes);
+                }
+                labelNodes[label] = nodes++;
+            }
+        }
+        regionStarts.add(nodes);
+        byte[] nodeSides = new byte[nodes];
+        for (int label = 0; label < labelSides.length; label++) {
+            if (labelNodes[label] >= 0) {
+                nodeSides[labelNodes[label]] = labelSides[label];
+            }
+        }
+
+        // Edges in both directions in compressed rows, and the connected set of each node
+        long[] edges = new long[crossings.size() * 2];
+        UnionFind sets = new UnionFind(nodes);
+        int count = 0;
+        for (long crossing : crossings) {
+            int a = labelNodes[(int) (crossing >>> 32)];
+            int b = labelNodes[(int) crossing];
+            edges[count++] = ((long) a << 32) | b;
+            edges[count++] = ((long) b << 32) | a;
+            sets.union(a, b);
+        }
+        Arrays.sort(edges);
+        int[] edgeStarts = new int[nodes + 1];
+        for (long edge : edges) {
+            edgeStarts[(int) (edge >>> 32) + 1]++;
+        }
+        for (int node = 0; node < nodes; node++) {
+            edgeStarts[node + 1] += edgeStarts[node];
+        }
+        int[] edgeTargets = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            edgeTargets[i] = (int) edges[i];
+        }
+        return new RegionConnectivity(toArray(regionKeys), toArray(regionStarts), nodeSides, sets.labels(), edgeStarts, edgeTargets);
+    }
+
+    /**
+     * Flood fills a region and labels its border tiles by the connected set they belong to.
+     */
+    private static Border border(CollisionMap map, int regionKey, Set<Integer> regions) {
+        int regionId = regionKey & 0xFFFF;
+        int plane = regionKey >>> 16;
+        int baseX = Regions.baseX(regionId);
+        int baseY = Regions.baseY(regionId);
+        int[] components = new int[TILES];
+        Arrays.fill(components, -1);
+        int[] queue = new int[TILES];
+        int componentCount = 0;
+        for (int start = 0; start < TILES; start++) {
+            if (components[start] >= 0) {
+                continue;
+            }
+            int component = componentCount++;
+            components[start] = component;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                int tile = queue[head++];
+                int x = tile & (SIZE - 1);
+                int y = tile >>> Regions.SHIFT;
+                int wx = baseX + x;
+                int wy = baseY + y;
+                if (y < SIZE - 1 && components[tile + SIZE] < 0 && map.pathableNorth(wx, wy, plane)) {
+                    components[tile + SIZE] = component;
+                    queue[tail++] = tile + SIZE;
+                }
+                if (x < SIZE - 1 && components[tile + 1] < 0 && map.pathableEast(wx, wy, plane)) {
+                    components[tile + 1] = component;
+                    queue[tail++] = tile + 1;
+                }
+                if (y > 0 && components[tile - SIZE] < 0 && map.pathableSouth(wx, wy, plane)) {
+                    components[tile - SIZE] = component;
+                    queue[tail++] = tile - SIZE;
+                }
+                if (x > 0 && components[tile - 1] < 0 && map.pathableWest(wx, wy, plane)) {
+                    components[tile - 1] = component;
+                    queue[tail++] = tile - 1;
+                }
+            }
+        }
+
+        // Renumber the components reaching the border from 0
+        Border border = new Border();
+        int[] compact = new int[componentCount];
+        Arrays.fill(compact, -1);
+        for (int i = 0; i < SIZE; i++) {
+            border.south[i] = compact(compact, components[i], border);
+            border.north[i] = compact(compact, components[(SIZE - 1) * SIZE + i], border);
+            border.west[i] = compact(compact, components[i * SIZE], border);
+            border.east[i] = compact(compact, components[i * SIZE + SIZE - 1], border);
+        }
+        boolean east = regions.contains(Regions.id(baseX + SIZE, baseY));
+        boolean north = regions.contains(Regions.id(baseX, baseY + SIZE));
+        for (int i = 0; i < SIZE; i++) {
+            if (east && map.pathableEast(baseX + SIZE - 1, baseY + i, plane)) {
+                border.crossEast |= 1L << i;
+            }
+            if (north && map.pathableNorth(baseX + i, baseY + SIZE - 1, plane)) {
+                border.crossNorth |= 1L << i;
+            }
+        }
+        return border;
+    }
+
+    private static int compact(int[] compact, int component, Border border) {
+        if (compact[component] < 0) {
+            compact[component] = border.labelCount++;
+        }
+        return compact[component];
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Labels of the border tiles of one region and its open steps east and north.
+     */
+    private static final class Border {
+        private final int[] south = new int[SIZE];
+        private final int[] north = new int[SIZE];
+        private final int[] west = new int[SIZE];
+        private final int[] east = new int[SIZE];
+        private long crossEast;
+        private long crossNorth;
+        private int labelCount;
+    }
+}
@@ -0,0 +1,167 @@
+package osrs.dev.pathfinder;
+
+import lombok.Getter;
+import osrs.dev.util.Regions;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Abstract graph over the 64x64 regions of a collision map for hierarchical path searches.
+ * Nodes are entrance tiles on region borders, edges are either a single step across a
+ * border or the cost of the cheapest path between two entrances of the same region that
+ * stays inside it. Built once by {@link RegionGraphBuilder} and persisted next to the map.
+ * Nodes are stored grouped by region and edges in compressed rows, so a loaded graph is a
+ * handful of int arrays. Immutable and safe to share between threads.
+ */
+public class RegionGraph {
+    private static final int MAGIC = 0x52474748; // "RGGH"
+    private static final int VERSION = 1;
+
+    /**
+     * Packed tile of each node, see {@link Coords}.
+     */
+    private final int[] tiles;
+    /**
+     * First edge of each node, with one extra entry closing the last node's edges.
+     */
+    private final int[] edgeStarts;
+    private final int[] edgeTargets;
+    private final int[] edgeCosts;
+    /**
+     * Sorted keys of the regions holding nodes, see {@link #regionKey}.
+     */
+    private final int[] regionKeys;
+    /**
+     * First node of each region in {@link #regionKeys}, with one extra closing entry.
+     */
+    private final int[] regionStarts;
+    @Getter
+    private final int nodeCount;
+
+    RegionGraph(int[] tiles, int[] edgeStarts, int[] edgeTargets, int[] edgeCosts, int[] regionKeys, int[] regionStarts) {
+        this.tiles = tiles;
+        this.edgeStarts = edgeStarts;
+        this.edgeTargets = edgeTargets;
+        this.edgeCosts = edgeCosts;
+        this.regionKeys = regionKeys;
+        this.regionStarts = regionStarts;
+        this.nodeCount = tiles.length;
+    }
+
+    public int getEdgeCount() {
+        return edgeTargets.length;
+    }
+
+    public int getRegionCount() {
+        return regionKeys.length;
+    }
+
+    static int regionKey(int regionId, int plane) {
+        return (plane << 16) | regionId;
+    }
+
+    /**
+     * Gets the key of the region holding a node's tile.
+     */
+    static int regionKey(int tile) {
+        return regionKey(Regions.id(Coords.x(tile), Coords.y(tile)), Coords.plane(tile));
+    }
+
+    int tile(int node) {
+        return tiles[node];
+    }
+
+    int edgeStart(int node) {
+        return edgeStarts[node];
+    }
+
+    int edgeEnd(int node) {
+        return edgeStarts[node + 1];
+    }
+
+    int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    int edgeCost(int edge) {
+        return edgeCosts[edge];
+    }
+
+    /**
+     * Gets the first node of a region.
+     *
+     * @return the node, or -1 if the region has no entrances
+     */
+    int firstNode(int regionKey) {
+        int slot = Arrays.binarySearch(regionKeys, regionKey);
+        return slot < 0 ? -1 : regionStarts[slot];
+    }
+
+    /**
+     * Gets the node after the last node of a region, only valid if {@link #firstNode} found it.
+     */
+    int endNode(int regionKey) {
+        return regionStarts[Arrays.binarySearch(regionKeys, regionKey) + 1];
+    }
+
+    /**
+     * Saves the graph, gzipped if the path ends with .gz.
+     *
+     * @param filePath the file to write
+     * @throws IOException if writing fails
+     */
+    public void save(String filePath) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filePath);
+             OutputStream out = filePath.endsWith(".gz") ? new GZIPOutputStream(fos) : fos;
+             DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            writeArray(dos, tiles);
+            writeArray(dos, edgeStarts);
+            writeArray(dos, edgeTargets);
+            writeArray(dos, edgeCosts);
+            writeArray(dos, regionKeys);
+            writeArray(dos, regionStarts);
+        }
+    }
+
+    /**
+     * Loads a graph written by {@link #save}, gunzipping it if the path ends with .gz.
+     *
+     * @param filePath the file to read
+     * @return the graph
+     * @throws IOException if reading fails or the file is not a region graph
+     */
+    public static RegionGraph load(String filePath) throws IOException {
+        try (FileInputStream fis = new FileInputStream(filePath);
+             InputStream in = filePath.endsWith(".gz") ? new GZIPInputStream(fis) : fis;
+             DataInputStream dis = new DataInputStream(new BufferedInputStream(in))) {
+            if (dis.readInt() != MAGIC) {
+                throw new IOException("Not a region graph: " + filePath);
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported region graph version " + version);
+            }
+            return new RegionGraph(readArray(dis), readArray(dis), readArray(dis), readArray(dis), readArray(dis), readArray(dis));
+        }
+    }
+
+    private static void writeArray(DataOutputStream dos, int[] values) throws IOException {
+        dos.writeInt(values.length);
+        for (int value : values) {
+            dos.writeInt(value);
+        }
+    }
+
+    private static int[] readArray(DataInputStream dis) throws IOException {
+        int[] values = new int[dis.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = dis.readInt();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,221 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds the {@link RegionGraph} of a collision map.
+ * Each open stretch of a border between two regions becomes one entrance in its middle, or
+ * two at its ends once it is long enough that routes through one corner would detour badly.
+ * Each region is then searched from each of its entrances to link them, in parallel across
+ * regions.
+ */
+public final class RegionGraphBuilder {
+    /**
+     * Border stretches at least this long get an entrance at each end instead of one in the middle.
+     */
+    private static final int SPLIT_LENGTH = 6;
+
+    private RegionGraphBuilder() {}
+
+    /**
+     * Builds the graph of a set of regions. Borders to regions outside the set are treated as closed.
+     *
+     * @param map       the collision map
+     * @param regionIds the regions to link, see {@link Regions#id}
+     * @param planes    the number of planes to link, starting at plane 0
+     * @return the graph
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws ExecutionException   if a worker failed
+     */
+    public static RegionGraph build(CollisionMap map, Collection<Integer> regionIds, int planes) throws InterruptedException, ExecutionException {
+        // One pool for both passes so each worker keeps its region search
+        ExecutorService executor = Regions.newWorkerPool();
+        try {
+            return build(executor, map, regionIds, planes);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static RegionGraph build(ExecutorService executor, CollisionMap map, Collection<Integer> regionIds, int planes) throws InterruptedException, ExecutionException {
+        Set<Integer> regions = new HashSet<>(regionIds);
+        Integer[] ids = regions.toArray(new Integer[0]);
+        IntBuffer[] regionCrossings = new IntBuffer[ids.length];
+        Regions.forEachParallel(executor, ids.length, slot -> regionCrossings[slot] = crossings(map.cursor(), ids[slot], planes, regions));
+        IntBuffer crossings = new IntBuffer();
+        for (IntBuffer found : regionCrossings) {
+            crossings.addAll(found);
+        }
+
+        // Order the entrance tiles by region so each region's nodes form one range
+        long[] keyed = new long[crossings.size];
+        for (int i = 0; i < crossings.size; i++) {
+            int tile = crossings.values[i];
+            keyed[i] = ((long) RegionGraph.regionKey(tile) << 32) | tile;
+        }
+        Arrays.sort(keyed);
+        IntBuffer tiles = new IntBuffer();
+        IntBuffer regionKeys = new IntBuffer();
+        IntBuffer regionStarts = new IntBuffer();
+        for (int i = 0; i < keyed.length; i++) {
+            if (i > 0 && keyed[i] == keyed[i - 1]) {
+                continue;
+            }
+            int regionKey = (int) (keyed[i] >>> 32);
+            if (regionKeys.size == 0 || regionKeys.values[regionKeys.size - 1] != regionKey) {
+                regionKeys.add(regionKey);
+                regionStarts.add(tiles.size);
+            }
+            tiles.add((int) keyed[i]);
+        }
+        regionStarts.add(tiles.size);
+        int[] nodeTiles = tiles.toArray();
+
+        Map<Integer, Integer> nodes = new HashMap<>(nodeTiles.length * 2);
+        for (int node = 0; node < nodeTiles.length; node++) {
+            nodes.put(nodeTiles[node], node);
+        }
+
+        // Edges as (from, to, cost) triples: border steps first, then each region's links
+        IntBuffer edges = new IntBuffer();
+        for (int i = 0; i < crossings.size; i += 2) {
+            int a = nodes.get(crossings.values[i]);
+            int b = nodes.get(crossings.values[i + 1]);
+            edges.add(a).add(b).add(Directions.CARDINAL_COST);
+            edges.add(b).add(a).add(Directions.CARDINAL_COST);
+        }
+        ThreadLocal<RegionSearch> searches = ThreadLocal.withInitial(() -> new RegionSearch(map));
+        IntBuffer[] regionLinks = new IntBuffer[regionKeys.size];
+        Regions.forEachParallel(executor, regionLinks.length, slot ->
+                regionLinks[slot] = links(searches.get(), nodeTiles, regionStarts.values[slot], regionStarts.values[slot + 1]));
+        for (IntBuffer links : regionLinks) {
+            edges.addAll(links);
+        }
+
+        int edgeCount = edges.size / 3;
+        int[] edgeStarts = new int[nodeTiles.length + 1];
+        for (int i = 0; i < edges.size; i += 3) {
+            edgeStarts[edges.values[i] + 1]++;
+        }
+        for (int node = 0; node < nodeTiles.length; node++) {
+            edgeStarts[node + 1] += edgeStarts[node];
+        }
+        int[] next = Arrays.copyOf(edgeStarts, nodeTiles.length);
+        int[] edgeTargets = new int[edgeCount];
+        int[] edgeCosts = new int[edgeCount];
+        for (int i = 0; i < edges.size; i += 3) {
+            int edge = next[edges.values[i]]++;
+            edgeTargets[edge] = edges.values[i + 1];
+            edgeCosts[edge] = edges.values[i + 2];
+        }
+        return new RegionGraph(nodeTiles, edgeStarts, edgeTargets, edgeCosts, regionKeys.toArray(), regionStarts.toArray());
+    }
+
+    /**
+     * Finds the entrances on the east and north borders of a region, as pairs of packed tiles
+     * on either side of the border.
+     */
+    private static IntBuffer crossings(CollisionMap map, int regionId, int planes, Set<Integer> regions) {
+        IntBuffer out = new IntBuffer();
+        int baseX = Regions.baseX(regionId);
+        int baseY = Regions.baseY(regionId);
+        boolean east = regions.contains(Regions.id(baseX + Regions.SIZE, baseY));
+        boolean north = regions.contains(Regions.id(baseX, baseY + Regions.SIZE));
+        for (int plane = 0; plane < planes; plane++) {
+            if (east) {
+                int x = baseX + Regions.SIZE - 1;
+                int runStart = -1;
+                for (int i = 0; i <= Regions.SIZE; i++) {
+                    boolean open = i < Regions.SIZE && map.pathableEast(x, baseY + i, plane);
+                    if (open && runStart < 0) {
+                        runStart = i;
+                    } else if (!open && runStart >= 0) {
+                        for (int entrance : entrances(runStart, i)) {
+                            out.add(Coords.pack(x, baseY + entrance, plane)).add(Coords.pack(x + 1, baseY + entrance, plane));
+                        }
+                        runStart = -1;
+                    }
+                }
+            }
+            if (north) {
+                int y = baseY + Regions.SIZE - 1;
+                int runStart = -1;
+                for (int i = 0; i <= Regions.SIZE; i++) {
+                    boolean open = i < Regions.SIZE && map.pathableNorth(baseX + i, y, plane);
+                    if (open && runStart < 0) {
+                        runStart = i;
+                    } else if (!open && runStart >= 0) {
+                        for (int entrance : entrances(runStart, i)) {
+                            out.add(Coords.pack(baseX + entrance, y, plane)).add(Coords.pack(baseX + entrance, y + 1, plane));
+                        }
+                        runStart = -1;
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Picks the entrance offsets of an open border stretch.
+     *
+     * @param start the first open offset
+     * @param end   the offset after the last open one
+     */
+    private static int[] entrances(int start, int end) {
+        if (end - start >= SPLIT_LENGTH) {
+            return new int[]{start, end - 1};
+        }
+        return new int[]{(start + end - 1) / 2};
+    }
+
+    /**
+     * Links the entrances of one region with the cost of the cheapest path between them inside the region.
+     */
+    private static IntBuffer links(RegionSearch search, int[] tiles, int first, int end) {
+        IntBuffer out = new IntBuffer();
+        for (int from = first; from < end; from++) {
+            search.run(Coords.x(tiles[from]), Coords.y(tiles[from]), Coords.plane(tiles[from]));
+            for (int to = first; to < end; to++) {
+                int cost = to == from ? -1 : search.cost(Coords.x(tiles[to]), Coords.y(tiles[to]));
+                if (cost >= 0) {
+                    out.add(from).add(to).add(cost);
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Growable int array.
+     */
+    private static final class IntBuffer {
+        private int[] values = new int[16];
+        private int size;
+
+        private IntBuffer add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            return this;
+        }
+
+        private void addAll(IntBuffer other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
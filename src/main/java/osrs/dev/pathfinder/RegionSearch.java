@@ -0,0 +1,89 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra search confined to one 64x64 region, giving the cost from a tile to every tile
+ * of its region that can be reached without leaving it.
+ * Not thread-safe, use one search per thread.
+ */
+final class RegionSearch {
+    private static final int TILES = Regions.SIZE * Regions.SIZE;
+
+    private final CollisionMap map;
+    private final IndexedMinHeap open = new IndexedMinHeap(TILES);
+    private final int[] cost = new int[TILES];
+    private final int[] stamp = new int[TILES];
+    private int generation;
+    private int baseX;
+    private int baseY;
+
+    RegionSearch(CollisionMap map) {
+        this.map = map.cursor();
+    }
+
+    /**
+     * Searches from a tile across its region, replacing the costs of the previous run.
+     */
+    void run(int x, int y, int plane) {
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        int regionId = Regions.id(x, y);
+        baseX = Regions.baseX(regionId);
+        baseY = Regions.baseY(regionId);
+
+        IndexedMinHeap open = this.open;
+        open.clear();
+        int start = index(x, y);
+        stamp[start] = generation;
+        cost[start] = 0;
+        open.insert(start, 0);
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            int cx = baseX + (current & (Regions.SIZE - 1));
+            int cy = baseY + (current >>> Regions.SHIFT);
+            int currentCost = cost[current];
+            int flags = map.all(cx, cy, plane);
+            for (int bit : Directions.ORDER) {
+                if ((flags & (1 << bit)) == 0) {
+                    continue;
+                }
+                int nx = cx + Directions.DX[bit];
+                int ny = cy + Directions.DY[bit];
+                if (nx < baseX || ny < baseY || nx >= baseX + Regions.SIZE || ny >= baseY + Regions.SIZE) {
+                    continue;
+                }
+                int next = index(nx, ny);
+                int nextCost = currentCost + Directions.cost(bit);
+                if (stamp[next] != generation) {
+                    stamp[next] = generation;
+                    cost[next] = nextCost;
+                    open.insert(next, nextCost);
+                } else if (nextCost < cost[next] && open.slot(next) != IndexedMinHeap.POLLED) {
+                    cost[next] = nextCost;
+                    open.decrease(next, nextCost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the cost of the last run to a tile of the same region.
+     *
+     * @return the cost, or -1 if the tile cannot be reached inside the region
+     */
+    int cost(int x, int y) {
+        int index = index(x, y);
+        return stamp[index] == generation ? cost[index] : -1;
+    }
+
+    private int index(int x, int y) {
+        return ((y - baseY) << Regions.SHIFT) | (x - baseX);
+    }
+}
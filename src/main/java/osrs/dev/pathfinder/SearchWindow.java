@@ -0,0 +1,130 @@
+package osrs.dev.pathfinder;
+
+import java.util.Arrays;
+
+/**
+ * Square window of tiles on one plane holding the per-tile state of a search.
+ * The arrays are allocated once and reused: a tile counts as visited only if its stamp
+ * equals the current generation, so starting a new search just bumps the generation.
+ * Tiles are addressed by their local index {@code (y - originY) * size + (x - originX)}.
+ */
+final class SearchWindow {
+    final int size;
+    final int shift;
+    final int mask;
+    /**
+     * Local index of the tile each visited tile was reached from, -1 for the start tile.
+     */
+    final int[] parent;
+    private final int[] stamp;
+    private int generation;
+
+    int originX;
+    int originY;
+    int plane;
+
+    /**
+     * Creates a window.
+     *
+     * @param size the side length in tiles, must be a power of two
+     */
+    SearchWindow(int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Search window size must be a power of two: " + size);
+        }
+        this.size = size;
+        this.shift = Integer.numberOfTrailingZeros(size);
+        this.mask = size - 1;
+        this.parent = new int[size * size];
+        this.stamp = new int[size * size];
+    }
+
+    /**
+     * Starts a new search centred between two tiles.
+     *
+     * @return false if the tiles are too far apart to both fit in the window
+     */
+    boolean reset(int ax, int ay, int bx, int by, int plane) {
+        if (Math.abs(ax - bx) >= size || Math.abs(ay - by) >= size) {
+            return false;
+        }
+        // Split the slack around the two tiles so both land in [0, size - 1]
+        this.originX = Math.min(ax, bx) - ((size - 1 - Math.abs(ax - bx)) >> 1);
+        this.originY = Math.min(ay, by) - ((size - 1 - Math.abs(ay - by)) >> 1);
+        this.plane = plane;
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        return true;
+    }
+
+    boolean contains(int x, int y) {
+        return ((x - originX) & ~mask) == 0 && ((y - originY) & ~mask) == 0;
+    }
+
+    int index(int x, int y) {
+        return ((y - originY) << shift) | (x - originX);
+    }
+
+    int x(int index) {
+        return originX + (index & mask);
+    }
+
+    int y(int index) {
+        return originY + (index >>> shift);
+    }
+
+    boolean isVisited(int index) {
+        return stamp[index] == generation;
+    }
+
+    /**
+     * Marks a tile visited.
+     *
+     * @return true if the tile was not visited before in this search
+     */
+    boolean visit(int index) {
+        if (stamp[index] == generation) {
+            return false;
+        }
+        stamp[index] = generation;
+        return true;
+    }
+
+    int pack(int index) {
+        return Coords.pack(x(index), y(index), plane);
+    }
+
+    /**
+     * Builds the packed path from the start tile to a visited tile by following parents.
+     */
+    int[] path(int index) {
+        int length = 0;
+        for (int i = index; i != -1; i = parent[i]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int i = index; i != -1; i = parent[i]) {
+            path[--length] = pack(i);
+        }
+        return path;
+    }
+
+    /**
+     * Builds the packed path from a visited tile to the tile its parents lead to, for searches
+     * run backwards from the goals, where each tile's parent is the next step towards a goal.
+     */
+    int[] pathToRoot(int index) {
+        int length = 0;
+        for (int i = index; i != -1; i = parent[i]) {
+            length++;
+        }
+        int[] path = new int[length];
+        length = 0;
+        for (int i = index; i != -1; i = parent[i]) {
+            path[length++] = pack(i);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,301 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.tiletypemap.TileTypeMap;
+import osrs.dev.util.Regions;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Spatial index over a tile type layer for finding the tiles of one type near a point, such as
+ * the closest kelp water.
+ * For each type it keeps the sorted keys of the regions holding that type and, per region, the
+ * sorted local indices of its tiles of that type. Queries visit only regions holding the type
+ * and, inside a region, only the rows that can hold a match, so their work follows the number
+ * of tiles found rather than the area covered. Distances are straight line distances.
+ * Immutable and safe to share between threads.
+ */
+public class TileTypeIndex {
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Sorted keys of the regions holding each type, see {@link RegionGraph#regionKey(int, int)}.
+     */
+    private final int[][] regionKeys;
+    /**
+     * First tile of each region in {@link #tiles}, with one extra closing entry, per type.
+     */
+    private final int[][] regionStarts;
+    /**
+     * Local index {@code (y << 6) | x} of every tile of each type, sorted within each region.
+     */
+    private final char[][] tiles;
+
+    private TileTypeIndex(int[][] regionKeys, int[][] regionStarts, char[][] tiles) {
+        this.regionKeys = regionKeys;
+        this.regionStarts = regionStarts;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Indexes the tile types of a set of regions, in parallel across regions.
+     *
+     * @param map       the tile type map
+     * @param regionIds the regions to index, see {@link Regions#id}
+     * @param planes    the number of planes to index, starting at plane 0
+     * @return the index
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws ExecutionException   if a worker failed
+     */
+    public static TileTypeIndex build(TileTypeMap map, Collection<Integer> regionIds, int planes) throws InterruptedException, ExecutionException {
+        int dataBits = map.getIndexer().getMaxDataBitIndex() + 1;
+        int types = 1 << dataBits;
+        int[] keys = new int[new HashSet<>(regionIds).size() * planes];
+        int slots = 0;
+        for (int regionId : new TreeSet<>(regionIds)) {
+            for (int plane = 0; plane < planes; plane++) {
+                keys[slots++] = RegionGraph.regionKey(regionId, plane);
+            }
+        }
+        Arrays.sort(keys);
+
+        char[][][] found = new char[slots][][];
+        Regions.forEachParallel(slots, slot -> found[slot] = scan(map.cursor(), keys[slot], dataBits));
+
+        int[][] regionKeys = new int[types][];
+        int[][] regionStarts = new int[types][];
+        char[][] tiles = new char[types][];
+        for (int type = 0; type < types; type++) {
+            int regions = 0;
+            int count = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                if (found[slot][type].length > 0) {
+                    regions++;
+                    count += found[slot][type].length;
+                }
+            }
+            regionKeys[type] = new int[regions];
+            regionStarts[type] = new int[regions + 1];
+            tiles[type] = new char[count];
+            int region = 0;
+            count = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                char[] local = found[slot][type];
+                if (local.length > 0) {
+                    regionKeys[type][region] = keys[slot];
+                    regionStarts[type][region++] = count;
+                    System.arraycopy(local, 0, tiles[type], count, local.length);
+                    count += local.length;
+                }
+            }
+            regionStarts[type][regions] = count;
+        }
+        return new TileTypeIndex(regionKeys, regionStarts, tiles);
+    }
+
+    /**
+     * Lists the tiles of each type in a region, reading each row as one word per data bit.
+     */
+    private static char[][] scan(TileTypeMap map, int regionKey, int dataBits) {
+        int regionId = regionKey & 0xFFFF;
+        int plane = regionKey >>> 16;
+        int baseX = Regions.baseX(regionId);
+        int baseY = Regions.baseY(regionId);
+        int types = 1 << dataBits;
+        char[][] lists = new char[types][16];
+        int[] counts = new int[types];
+        long[] words = new long[dataBits];
+        for (int y = 0; y < Regions.SIZE; y++) {
+            long any = 0;
+            for (int bit = 0; bit < dataBits; bit++) {
+                words[bit] = map.getDataBitWord(baseX, baseY + y, plane, bit);
+                any |= words[bit];
+            }
+            while (any != 0) {
+                int x = Long.numberOfTrailingZeros(any);
+                any &= any - 1;
+                int type = 0;
+                for (int bit = 0; bit < dataBits; bit++) {
+                    type |= (int) (words[bit] >>> x & 1) << bit;
+                }
+                if (counts[type] == lists[type].length) {
+                    lists[type] = Arrays.copyOf(lists[type], counts[type] * 2);
+                }
+                lists[type][counts[type]++] = (char) ((y << Regions.SHIFT) | x);
+            }
+        }
+        for (int type = 0; type < types; type++) {
+            lists[type] = Arrays.copyOf(lists[type], counts[type]);
+        }
+        return lists;
+    }
+
+    /**
+     * Counts the indexed tiles of a type.
+     */
+    public int count(byte type) {
+        return type <= 0 || type >= tiles.length ? 0 : tiles[type].length;
+    }
+
+    /**
+     * Finds the tiles of a type within a distance of a tile.
+     *
+     * @param type   the tile type, see {@link osrs.dev.tiletypemap.TileType}
+     * @param radius the largest straight line distance to include
+     * @return the packed tiles, see {@link Coords}, nearest first
+     */
+    public int[] withinRadius(byte type, int x, int y, int plane, int radius) {
+        if (count(type) == 0 || radius < 0) {
+            return NONE;
+        }
+        long radiusSquared = (long) radius * radius;
+        Matches matches = new Matches(Integer.MAX_VALUE);
+        // Clamp to the region grid in long math, so large radii neither overflow nor loop over empty regions
+        int minRegionX = regionIndex((long) x - radius);
+        int maxRegionX = regionIndex((long) x + radius);
+        int minRegionY = regionIndex((long) y - radius);
+        int maxRegionY = regionIndex((long) y + radius);
+        int minY = (int) Math.max((long) y - radius, Integer.MIN_VALUE);
+        int maxY = (int) Math.min((long) y + radius, Integer.MAX_VALUE);
+        for (int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+            for (int regionY = minRegionY; regionY <= maxRegionY; regionY++) {
+                collect(type, regionX, regionY, plane, x, y, minY, maxY, radiusSquared, matches);
+            }
+        }
+        return matches.sorted();
+    }
+
+    /**
+     * Gets the index of the region column or row holding a coordinate, clamped to 0..0xFF.
+     */
+    private static int regionIndex(long coordinate) {
+        return (int) Math.min(Math.max(coordinate >> Regions.SHIFT, 0), 0xFF);
+    }
+
+    /**
+     * Finds the tiles of a type nearest to a tile.
+     * Regions are visited in rings around the tile's region, and the search stops once no
+     * region in the next ring can hold a tile nearer than the furthest of the best found.
+     *
+     * @param type        the tile type, see {@link osrs.dev.tiletypemap.TileType}
+     * @param count       the number of tiles to find
+     * @param maxDistance the largest straight line distance to search
+     * @return up to {@code count} packed tiles, see {@link Coords}, nearest first
+     */
+    public int[] nearest(byte type, int x, int y, int plane, int count, int maxDistance) {
+        if (count(type) == 0 || count <= 0) {
+            return NONE;
+        }
+        long maxSquared = (long) maxDistance * maxDistance;
+        Matches matches = new Matches(count);
+        int centreX = x >> Regions.SHIFT;
+        int centreY = y >> Regions.SHIFT;
+        for (int ring = 0; ; ring++) {
+            // Every tile in this ring lies at least this far away on one axis
+            long bound = Math.max(0, (long) (ring - 1) * Regions.SIZE + 1);
+            if (ring > 0xFF || bound * bound > maxSquared || (matches.isFull() && bound * bound > matches.worst())) {
+                break;
+            }
+            for (int regionX = centreX - ring; regionX <= centreX + ring; regionX++) {
+                int step = regionX == centreX - ring || regionX == centreX + ring ? 1 : Math.max(ring * 2, 1);
+                for (int regionY = centreY - ring; regionY <= centreY + ring; regionY += step) {
+                    collect(type, regionX, regionY, plane, x, y, Integer.MIN_VALUE, Integer.MAX_VALUE, maxSquared, matches);
+                }
+            }
+        }
+        return matches.sorted();
+    }
+
+    /**
+     * Adds the tiles of a type in one region and row range within a distance of a tile.
+     */
+    private void collect(byte type, int regionX, int regionY, int plane, int x, int y, int minY, int maxY,
+                         long maxSquared, Matches matches) {
+        if (regionX < 0 || regionX > 0xFF || regionY < 0 || regionY > 0xFF) {
+            return;
+        }
+        int regionId = (regionX << 8) | regionY;
+        int slot = Arrays.binarySearch(regionKeys[type], RegionGraph.regionKey(regionId, plane));
+        if (slot < 0) {
+            return;
+        }
+        int baseX = Regions.baseX(regionId);
+        int baseY = Regions.baseY(regionId);
+        char[] local = tiles[type];
+        int start = regionStarts[type][slot];
+        int end = regionStarts[type][slot + 1];
+        // Narrow to the rows in range, the local indices being sorted by row
+        int fromRow = (int) Math.max((long) minY - baseY, 0);
+        int toRow = (int) Math.min((long) maxY - baseY, Regions.SIZE - 1);
+        if (fromRow > toRow) {
+            return;
+        }
+        int from = lowerBound(local, start, end, (char) (fromRow << Regions.SHIFT));
+        int to = lowerBound(local, from, end, (char) ((toRow + 1) << Regions.SHIFT));
+        for (int i = from; i < to; i++) {
+            int tx = baseX + (local[i] & (Regions.SIZE - 1));
+            int ty = baseY + (local[i] >>> Regions.SHIFT);
+            long dx = tx - x;
+            long dy = ty - y;
+            long squared = dx * dx + dy * dy;
+            if (squared <= maxSquared) {
+                matches.offer(squared, Coords.pack(tx, ty, plane));
+            }
+        }
+    }
+
+    private static int lowerBound(char[] values, int from, int to, char key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (values[mid] < key) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Tiles found by a query with their squared distances, keeping only the nearest up to a limit.
+     */
+    private static final class Matches {
+        private final int limit;
+        /**
+         * Furthest match on top, entries being the squared distance above the packed tile.
+         */
+        private final PriorityQueue<long[]> heap = new PriorityQueue<>(
+                (a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(b[1], a[1]));
+
+        private Matches(int limit) {
+            this.limit = limit;
+        }
+
+        private boolean isFull() {
+            return heap.size() >= limit;
+        }
+
+        private long worst() {
+            return heap.peek()[0];
+        }
+
+        private void offer(long squared, int tile) {
+            if (isFull()) {
+                long[] top = heap.peek();
+                if (squared > top[0] || (squared == top[0] && tile >= top[1])) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(new long[]{squared, tile});
+        }
+
+        private int[] sorted() {
+            int[] result = new int[heap.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = (int) heap.poll()[1];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package osrs.dev.pathfinder;
+
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Transports such as ladders and stairs, as edges from the tiles a transport is used from to
+ * the tile it leads to. Built by {@link TransportLayerBuilder} while dumping and persisted next
+ * to the map.
+ * Edges are stored grouped by source tile in compressed rows, and an open addressing table over
+ * the source tiles finds a tile's edges in constant time, so searches can check every tile they
+ * expand. Immutable and safe to share between threads.
+ */
+public class TransportLayer {
+    private static final int MAGIC = 0x52545248; // "RTRH"
+    private static final int VERSION = 1;
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Packed source tile of each row, see {@link Coords}.
+     */
+    private final int[] sources;
+    /**
+     * First edge of each source, with one extra entry closing the last source's edges.
+     */
+    private final int[] edgeStarts;
+    private final int[] destinations;
+    private final int[] objectIds;
+    /**
+     * Open addressing table from source tile to its row plus one, 0 marking an empty bucket.
+     */
+    private final int[] table;
+    private final int shift;
+
+    TransportLayer(int[] sources, int[] edgeStarts, int[] destinations, int[] objectIds) {
+        this.sources = sources;
+        this.edgeStarts = edgeStarts;
+        this.destinations = destinations;
+        this.objectIds = objectIds;
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(sources.length * 2 - 1, 1));
+        this.table = new int[1 << bits];
+        this.shift = 32 - bits;
+        for (int row = 0; row < sources.length; row++) {
+            int bucket = bucket(sources[row]);
+            while (table[bucket] != 0) {
+                bucket = (bucket + 1) & (table.length - 1);
+            }
+            table[bucket] = row + 1;
+        }
+    }
+
+    /**
+     * Gets the number of tiles with at least one transport.
+     */
+    public int getSourceCount() {
+        return sources.length;
+    }
+
+    public int getTransportCount() {
+        return destinations.length;
+    }
+
+    /**
+     * Finds the row of a tile's transports.
+     *
+     * @param tile the packed tile, see {@link Coords}
+     * @return the row, or -1 if no transport leaves the tile
+     */
+    public int row(int tile) {
+        int bucket = bucket(tile);
+        int row;
+        while ((row = table[bucket]) != 0) {
+            if (sources[row - 1] == tile) {
+                return row - 1;
+            }
+            bucket = (bucket + 1) & (table.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the first transport of a row found by {@link #row}.
+     */
+    public int edgeStart(int row) {
+        return edgeStarts[row];
+    }
+
+    /**
+     * Gets the transport after the last transport of a row.
+     */
+    public int edgeEnd(int row) {
+        return edgeStarts[row + 1];
+    }
+
+    /**
+     * Gets the packed tile a transport leads to.
+     */
+    public int destination(int edge) {
+        return destinations[edge];
+    }
+
+    /**
+     * Gets the id of the object a transport uses.
+     */
+    public int objectId(int edge) {
+        return objectIds[edge];
+    }
+
+    /**
+     * Gets the packed tiles the transports leaving a tile lead to.
+     *
+     * @return the destinations, empty if no transport leaves the tile
+     */
+    public int[] destinations(int x, int y, int plane) {
+        int row = row(Coords.pack(x, y, plane));
+        if (row < 0) {
+            return NONE;
+        }
+        int[] tiles = new int[edgeStarts[row + 1] - edgeStarts[row]];
+        System.arraycopy(destinations, edgeStarts[row], tiles, 0, tiles.length);
+        return tiles;
+    }
+
+    private int bucket(int tile) {
+        return (tile * 0x9E3779B9) >>> shift;
+    }
+
+    /**
+     * Saves the transports, gzipped if the path ends with .gz.
+     *
+     * @param filePath the file to write
+     * @throws IOException if writing fails
+     */
+    public void save(String filePath) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filePath);
+             OutputStream out = filePath.endsWith(".gz") ? new GZIPOutputStream(fos) : fos;
+             DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            writeArray(dos, sources);
+            writeArray(dos, edgeStarts);
+            writeArray(dos, destinations);
+            writeArray(dos, objectIds);
+        }
+    }
+
+    /**
+     * Loads transports written by {@link #save}, gunzipping them if the path ends with .gz.
+     *
+     * @param filePath the file to read
+     * @return the transports
+     * @throws IOException if reading fails or the file does not hold transports
+     */
+    public static TransportLayer load(String filePath) throws IOException {
+        try (FileInputStream fis = new FileInputStream(filePath);
+             InputStream in = filePath.endsWith(".gz") ? new GZIPInputStream(fis) : fis;
+             DataInputStream dis = new DataInputStream(new BufferedInputStream(in))) {
+            if (dis.readInt() != MAGIC) {
+                throw new IOException("Not a transport layer: " + filePath);
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported transport layer version " + version);
+            }
+            return new TransportLayer(readArray(dis), readArray(dis), readArray(dis), readArray(dis));
+        }
+    }
+
+    private static void writeArray(DataOutputStream dos, int[] values) throws IOException {
+        dos.writeInt(values.length);
+        for (int value : values) {
+            dos.writeInt(value);
+        }
+    }
+
+    private static int[] readArray(DataInputStream dis) throws IOException {
+        int[] values = new int[dis.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = dis.readInt();
+        }
+        return values;
+    }
+}
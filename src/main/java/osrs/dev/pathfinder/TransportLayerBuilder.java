@@ -0,0 +1,145 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects transport objects while a cache is dumped and resolves them into a
+ * {@link TransportLayer} once the collision map is written.
+ * An object becomes a transport through its menu actions: "Climb-up" leads to the plane above
+ * and "Climb-down" to the plane below, landing next to the same spot, while "Climb", found on
+ * ladders and stairs between two floors, leads to both. Objects whose destination
+ * is decided by the game server rather than the cache, such as most "Enter" actions, are left
+ * out. Each transport is usable from every tile of or next to its object that can be moved
+ * from, and leads to the tile of or next to the object on the destination plane closest to the
+ * object's centre.
+ * {@link #add} is thread-safe so regions can be dumped in parallel.
+ */
+public final class TransportLayerBuilder {
+    private static final int MAX_PLANE = 3;
+
+    /**
+     * Collected objects as (object id, x, y, plane, width, length, destination plane) records.
+     */
+    private final List<int[]> objects = new ArrayList<>();
+
+    /**
+     * Collects an object if one of its actions leads to another plane.
+     *
+     * @param objectId the object id
+     * @param actions  the object's menu actions, entries may be {@code null}
+     * @param sizeX    the width of the object as placed, after rotation
+     * @param sizeY    the length of the object as placed, after rotation
+     * @return {@code true} if the object is a transport
+     */
+    public boolean add(int objectId, String[] actions, int x, int y, int plane, int sizeX, int sizeY) {
+        if (actions == null) {
+            return false;
+        }
+        boolean added = false;
+        for (String action : actions) {
+            if (action == null) {
+                continue;
+            }
+            boolean up = action.equalsIgnoreCase("Climb-up") || action.equalsIgnoreCase("Climb");
+            boolean down = action.equalsIgnoreCase("Climb-down") || action.equalsIgnoreCase("Climb");
+            if (up && plane < MAX_PLANE) {
+                collect(objectId, x, y, plane, sizeX, sizeY, plane + 1);
+                added = true;
+            }
+            if (down && plane > 0) {
+                collect(objectId, x, y, plane, sizeX, sizeY, plane - 1);
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    private void collect(int objectId, int x, int y, int plane, int sizeX, int sizeY, int destinationPlane) {
+        synchronized (objects) {
+            objects.add(new int[]{objectId, x, y, plane, Math.max(sizeX, 1), Math.max(sizeY, 1), destinationPlane});
+        }
+    }
+
+    /**
+     * Resolves the collected objects against a collision map.
+     *
+     * @param map the collision map the objects were dumped into
+     * @return the transports
+     */
+    public TransportLayer build(CollisionMap map) {
+        CollisionMap cursor = map.cursor();
+        // Edges as (source, destination, object id) keyed by source for grouping
+        List<long[]> edges = new ArrayList<>();
+        synchronized (objects) {
+            for (int[] object : objects) {
+                int objectId = object[0];
+                int x = object[1];
+                int y = object[2];
+                int plane = object[3];
+                int sizeX = object[4];
+                int sizeY = object[5];
+                int destination = closestOpen(cursor, x, y, sizeX, sizeY, object[6]);
+                if (destination == -1) {
+                    continue;
+                }
+                for (int tx = x - 1; tx <= x + sizeX; tx++) {
+                    for (int ty = y - 1; ty <= y + sizeY; ty++) {
+                        if (cursor.all(tx, ty, plane) != 0) {
+                            edges.add(new long[]{Coords.pack(tx, ty, plane), destination, objectId});
+                        }
+                    }
+                }
+            }
+        }
+        edges.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        int[] sources = new int[edges.size()];
+        int[] edgeStarts = new int[edges.size() + 1];
+        int[] destinations = new int[edges.size()];
+        int[] objectIds = new int[edges.size()];
+        int rows = 0;
+        int count = 0;
+        for (int i = 0; i < edges.size(); i++) {
+            long[] edge = edges.get(i);
+            if (i > 0 && edge[0] == edges.get(i - 1)[0] && edge[1] == edges.get(i - 1)[1]) {
+                continue;
+            }
+            if (rows == 0 || sources[rows - 1] != (int) edge[0]) {
+                sources[rows] = (int) edge[0];
+                edgeStarts[rows++] = count;
+            }
+            destinations[count] = (int) edge[1];
+            objectIds[count++] = (int) edge[2];
+        }
+        edgeStarts[rows] = count;
+        return new TransportLayer(Arrays.copyOf(sources, rows), Arrays.copyOf(edgeStarts, rows + 1),
+                Arrays.copyOf(destinations, count), Arrays.copyOf(objectIds, count));
+    }
+
+    /**
+     * Finds the tile of or next to an object's footprint closest to its centre that can be moved from.
+     *
+     * @return the packed tile, or -1 if there is none
+     */
+    private static int closestOpen(CollisionMap map, int x, int y, int sizeX, int sizeY, int plane) {
+        // Doubled coordinates keep the centre of even sized objects on the grid
+        int centreX = x * 2 + sizeX - 1;
+        int centreY = y * 2 + sizeY - 1;
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int tx = x - 1; tx <= x + sizeX; tx++) {
+            for (int ty = y - 1; ty <= y + sizeY; ty++) {
+                int distance = Math.abs(tx * 2 - centreX) + Math.abs(ty * 2 - centreY);
+                if (distance < bestDistance && map.all(tx, ty, plane) != 0) {
+                    best = Coords.pack(tx, ty, plane);
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,302 @@
+package osrs.dev.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.dumper.ConfigurableCoordIndexer;
+import osrs.dev.dumper.ICoordIndexer;
+import osrs.dev.pathfinder.Coords;
+import osrs.dev.pathfinder.PathResult;
+import osrs.dev.pathfinder.PathService;
+import osrs.dev.tiletypemap.TileTypeMap;
+import osrs.dev.tiletypemap.TileTypeMapFactory;
+import osrs.dev.util.LatencyRecorder;
+import osrs.dev.util.Regions;
+import osrs.dev.util.VirtualThreads;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves collision and tile type lookups over HTTP, for services that cannot load the maps
+ * themselves.
+ * Request and response bodies are binary, big-endian as written by {@link DataOutputStream},
+ * with tiles packed as in {@link Coords}:
+ * <ul>
+ *   <li>{@code POST /flags}: a tile count and the tiles; one byte of movement flags per tile,
+ *   see {@link CollisionMap#all}</li>
+ *   <li>{@code POST /tiletypes}: a tile count and the tiles; one tile type byte per tile</li>
+ *   <li>{@code POST /region}: a region id and a plane; the 4096 flag bytes of the region
+ *   followed by its 4096 tile type bytes, row by row from the south-west tile. Regions the
+ *   maps' layouts do not cover are rejected</li>
+ *   <li>{@code POST /paths}: a request count and a start and goal tile per request; per
+ *   request the status ordinal as a byte, see {@link PathResult.Status}, the tile count and
+ *   the tiles of the path</li>
+ *   <li>{@code GET /metrics}: latency percentiles per endpoint as text</li>
+ * </ul>
+ * Malformed requests get a 400 response with a text message. Each exchange runs on its own
+ * virtual thread where the runtime has them.
+ */
+@Slf4j
+public class QueryServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8787;
+    /**
+     * Largest number of tiles or path requests accepted in one request.
+     */
+    public static final int MAX_BATCH = 1 << 20;
+    private static final int TILES = Regions.SIZE * Regions.SIZE;
+
+    private final CollisionMap collisionMap;
+    private final TileTypeMap tileTypeMap;
+    private final PathService pathService;
+    private final long pathTimeoutNanos;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, LatencyRecorder> latencies = new LinkedHashMap<>();
+
+    /**
+     * Starts a server.
+     *
+     * @param address          the address to listen on, port 0 picking a free port
+     * @param collisionMap     the collision map to serve
+     * @param tileTypeMap      the tile type map to serve, or {@code null} to serve no tile types
+     * @param pathTimeoutNanos the time each path search may take
+     * @throws IOException if the server cannot bind to the address
+     */
+    public QueryServer(InetSocketAddress address, CollisionMap collisionMap, TileTypeMap tileTypeMap, long pathTimeoutNanos) throws IOException {
+        this.collisionMap = collisionMap;
+        this.tileTypeMap = tileTypeMap;
+        this.pathService = new PathService(collisionMap);
+        this.pathTimeoutNanos = pathTimeoutNanos;
+        this.server = HttpServer.create(address, 0);
+        this.executor = VirtualThreads.newPerTaskExecutor();
+        server.setExecutor(executor);
+        handle("/flags", this::flags);
+        handle("/tiletypes", this::tileTypes);
+        handle("/region", this::region);
+        handle("/paths", this::paths);
+        server.createContext("/metrics", this::metrics);
+        server.start();
+        log.info("Query server listening on {}", getAddress());
+    }
+
+    /**
+     * Serves a collision map and an optional tile type map on the loopback interface.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java osrs.dev.server.QueryServer <collision map> [tile type map] [port]");
+            System.exit(1);
+        }
+        CollisionMap collisionMap = CollisionMapFactory.load(args[0]);
+        TileTypeMap tileTypeMap = args.length > 1 ? TileTypeMapFactory.load(args[1]) : null;
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PORT;
+        QueryServer server = new QueryServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                collisionMap, tileTypeMap, TimeUnit.SECONDS.toNanos(5));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Gets the latency of an endpoint, such as {@code /paths}, from reading the request to
+     * writing the response.
+     *
+     * @return the latency, or {@code null} if there is no such endpoint
+     */
+    public LatencyRecorder getLatency(String endpoint) {
+        return latencies.get(endpoint);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        pathService.close();
+    }
+
+    /**
+     * Reads a binary request body and writes a binary response.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        void handle(DataInputStream in, DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A request that cannot be answered, reported to the client as a 400 response.
+     */
+    private static final class BadRequestException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private BadRequestException(String message) {
+            super(message);
+        }
+    }
+
+    private void handle(String path, Endpoint endpoint) {
+        LatencyRecorder latency = new LatencyRecorder();
+        latencies.put(path, latency);
+        server.createContext(path, exchange -> {
+            long start = System.nanoTime();
+            try {
+                if (!"POST".equals(exchange.getRequestMethod())) {
+                    respond(exchange, 405, "Use POST");
+                    return;
+                }
+                byte[] body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = in.readAllBytes();
+                }
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+                     DataOutputStream out = new DataOutputStream(bytes)) {
+                    endpoint.handle(in, out);
+                } catch (EOFException e) {
+                    respond(exchange, 400, "Request body too short");
+                    return;
+                } catch (BadRequestException e) {
+                    respond(exchange, 400, e.getMessage());
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                exchange.sendResponseHeaders(200, bytes.size());
+                try (OutputStream out = exchange.getResponseBody()) {
+                    bytes.writeTo(out);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to answer {}", path, e);
+                respond(exchange, 500, String.valueOf(e.getMessage()));
+            } finally {
+                exchange.close();
+                latency.record(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private void flags(DataInputStream in, DataOutputStream out) throws IOException {
+        int count = readCount(in);
+        CollisionMap map = collisionMap.cursor();
+        for (int i = 0; i < count; i++) {
+            int tile = in.readInt();
+            out.writeByte(map.all(Coords.x(tile), Coords.y(tile), Coords.plane(tile)));
+        }
+    }
+
+    private void tileTypes(DataInputStream in, DataOutputStream out) throws IOException {
+        TileTypeMap map = requireTileTypes();
+        int count = readCount(in);
+        for (int i = 0; i < count; i++) {
+            int tile = in.readInt();
+            out.writeByte(map.getTileType(Coords.x(tile), Coords.y(tile), Coords.plane(tile)));
+        }
+    }
+
+    private void region(DataInputStream in, DataOutputStream out) throws IOException {
+        int regionId = in.readInt();
+        int plane = in.readInt();
+        if (regionId < 0 || regionId > 0xFFFF || plane < 0 || plane > 3) {
+            throw new BadRequestException("Invalid region " + regionId + " on plane " + plane);
+        }
+        int baseX = Regions.baseX(regionId);
+        int baseY = Regions.baseY(regionId);
+        // Tiles outside a layout would wrap onto other tiles rather than read as empty
+        if (!covers(collisionMap.getIndexer(), baseX, baseY, plane)
+                || (tileTypeMap != null && !covers(tileTypeMap.getIndexer(), baseX, baseY, plane))) {
+            throw new BadRequestException("Region " + regionId + " on plane " + plane + " is outside the map");
+        }
+        byte[] flags = new byte[TILES];
+        byte[] types = new byte[TILES];
+        CollisionMap collision = collisionMap.cursor();
+        TileTypeMap tileTypes = tileTypeMap == null ? null : tileTypeMap.cursor();
+        for (int y = 0; y < Regions.SIZE; y++) {
+            for (int x = 0; x < Regions.SIZE; x++) {
+                int tile = (y << Regions.SHIFT) | x;
+                flags[tile] = collision.all(baseX + x, baseY + y, plane);
+                if (tileTypes != null) {
+                    types[tile] = tileTypes.getTileType(baseX + x, baseY + y, plane);
+                }
+            }
+        }
+        out.write(flags);
+        out.write(types);
+    }
+
+    private void paths(DataInputStream in, DataOutputStream out) throws IOException {
+        int count = readCount(in);
+        int[] starts = new int[count];
+        int[] goals = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = in.readInt();
+            goals[i] = in.readInt();
+        }
+        for (PathResult result : pathService.findAll(starts, goals, pathTimeoutNanos)) {
+            out.writeByte(result.getStatus().ordinal());
+            out.writeInt(result.getPath().length);
+            for (int tile : result.getPath()) {
+                out.writeInt(tile);
+            }
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, LatencyRecorder> entry : latencies.entrySet()) {
+            text.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        text.append("path service: ").append(pathService).append('\n');
+        try {
+            respond(exchange, 200, text.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private TileTypeMap requireTileTypes() throws BadRequestException {
+        if (tileTypeMap == null) {
+            throw new BadRequestException("No tile type map loaded");
+        }
+        return tileTypeMap.cursor();
+    }
+
+    /**
+     * Checks if a map layout holds every tile of the region with a given south-west tile.
+     */
+    private static boolean covers(ICoordIndexer indexer, int baseX, int baseY, int plane) {
+        if (!(indexer instanceof ConfigurableCoordIndexer)) {
+            return true;
+        }
+        ConfigurableCoordIndexer layout = (ConfigurableCoordIndexer) indexer;
+        return baseX >= layout.getMinX() && baseX + Regions.SIZE - 1 <= layout.getMaxX()
+                && baseY >= layout.getMinY() && baseY + Regions.SIZE - 1 <= layout.getMaxY()
+                && plane >= layout.getMinPlane() && plane <= layout.getMaxPlane();
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_BATCH) {
+            throw new BadRequestException("Batch size " + count + " outside 0.." + MAX_BATCH);
+        }
+        return count;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
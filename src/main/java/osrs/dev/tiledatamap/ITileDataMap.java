@@ -22,6 +22,38 @@ public interface ITileDataMap {
      */
     boolean isDataBitSet(int x, int y, int plane, int dataBitIndex);
 
+    /**
+     * Gets one data bit for a run of 64 tiles along the x axis as a bitboard.
+     * Bit {@code i} of the result is the data bit of the tile at {@code x + i}.
+     *
+     * @param x            the x coordinate of the first tile
+     * @param y            the y coordinate
+     * @param plane        the plane
+     * @param dataBitIndex the bit index to read
+     * @return the data bits of the 64 tiles
+     */
+    default long getDataBitWord(int x, int y, int plane, int dataBitIndex) {
+        long word = 0L;
+        for (int i = 0; i < 64; i++) {
+            if (isDataBitSet(x + i, y, plane, dataBitIndex)) {
+                word |= 1L << i;
+            }
+        }
+        return word;
+    }
+
+    /**
+     * Creates a caller-owned reader over this map that remembers where its last lookup
+     * landed, making runs of neighbouring lookups cheaper. Cursors are not thread-safe;
+     * hold one per search or render pass. Implementations without such a fast path
+     * return the map itself.
+     *
+     * @return a cursor over this map
+     */
+    default ITileDataMap cursor() {
+        return this;
+    }
+
     /**
      * Gets all data bits as an integer for the specified coordinate.
      *
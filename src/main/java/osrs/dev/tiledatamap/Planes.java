@@ -0,0 +1,92 @@
+package osrs.dev.tiledatamap;
+
+import osrs.dev.dumper.ConfigurableCoordIndexer;
+
+import java.util.Arrays;
+
+/**
+ * Plane selection masks used for plane-selective loading of tile data maps.
+ * Bit n of a mask selects plane n.
+ */
+public final class Planes {
+    /**
+     * Mask selecting every plane.
+     */
+    public static final int ALL = -1;
+
+    private Planes() {}
+
+    /**
+     * Builds a mask selecting the given planes.
+     *
+     * @param planes the planes to select
+     * @return the plane mask
+     */
+    public static int of(int... planes) {
+        int mask = 0;
+        for (int plane : planes) {
+            if (plane < 0 || plane > 31) {
+                throw new IllegalArgumentException("Plane " + plane + " cannot be represented in a plane mask");
+            }
+            mask |= 1 << plane;
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if a mask selects a plane.
+     *
+     * @param planes the plane mask
+     * @param plane  the plane
+     * @return true if the plane is selected
+     */
+    public static boolean contains(int planes, int plane) {
+        return plane >= 0 && plane <= 31 && (planes & (1 << plane)) != 0;
+    }
+
+    /**
+     * Checks if a mask selects every plane the indexer can address.
+     *
+     * @param indexer the indexer of the map being loaded
+     * @param planes  the plane mask
+     * @return true if no filtering is needed
+     */
+    public static boolean coversAll(ConfigurableCoordIndexer indexer, int planes) {
+        for (int plane = indexer.getMinPlane(); plane <= indexer.getMaxPlane(); plane++) {
+            if (!contains(planes, plane)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the bitmap index ranges holding the data of the selected planes.
+     * The plane bits sit directly below the data marker bits and a packed index carries at
+     * most one marker bit, so every data bit yields one contiguous range per plane.
+     *
+     * @param indexer the indexer of the map being loaded
+     * @param planes  the plane mask
+     * @return flattened, ascending [start, end) pairs of unsigned bitmap indices
+     */
+    public static long[] indexRanges(ConfigurableCoordIndexer indexer, int planes) {
+        int dataBits = indexer.getMaxDataBitIndex() + 1;
+        int planeCount = indexer.getPlaneMask() + 1;
+        long planeSpan = 1L << indexer.getPlaneShift();
+
+        long[] ranges = new long[dataBits * planeCount * 2];
+        int n = 0;
+        for (int dataBit = 0; dataBit < dataBits; dataBit++) {
+            long markerBase = dataBit == 0 ? 0 : 1L << (indexer.getTotalCoordBits() + dataBit - 1);
+            for (int offset = 0; offset < planeCount; offset++) {
+                if (!contains(planes, indexer.getPlaneBase() + offset)) {
+                    continue;
+                }
+                long start = markerBase | ((long) offset << indexer.getPlaneShift());
+                ranges[n++] = start;
+                ranges[n++] = start + planeSpan;
+            }
+        }
+        return Arrays.copyOf(ranges, n);
+    }
+}
@@ -0,0 +1,76 @@
+package osrs.dev.tiledatamap.roaring;
+
+import osrs.dev.dumper.ConfigurableCoordIndexer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Optional header describing a non-default coordinate layout in front of a serialized RoaringBitmap.
+ * Maps using the default world layout are written without it, so existing files stay unchanged.
+ * The magic cannot collide with the little-endian cookie a serialized RoaringBitmap starts with.
+ */
+final class LayoutHeader {
+    private static final int MAGIC = 0x52544C48; // "RTLH"
+    private static final int VERSION = 1;
+
+    private LayoutHeader() {}
+
+    /**
+     * Checks if an indexer uses the same bit layout as another, ignoring validation settings.
+     */
+    static boolean sameLayout(ConfigurableCoordIndexer a, ConfigurableCoordIndexer b) {
+        return a.getMaxBitCapacity() == b.getMaxBitCapacity()
+                && a.getXMask() == b.getXMask() && a.getXBase() == b.getXBase()
+                && a.getYMask() == b.getYMask() && a.getYBase() == b.getYBase()
+                && a.getPlaneMask() == b.getPlaneMask() && a.getPlaneBase() == b.getPlaneBase();
+    }
+
+    /**
+     * Writes the header for an indexer.
+     *
+     * @param dos     the output stream
+     * @param indexer the layout to describe
+     * @throws IOException if writing fails
+     */
+    static void write(DataOutputStream dos, ConfigurableCoordIndexer indexer) throws IOException {
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeInt(indexer.getMaxBitCapacity());
+        dos.writeInt(Integer.bitCount(indexer.getXMask()));
+        dos.writeInt(indexer.getXBase());
+        dos.writeInt(Integer.bitCount(indexer.getYMask()));
+        dos.writeInt(indexer.getYBase());
+        dos.writeInt(Integer.bitCount(indexer.getPlaneMask()));
+        dos.writeInt(indexer.getPlaneBase());
+    }
+
+    /**
+     * Reads a header if one is present, advancing the buffer past it.
+     *
+     * @param buffer the serialized map, positioned at its start
+     * @return the described layout, or {@code null} if the buffer holds a plain bitmap
+     * @throws IOException if the header is of an unsupported version
+     */
+    static ConfigurableCoordIndexer read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 4 || buffer.order(ByteOrder.BIG_ENDIAN).getInt(buffer.position()) != MAGIC) {
+            return null;
+        }
+        buffer.getInt();
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported map layout header version " + version);
+        }
+        return ConfigurableCoordIndexer.builder()
+                .maxBits(buffer.getInt())
+                .xBits(buffer.getInt())
+                .xBase(buffer.getInt())
+                .yBits(buffer.getInt())
+                .yBase(buffer.getInt())
+                .planeBits(buffer.getInt())
+                .planeBase(buffer.getInt())
+                .build();
+    }
+}
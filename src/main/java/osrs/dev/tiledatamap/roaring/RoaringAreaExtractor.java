@@ -0,0 +1,145 @@
+package osrs.dev.tiledatamap.roaring;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import osrs.dev.dumper.ConfigurableCoordIndexer;
+import osrs.dev.tiledatamap.Planes;
+import osrs.dev.util.Regions;
+
+/**
+ * Extracts part of a RoaringBitmap tile data map into a compact map whose coordinate
+ * layout only spans the extracted area.
+ * Works on a view of the serialized source: each tile row of the area is a contiguous
+ * index range, so only the containers overlapping those rows are ever decoded.
+ */
+public class RoaringAreaExtractor {
+
+    private RoaringAreaExtractor() {}
+
+    /**
+     * Extracts a bounding box.
+     *
+     * @param source the source map view
+     * @param minX   the west edge, inclusive
+     * @param minY   the south edge, inclusive
+     * @param maxX   the east edge, inclusive
+     * @param maxY   the north edge, inclusive
+     * @param planes mask of planes to extract, see {@link Planes}
+     * @return a writer holding the extracted area
+     */
+    public static RoaringTileDataMapWriter extractBox(RoaringTileDataMap.View source, int minX, int minY, int maxX, int maxY, int planes) {
+        return extract(source, new int[][] {{minX, minY, maxX, maxY}}, planes);
+    }
+
+    /**
+     * Extracts a list of 64x64 regions. The resulting layout spans the bounding box of all
+     * regions, but only tiles inside the listed regions are copied.
+     *
+     * @param source    the source map view
+     * @param regionIds the region ids
+     * @param planes    mask of planes to extract, see {@link Planes}
+     * @return a writer holding the extracted regions
+     */
+    public static RoaringTileDataMapWriter extractRegions(RoaringTileDataMap.View source, int[] regionIds, int planes) {
+        int[][] boxes = new int[regionIds.length][];
+        for (int i = 0; i < regionIds.length; i++) {
+            int baseX = Regions.baseX(regionIds[i]);
+            int baseY = Regions.baseY(regionIds[i]);
+            boxes[i] = new int[] {baseX, baseY, baseX + Regions.SIZE - 1, baseY + Regions.SIZE - 1};
+        }
+        return extract(source, boxes, planes);
+    }
+
+    /**
+     * Builds the smallest 32 bit layout covering an area.
+     *
+     * @return the layout
+     */
+    public static ConfigurableCoordIndexer layoutFor(int minX, int minY, int maxX, int maxY, int minPlane, int maxPlane) {
+        return ConfigurableCoordIndexer.builder()
+                .maxBits(32)
+                .xBits(bitsFor(maxX - minX))
+                .xBase(minX)
+                .yBits(bitsFor(maxY - minY))
+                .yBase(minY)
+                .planeBits(bitsFor(maxPlane - minPlane))
+                .planeBase(minPlane)
+                .build();
+    }
+
+    private static int bitsFor(int span) {
+        return 32 - Integer.numberOfLeadingZeros(span);
+    }
+
+    private static RoaringTileDataMapWriter extract(RoaringTileDataMap.View source, int[][] boxes, int planes) {
+        ConfigurableCoordIndexer sourceIndexer = source.getIndexer();
+
+        // Clamp the boxes to the source layout and find the bounds of the target layout
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int[] box : boxes) {
+            box[0] = Math.max(box[0], sourceIndexer.getMinX());
+            box[1] = Math.max(box[1], sourceIndexer.getMinY());
+            box[2] = Math.min(box[2], sourceIndexer.getMaxX());
+            box[3] = Math.min(box[3], sourceIndexer.getMaxY());
+            if (box[0] > box[2] || box[1] > box[3]) {
+                continue;
+            }
+            minX = Math.min(minX, box[0]);
+            minY = Math.min(minY, box[1]);
+            maxX = Math.max(maxX, box[2]);
+            maxY = Math.max(maxY, box[3]);
+        }
+        int minPlane = Integer.MAX_VALUE, maxPlane = Integer.MIN_VALUE;
+        for (int plane = sourceIndexer.getMinPlane(); plane <= sourceIndexer.getMaxPlane(); plane++) {
+            if (Planes.contains(planes, plane)) {
+                minPlane = Math.min(minPlane, plane);
+                maxPlane = Math.max(maxPlane, plane);
+            }
+        }
+        if (minX > maxX || minPlane > maxPlane) {
+            throw new IllegalArgumentException("Extraction area does not overlap the source map");
+        }
+
+        RoaringTileDataMapWriter writer = new RoaringTileDataMapWriter(layoutFor(minX, minY, maxX, maxY, minPlane, maxPlane));
+        ImmutableRoaringBitmap bitmap = source.getBitmap();
+        for (int dataBit = 0; dataBit <= sourceIndexer.getMaxDataBitIndex(); dataBit++) {
+            for (int plane = minPlane; plane <= maxPlane; plane++) {
+                if (!Planes.contains(planes, plane)) {
+                    continue;
+                }
+                for (int[] box : boxes) {
+                    if (box[0] <= box[2] && box[1] <= box[3]) {
+                        copyBox(bitmap, sourceIndexer, box, plane, dataBit, writer);
+                    }
+                }
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Copies one box of one plane and data bit. Rows are visited in ascending index order,
+     * so a single iterator skips straight from row to row.
+     */
+    private static void copyBox(ImmutableRoaringBitmap bitmap, ConfigurableCoordIndexer sourceIndexer, int[] box,
+                                int plane, int dataBit, RoaringTileDataMapWriter writer) {
+        PeekableIntIterator iterator = bitmap.getIntIterator();
+        int width = box[2] - box[0] + 1;
+        for (int y = box[1]; y <= box[3]; y++) {
+            long start = Integer.toUnsignedLong(sourceIndexer.packToBitmapIndex(box[0], y, plane, dataBit));
+            long end = start + width;
+            iterator.advanceIfNeeded((int) start);
+            while (iterator.hasNext()) {
+                long index = Integer.toUnsignedLong(iterator.peekNext());
+                if (index >= end) {
+                    break;
+                }
+                iterator.next();
+                writer.setDataBit(box[0] + (int) (index - start), y, plane, dataBit);
+            }
+            if (!iterator.hasNext()) {
+                return;
+            }
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package osrs.dev.tiledatamap.roaring;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.Container;
+import org.roaringbitmap.ContainerPointer;
 import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import osrs.dev.dumper.ConfigurableCoordIndexer;
 import osrs.dev.dumper.ICoordIndexer;
 import osrs.dev.tiledatamap.ITileDataMap;
+import osrs.dev.tiledatamap.Planes;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Generic RoaringBitmap-based data map.
@@ -18,22 +25,128 @@ public class RoaringTileDataMap implements ITileDataMap {
             = ConfigurableCoordIndexer.ROARINGBITMAP_5BIT_DATA_COORD_INDEXER;
 
     private final RoaringBitmap bitmap;
+    private final ConfigurableCoordIndexer indexer;
+    /**
+     * Whether the layout covers only part of the world, in which case coordinates
+     * outside it must not be packed as they would wrap onto tiles inside it.
+     */
+    private final boolean bounded;
+    /**
+     * Sorted container keys and their containers, built on the first cursor request.
+     */
+    private volatile ContainerIndex containerIndex;
 
     public RoaringTileDataMap(RoaringBitmap bitmap) {
+        this(bitmap, INDEXER);
+    }
+
+    /**
+     * Creates a data map over a bitmap packed with a custom coordinate layout.
+     *
+     * @param bitmap  the bitmap
+     * @param indexer the layout the bitmap was packed with
+     */
+    public RoaringTileDataMap(RoaringBitmap bitmap, ConfigurableCoordIndexer indexer) {
         this.bitmap = bitmap;
+        this.indexer = indexer.withValidationDisabled();
+        this.bounded = !LayoutHeader.sameLayout(indexer, INDEXER);
     }
 
     @Override
     public ICoordIndexer getIndexer() {
-        return INDEXER;
+        return indexer;
     }
 
     @Override
     public boolean isDataBitSet(int x, int y, int plane, int dataBitIndex) {
-        int bitIndex = INDEXER.packToBitmapIndex(x, y, plane, dataBitIndex);
+        if (bounded && !inBounds(x, y, plane)) {
+            return false;
+        }
+        int bitIndex = indexer.packToBitmapIndex(x, y, plane, dataBitIndex);
         return bitmap.contains(bitIndex);
     }
 
+    /**
+     * Gets one data bit for a run of 64 tiles. The run is a contiguous index range
+     * spanning at most two containers, whose set values are walked directly.
+     * Tiles outside the layout read as unset.
+     */
+    @Override
+    public long getDataBitWord(int x, int y, int plane, int dataBitIndex) {
+        return dataBitWord(x, y, plane, dataBitIndex, null);
+    }
+
+    /**
+     * Reads a 64 tile run, looking containers up through a cursor's cache if one is given.
+     */
+    private long dataBitWord(int x, int y, int plane, int dataBitIndex, Cursor cursor) {
+        if (y < indexer.getMinY() || y > indexer.getMaxY() || plane < indexer.getMinPlane() || plane > indexer.getMaxPlane()) {
+            return 0L;
+        }
+        int from = Math.max(x, indexer.getMinX());
+        int to = (int) Math.min(x + 63L, indexer.getMaxX());
+        if (from > to) {
+            return 0L;
+        }
+
+        long start = Integer.toUnsignedLong(indexer.packToBitmapIndex(from, y, plane, dataBitIndex));
+        long end = start + (to - from) + 1;
+        int offset = from - x;
+        long word = 0L;
+        for (long key = start >>> 16; (key << 16) < end; key++) {
+            Container container = cursor == null ? containerIndex().find((char) key) : cursor.container(dataBitIndex, (int) key);
+            if (container == null) {
+                continue;
+            }
+            long base = key << 16;
+            int low = (int) Math.max(start - base, 0);
+            int high = (int) Math.min(end - base, 0x10000);
+            int shift = (int) (base + low - start) + offset;
+            if (container.contains(low, high)) {
+                // Fully set runs are common in blocked areas such as water
+                int length = high - low;
+                word |= (length == 64 ? -1L : (1L << length) - 1) << shift;
+                continue;
+            }
+            int value = container.nextValue((char) low);
+            while (value >= 0 && value < high) {
+                word |= 1L << (value - low + shift);
+                value = value == 0xFFFF ? -1 : container.nextValue((char) (value + 1));
+            }
+        }
+        return word;
+    }
+
+    /**
+     * Creates a cursor remembering the last container each data bit touched, so
+     * neighbouring lookups skip the container search.
+     *
+     * @return a new cursor over this map
+     */
+    @Override
+    public ITileDataMap cursor() {
+        return new Cursor(this);
+    }
+
+    private ContainerIndex containerIndex() {
+        ContainerIndex index = containerIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = containerIndex;
+                if (index == null) {
+                    containerIndex = index = new ContainerIndex(bitmap);
+                }
+            }
+        }
+        return index;
+    }
+
+    private boolean inBounds(int x, int y, int plane) {
+        return x >= indexer.getMinX() && x <= indexer.getMaxX()
+                && y >= indexer.getMinY() && y <= indexer.getMaxY()
+                && plane >= indexer.getMinPlane() && plane <= indexer.getMaxPlane();
+    }
+
     /**
      * Loads from RoaringBitmap native format.
      * The input stream should already be decompressed if it was gzipped.
@@ -43,10 +156,161 @@ public class RoaringTileDataMap implements ITileDataMap {
      * @throws IOException if an I/O error occurs
      */
     public static RoaringTileDataMap load(InputStream inputStream) throws IOException {
-        byte[] bytes = inputStream.readAllBytes();
-        RoaringBitmap bitmap = new RoaringBitmap();
-        bitmap.deserialize(ByteBuffer.wrap(bytes));
+        return load(inputStream, Planes.ALL);
+    }
+
+    /**
+     * Loads from RoaringBitmap native format, keeping only the selected planes.
+     * Containers of other planes are never materialized: the serialized bytes are
+     * viewed in place and only the index ranges of the selected planes are copied out.
+     * Lookups on planes that were not loaded report no data bits set.
+     *
+     * @param inputStream input stream containing RoaringBitmap data
+     * @param planes      mask of planes to keep, see {@link Planes}
+     * @return loaded data map
+     * @throws IOException if an I/O error occurs
+     */
+    public static RoaringTileDataMap load(InputStream inputStream, int planes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(inputStream.readAllBytes());
+        ConfigurableCoordIndexer layout = LayoutHeader.read(buffer);
+        if (layout == null) {
+            layout = INDEXER;
+        }
+
+        RoaringBitmap bitmap;
+        if (Planes.coversAll(layout, planes)) {
+            bitmap = new RoaringBitmap();
+            bitmap.deserialize(buffer.slice());
+        } else {
+            bitmap = selectRanges(new ImmutableRoaringBitmap(buffer.slice()), Planes.indexRanges(layout, planes));
+        }
         bitmap.runOptimize();
-        return new RoaringTileDataMap(bitmap);
+        return new RoaringTileDataMap(bitmap, layout);
+    }
+
+    /**
+     * Opens a serialized map as a read-only view without materializing its containers.
+     * Used by tools that only touch a small part of the map.
+     *
+     * @param bytes the serialized map, optionally prefixed by a layout header
+     * @return the view together with the layout it was packed with
+     * @throws IOException if the header is unsupported
+     */
+    public static View view(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        ConfigurableCoordIndexer layout = LayoutHeader.read(buffer);
+        return new View(new ImmutableRoaringBitmap(buffer.slice()), layout == null ? INDEXER : layout);
+    }
+
+    /**
+     * A read-only view over a serialized map.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class View {
+        private final ImmutableRoaringBitmap bitmap;
+        private final ConfigurableCoordIndexer indexer;
+    }
+
+    /**
+     * Copies the given index ranges out of a serialized bitmap view.
+     *
+     * @param view   the bitmap view
+     * @param ranges flattened [start, end) pairs
+     * @return a bitmap holding only the values inside the ranges
+     */
+    private static RoaringBitmap selectRanges(ImmutableRoaringBitmap view, long[] ranges) {
+        RoaringBitmap selected = new RoaringBitmap();
+        for (int i = 0; i < ranges.length; i += 2) {
+            selected.or(view.selectRange(ranges[i], ranges[i + 1]).toRoaringBitmap());
+        }
+        return selected;
+    }
+
+    /**
+     * The containers of a bitmap in key order. Lookups through it binary search the keys
+     * directly instead of going through the bitmap, so a cursor can keep the container.
+     */
+    private static class ContainerIndex {
+        private final char[] keys;
+        private final Container[] containers;
+
+        ContainerIndex(RoaringBitmap bitmap) {
+            int count = bitmap.getContainerCount();
+            keys = new char[count];
+            containers = new Container[count];
+            ContainerPointer pointer = bitmap.getContainerPointer();
+            for (int i = 0; i < count; i++, pointer.advance()) {
+                keys[i] = pointer.key();
+                containers[i] = pointer.getContainer();
+            }
+        }
+
+        Container find(char key) {
+            int low = 0;
+            int high = keys.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char middleKey = keys[middle];
+                if (middleKey < key) {
+                    low = middle + 1;
+                } else if (middleKey > key) {
+                    high = middle - 1;
+                } else {
+                    return containers[middle];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A caller-owned reader over a map. Each data bit lives in its own index range,
+     * so the last container is remembered per data bit; lookups near the previous one
+     * hit the same 65536 index container and only test the low 16 bits.
+     * Not thread-safe, one cursor should be held per search or render pass.
+     */
+    private static class Cursor implements ITileDataMap {
+        private final RoaringTileDataMap map;
+        private final ContainerIndex index;
+        private final int[] keys;
+        private final Container[] containers;
+
+        Cursor(RoaringTileDataMap map) {
+            this.map = map;
+            this.index = map.containerIndex();
+            int dataBits = map.indexer.getMaxDataBitIndex() + 1;
+            this.keys = new int[dataBits];
+            this.containers = new Container[dataBits];
+            Arrays.fill(keys, -1);
+        }
+
+        @Override
+        public ICoordIndexer getIndexer() {
+            return map.indexer;
+        }
+
+        @Override
+        public boolean isDataBitSet(int x, int y, int plane, int dataBitIndex) {
+            if (map.bounded && !map.inBounds(x, y, plane)) {
+                return false;
+            }
+            int bitIndex = map.indexer.packToBitmapIndex(x, y, plane, dataBitIndex);
+            Container container = container(dataBitIndex, bitIndex >>> 16);
+            return container != null && container.contains((char) bitIndex);
+        }
+
+        @Override
+        public long getDataBitWord(int x, int y, int plane, int dataBitIndex) {
+            return map.dataBitWord(x, y, plane, dataBitIndex, this);
+        }
+
+        private Container container(int dataBitIndex, int key) {
+            if (keys[dataBitIndex] != key) {
+                keys[dataBitIndex] = key;
+                containers[dataBitIndex] = index.find((char) key);
+            }
+            return containers[dataBitIndex];
+        }
     }
 }
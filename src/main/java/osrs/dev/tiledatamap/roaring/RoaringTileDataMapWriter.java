@@ -17,14 +17,26 @@ public class RoaringTileDataMapWriter implements ITileDataMapWriter {
     static final ConfigurableCoordIndexer INDEXER
             = RoaringTileDataMap.INDEXER.withValidationEnabled();
     private final RoaringBitmap bitmap;
+    private final ConfigurableCoordIndexer indexer;
 
     public RoaringTileDataMapWriter() {
+        this(INDEXER);
+    }
+
+    /**
+     * Creates a writer packing coordinates with a custom layout.
+     * Saved files then start with a layout header so loaders can unpack them.
+     *
+     * @param indexer the coordinate layout
+     */
+    public RoaringTileDataMapWriter(ConfigurableCoordIndexer indexer) {
         this.bitmap = new RoaringBitmap();
+        this.indexer = indexer.withValidationEnabled();
     }
 
     @Override
     public synchronized void setDataBit(int x, int y, int plane, int dataBitIndex) {
-        bitmap.add(INDEXER.packToBitmapIndex(x, y, plane, dataBitIndex));
+        bitmap.add(indexer.packToBitmapIndex(x, y, plane, dataBitIndex));
     }
 
     @Override
@@ -49,7 +61,7 @@ public class RoaringTileDataMapWriter implements ITileDataMapWriter {
              GZIPOutputStream gzos = new GZIPOutputStream(fos);
              DataOutputStream dos = new DataOutputStream(gzos)) {
 
-            bitmap.serialize(dos);
+            writeTo(dos);
         }
     }
 
@@ -65,7 +77,14 @@ public class RoaringTileDataMapWriter implements ITileDataMapWriter {
         try (FileOutputStream fos = new FileOutputStream(filePath);
              DataOutputStream dos = new DataOutputStream(fos)) {
 
-            bitmap.serialize(dos);
+            writeTo(dos);
+        }
+    }
+
+    private void writeTo(DataOutputStream dos) throws IOException {
+        if (!LayoutHeader.sameLayout(indexer, RoaringTileDataMap.INDEXER)) {
+            LayoutHeader.write(dos, indexer);
         }
+        bitmap.serialize(dos);
     }
 }
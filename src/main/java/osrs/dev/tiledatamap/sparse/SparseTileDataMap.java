@@ -4,6 +4,7 @@ import VitaX.services.local.pathfinder.engine.collision.SparseBitSet;
 import osrs.dev.dumper.ConfigurableCoordIndexer;
 import osrs.dev.dumper.ICoordIndexer;
 import osrs.dev.tiledatamap.ITileDataMap;
+import osrs.dev.tiledatamap.Planes;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -17,6 +18,8 @@ public class SparseTileDataMap implements ITileDataMap {
     static final ConfigurableCoordIndexer INDEXER
             = ConfigurableCoordIndexer.SPARSEBITSET_4BIT_DATA_COORD_INDEXER;
 
+    private static final int NO_ROW = Integer.MIN_VALUE;
+
     private final SparseBitSet bitSet;
 
     private SparseTileDataMap(SparseBitSet bitSet) {
@@ -34,6 +37,53 @@ public class SparseTileDataMap implements ITileDataMap {
         return bitSet.get(bitIndex);
     }
 
+    /**
+     * Gets one data bit for a run of 64 tiles. The run is a contiguous index range,
+     * read as one unaligned word of the bit set. Tiles outside the layout read as unset.
+     */
+    @Override
+    public long getDataBitWord(int x, int y, int plane, int dataBitIndex) {
+        int from = rowStart(x, y, plane);
+        if (from == NO_ROW) {
+            return 0L;
+        }
+        return rowWord(bitSet.getWord(INDEXER.packToBitmapIndex(from, y, plane, dataBitIndex)), x, from);
+    }
+
+    /**
+     * Clips the start of a 64 tile run to the layout.
+     *
+     * @return the first x coordinate of the run inside the layout, or {@link #NO_ROW} if none is
+     */
+    private static int rowStart(int x, int y, int plane) {
+        if (y < INDEXER.getMinY() || y > INDEXER.getMaxY() || plane < INDEXER.getMinPlane() || plane > INDEXER.getMaxPlane()
+                || x > INDEXER.getMaxX() || x + 63L < INDEXER.getMinX()) {
+            return NO_ROW;
+        }
+        return Math.max(x, INDEXER.getMinX());
+    }
+
+    /**
+     * Positions the bits read from a clipped run start within the word of the requested run,
+     * dropping bits past the end of the layout.
+     */
+    private static long rowWord(long bits, int x, int from) {
+        int width = (int) Math.min(x + 63L, INDEXER.getMaxX()) - from + 1;
+        long mask = width == 64 ? -1L : (1L << width) - 1;
+        return (bits & mask) << (from - x);
+    }
+
+    /**
+     * Creates a cursor remembering the last level-3 block each data bit touched, so
+     * neighbouring lookups skip the level-1 and level-2 indexing.
+     *
+     * @return a new cursor over this map
+     */
+    @Override
+    public ITileDataMap cursor() {
+        return new Cursor(bitSet);
+    }
+
     /**
      * Loads from an input stream.
      * The input stream should already be decompressed if it was gzipped.
@@ -44,8 +94,81 @@ public class SparseTileDataMap implements ITileDataMap {
      * @throws ClassNotFoundException On class not found.
      */
     public static SparseTileDataMap load(InputStream inputStream) throws IOException, ClassNotFoundException {
+        return load(inputStream, Planes.ALL);
+    }
+
+    /**
+     * Loads from an input stream, keeping only the selected planes.
+     * The serialized SparseBitSet has to be read in full, after which the index ranges of
+     * the other planes are cleared so their level-3 blocks can be reclaimed.
+     * Lookups on planes that were not loaded report no data bits set.
+     *
+     * @param inputStream The input stream containing serialized SparseBitSet.
+     * @param planes      Mask of planes to keep, see {@link Planes}.
+     * @return The data map.
+     * @throws IOException            On file read error.
+     * @throws ClassNotFoundException On class not found.
+     */
+    public static SparseTileDataMap load(InputStream inputStream, int planes) throws IOException, ClassNotFoundException {
+        SparseBitSet bitSet;
         try (ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
-            return new SparseTileDataMap((SparseBitSet) objectInputStream.readObject());
+            bitSet = (SparseBitSet) objectInputStream.readObject();
+        }
+        if (Planes.coversAll(INDEXER, planes)) {
+            return new SparseTileDataMap(bitSet);
+        }
+
+        // Clear the gaps between the kept ranges
+        long[] kept = Planes.indexRanges(INDEXER, planes);
+        long from = 0;
+        for (int i = 0; i < kept.length; i += 2) {
+            clearRange(bitSet, from, kept[i]);
+            from = kept[i + 1];
+        }
+        clearRange(bitSet, from, 1L << INDEXER.getMaxBitCapacity());
+        return new SparseTileDataMap(bitSet.clone());
+    }
+
+    private static void clearRange(SparseBitSet bitSet, long from, long to) {
+        // SparseBitSet indices stop at Integer.MAX_VALUE - 1
+        int end = (int) Math.min(to, Integer.MAX_VALUE);
+        if (from < end) {
+            bitSet.clear((int) from, end);
+        }
+    }
+
+    /**
+     * A caller-owned reader over a map, holding one block cursor per data bit as
+     * each data bit lives in its own index range.
+     * Not thread-safe, one cursor should be held per search or render pass.
+     */
+    private static class Cursor implements ITileDataMap {
+        private final SparseBitSet.Cursor[] cursors;
+
+        Cursor(SparseBitSet bitSet) {
+            cursors = new SparseBitSet.Cursor[INDEXER.getMaxDataBitIndex() + 1];
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = bitSet.cursor();
+            }
+        }
+
+        @Override
+        public ICoordIndexer getIndexer() {
+            return INDEXER;
+        }
+
+        @Override
+        public boolean isDataBitSet(int x, int y, int plane, int dataBitIndex) {
+            return cursors[dataBitIndex].get(INDEXER.packToBitmapIndex(x, y, plane, dataBitIndex));
+        }
+
+        @Override
+        public long getDataBitWord(int x, int y, int plane, int dataBitIndex) {
+            int from = rowStart(x, y, plane);
+            if (from == NO_ROW) {
+                return 0L;
+            }
+            return rowWord(cursors[dataBitIndex].getWord(INDEXER.packToBitmapIndex(from, y, plane, dataBitIndex)), x, from);
         }
     }
 }
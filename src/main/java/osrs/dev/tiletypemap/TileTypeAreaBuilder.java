@@ -0,0 +1,243 @@
+package osrs.dev.tiletypemap;
+
+import osrs.dev.util.Regions;
+import osrs.dev.util.UnionFind;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Splits the typed tiles of a tile type map into {@link TileTypeAreas}.
+ * Each region is covered with rectangles on its own, in parallel: every tile not yet covered
+ * starts a rectangle that grows east while the type holds and then north while whole rows do,
+ * which gives maximal rectangles within the region. Rectangles of one type touching on a side,
+ * within a region or across a border, are then merged into areas with a union-find.
+ */
+public final class TileTypeAreaBuilder {
+    private static final int TILES = Regions.SIZE * Regions.SIZE;
+
+    private TileTypeAreaBuilder() {}
+
+    /**
+     * Builds the areas of a set of regions.
+     *
+     * @param map       the tile type map
+     * @param regionIds the regions to cover, see {@link Regions#id}
+     * @param planes    the number of planes to cover, starting at plane 0
+     * @return the areas
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws ExecutionException   if a worker failed
+     */
+    public static TileTypeAreas build(TileTypeMap map, Collection<Integer> regionIds, int planes) throws InterruptedException, ExecutionException {
+        int[] regionKeys = new int[new HashSet<>(regionIds).size() * planes];
+        int slots = 0;
+        for (int regionId : new TreeSet<>(regionIds)) {
+            for (int plane = 0; plane < planes; plane++) {
+                regionKeys[slots++] = (plane << 16) | regionId;
+            }
+        }
+        Arrays.sort(regionKeys);
+
+        Cover[] covers = new Cover[slots];
+        Regions.forEachParallel(slots, slot -> covers[slot] = cover(map.cursor(), regionKeys[slot]));
+
+        int[] rectOffsets = new int[slots + 1];
+        for (int slot = 0; slot < slots; slot++) {
+            rectOffsets[slot + 1] = rectOffsets[slot] + (covers[slot] == null ? 0 : covers[slot].count);
+        }
+        int rectCount = rectOffsets[slots];
+        UnionFind sets = new UnionFind(rectCount);
+
+        // Join touching rectangles of one type inside each region and across its east and north borders
+        for (int slot = 0; slot < slots; slot++) {
+            Cover cover = covers[slot];
+            if (cover == null) {
+                continue;
+            }
+            int regionId = regionKeys[slot] & 0xFFFF;
+            int plane = regionKeys[slot] >>> 16;
+            int baseX = Regions.baseX(regionId);
+            int baseY = Regions.baseY(regionId);
+            for (int y = 0; y < Regions.SIZE; y++) {
+                for (int x = 0; x < Regions.SIZE; x++) {
+                    int tile = index(x, y);
+                    if (cover.types[tile] == 0) {
+                        continue;
+                    }
+                    if (x < Regions.SIZE - 1 && cover.types[tile + 1] == cover.types[tile]) {
+                        sets.union(rectOffsets[slot] + cover.rects[tile], rectOffsets[slot] + cover.rects[tile + 1]);
+                    }
+                    if (y < Regions.SIZE - 1 && cover.types[tile + Regions.SIZE] == cover.types[tile]) {
+                        sets.union(rectOffsets[slot] + cover.rects[tile], rectOffsets[slot] + cover.rects[tile + Regions.SIZE]);
+                    }
+                }
+            }
+            int east = Arrays.binarySearch(regionKeys, (plane << 16) | Regions.id(baseX + Regions.SIZE, baseY));
+            int north = Arrays.binarySearch(regionKeys, (plane << 16) | Regions.id(baseX, baseY + Regions.SIZE));
+            for (int i = 0; i < Regions.SIZE; i++) {
+                if (east >= 0 && covers[east] != null) {
+                    join(sets, cover, rectOffsets[slot], index(Regions.SIZE - 1, i), covers[east], rectOffsets[east], index(0, i));
+                }
+                if (north >= 0 && covers[north] != null) {
+                    join(sets, cover, rectOffsets[slot], index(i, Regions.SIZE - 1), covers[north], rectOffsets[north], index(i, 0));
+                }
+            }
+        }
+
+        // Number the areas in order of their first rectangle and group the rectangles by area
+        int[] rectAreas = sets.labels();
+        int areaCount = sets.getSetCount();
+        int[] areaRectStarts = new int[areaCount + 1];
+        for (int rect = 0; rect < rectCount; rect++) {
+            areaRectStarts[rectAreas[rect] + 1]++;
+        }
+        for (int area = 0; area < areaCount; area++) {
+            areaRectStarts[area + 1] += areaRectStarts[area];
+        }
+        byte[] areaTypes = new byte[areaCount];
+        byte[] areaPlanes = new byte[areaCount];
+        int[] areaTileCounts = new int[areaCount];
+        int[] areaBounds = new int[areaCount * 4];
+        for (int area = 0; area < areaCount; area++) {
+            areaBounds[area * 4] = Integer.MAX_VALUE;
+            areaBounds[area * 4 + 1] = Integer.MAX_VALUE;
+            areaBounds[area * 4 + 2] = Integer.MIN_VALUE;
+            areaBounds[area * 4 + 3] = Integer.MIN_VALUE;
+        }
+        int[] rects = new int[rectCount * 4];
+        int[] filled = Arrays.copyOf(areaRectStarts, areaCount);
+        for (int slot = 0; slot < slots; slot++) {
+            Cover cover = covers[slot];
+            if (cover == null) {
+                continue;
+            }
+            int regionId = regionKeys[slot] & 0xFFFF;
+            int baseX = Regions.baseX(regionId);
+            int baseY = Regions.baseY(regionId);
+            for (int local = 0; local < cover.count; local++) {
+                int area = rectAreas[rectOffsets[slot] + local];
+                int minX = baseX + cover.bounds[local * 4];
+                int minY = baseY + cover.bounds[local * 4 + 1];
+                int maxX = baseX + cover.bounds[local * 4 + 2];
+                int maxY = baseY + cover.bounds[local * 4 + 3];
+                int out = filled[area]++ * 4;
+                rects[out] = minX;
+                rects[out + 1] = minY;
+                rects[out + 2] = maxX;
+                rects[out + 3] = maxY;
+                areaTypes[area] = cover.types[index(cover.bounds[local * 4], cover.bounds[local * 4 + 1])];
+                areaPlanes[area] = (byte) (regionKeys[slot] >>> 16);
+                areaTileCounts[area] += (maxX - minX + 1) * (maxY - minY + 1);
+                areaBounds[area * 4] = Math.min(areaBounds[area * 4], minX);
+                areaBounds[area * 4 + 1] = Math.min(areaBounds[area * 4 + 1], minY);
+                areaBounds[area * 4 + 2] = Math.max(areaBounds[area * 4 + 2], maxX);
+                areaBounds[area * 4 + 3] = Math.max(areaBounds[area * 4 + 3], maxY);
+            }
+        }
+        return new TileTypeAreas(areaTypes, areaPlanes, areaTileCounts, areaBounds, areaRectStarts, rects);
+    }
+
+    /**
+     * Covers the typed tiles of one region with rectangles.
+     *
+     * @return the rectangles, or {@code null} if the region has no typed tiles
+     */
+    private static Cover cover(TileTypeMap map, int regionKey) {
+        int regionId = regionKey & 0xFFFF;
+        int plane = regionKey >>> 16;
+        int baseX = Regions.baseX(regionId);
+        int baseY = Regions.baseY(regionId);
+        int dataBits = map.getIndexer().getMaxDataBitIndex() + 1;
+        byte[] types = new byte[TILES];
+        boolean any = false;
+        for (int y = 0; y < Regions.SIZE; y++) {
+            for (int bit = 0; bit < dataBits; bit++) {
+                long word = map.getDataBitWord(baseX, baseY + y, plane, bit);
+                while (word != 0) {
+                    int x = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    types[index(x, y)] |= (byte) (1 << bit);
+                    any = true;
+                }
+            }
+        }
+        if (!any) {
+            return null;
+        }
+
+        Cover cover = new Cover(types);
+        for (int y = 0; y < Regions.SIZE; y++) {
+            for (int x = 0; x < Regions.SIZE; x++) {
+                int tile = index(x, y);
+                if (types[tile] == 0 || cover.rects[tile] >= 0) {
+                    continue;
+                }
+                byte type = types[tile];
+                int maxX = x;
+                while (maxX + 1 < Regions.SIZE && isOpen(cover, index(maxX + 1, y), type)) {
+                    maxX++;
+                }
+                int maxY = y;
+                while (maxY + 1 < Regions.SIZE && isRowOpen(cover, x, maxX, maxY + 1, type)) {
+                    maxY++;
+                }
+                cover.add(x, y, maxX, maxY);
+            }
+        }
+        return cover;
+    }
+
+    private static boolean isOpen(Cover cover, int tile, byte type) {
+        return cover.types[tile] == type && cover.rects[tile] < 0;
+    }
+
+    private static boolean isRowOpen(Cover cover, int minX, int maxX, int y, byte type) {
+        for (int x = minX; x <= maxX; x++) {
+            if (!isOpen(cover, index(x, y), type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void join(UnionFind sets, Cover a, int aOffset, int aTile, Cover b, int bOffset, int bTile) {
+        if (a.types[aTile] != 0 && a.types[aTile] == b.types[bTile]) {
+            sets.union(aOffset + a.rects[aTile], bOffset + b.rects[bTile]);
+        }
+    }
+
+    private static int index(int x, int y) {
+        return (y << Regions.SHIFT) | x;
+    }
+
+    /**
+     * The rectangles covering one region, with the type and rectangle of each tile.
+     */
+    private static final class Cover {
+        private final byte[] types;
+        private final short[] rects = new short[TILES];
+        private int[] bounds = new int[64];
+        private int count;
+
+        private Cover(byte[] types) {
+            this.types = types;
+            Arrays.fill(rects, (short) -1);
+        }
+
+        private void add(int minX, int minY, int maxX, int maxY) {
+            if (count * 4 == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[count * 4] = minX;
+            bounds[count * 4 + 1] = minY;
+            bounds[count * 4 + 2] = maxX;
+            bounds[count * 4 + 3] = maxY;
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    rects[index(x, y)] = (short) count;
+                }
+            }
+            count++;
+        }
+    }
+}
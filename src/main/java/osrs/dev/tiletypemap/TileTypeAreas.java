@@ -0,0 +1,311 @@
+package osrs.dev.tiletypemap;
+
+import lombok.Getter;
+import osrs.dev.util.Regions;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Connected areas of same-type tiles, such as one stretch of storm water, each split into
+ * rectangles. Built by {@link TileTypeAreaBuilder} after a dump.
+ * The table holds each area's type, plane, bounding box and tile count, and its rectangles
+ * grouped by area. Looking up the area of a tile finds the tile's region by binary search, then
+ * the rectangle covering the tile by binary search over the row runs of that region's
+ * rectangles, which are rebuilt from the rectangles on load.
+ * Immutable and safe to share between threads.
+ */
+public class TileTypeAreas {
+    private static final int MAGIC = 0x52544148; // "RTAH"
+    private static final int VERSION = 1;
+
+    private final byte[] areaTypes;
+    private final byte[] areaPlanes;
+    private final int[] areaTileCounts;
+    /**
+     * Bounding box of each area as minimum x, minimum y, maximum x, maximum y.
+     */
+    private final int[] areaBounds;
+    /**
+     * First rectangle of each area, with one extra closing entry.
+     */
+    private final int[] areaRectStarts;
+    /**
+     * Each rectangle as minimum x, minimum y, maximum x, maximum y, all inclusive.
+     */
+    private final int[] rects;
+    private final int[] rectAreas;
+
+    /**
+     * Sorted keys {@code (plane << 16) | regionId} of the regions holding rectangles.
+     */
+    private final int[] regionKeys;
+    /**
+     * First run of each row of each region, at {@code slot * 64 + row}, with one closing entry.
+     */
+    private final int[] rowStarts;
+    private final byte[] runMinX;
+    private final byte[] runMaxX;
+    private final int[] runRects;
+    @Getter
+    private final int areaCount;
+
+    TileTypeAreas(byte[] areaTypes, byte[] areaPlanes, int[] areaTileCounts, int[] areaBounds, int[] areaRectStarts, int[] rects) {
+        this.areaTypes = areaTypes;
+        this.areaPlanes = areaPlanes;
+        this.areaTileCounts = areaTileCounts;
+        this.areaBounds = areaBounds;
+        this.areaRectStarts = areaRectStarts;
+        this.rects = rects;
+        this.areaCount = areaTypes.length;
+        int rectCount = rects.length / 4;
+        this.rectAreas = new int[rectCount];
+        for (int area = 0; area < areaCount; area++) {
+            Arrays.fill(rectAreas, areaRectStarts[area], areaRectStarts[area + 1], area);
+        }
+
+        // Each rectangle lies in one region, index its rows by region, row and minimum x
+        long[] keyed = new long[rectCount];
+        for (int rect = 0; rect < rectCount; rect++) {
+            keyed[rect] = ((long) regionKey(rect) << 32) | rect;
+        }
+        Arrays.sort(keyed);
+        int regions = 0;
+        for (int i = 0; i < keyed.length; i++) {
+            if (i == 0 || keyed[i] >>> 32 != keyed[i - 1] >>> 32) {
+                regions++;
+            }
+        }
+        this.regionKeys = new int[regions];
+        int[] rowCounts = new int[regions * Regions.SIZE + 1];
+        int slot = -1;
+        for (int i = 0; i < keyed.length; i++) {
+            int rect = (int) keyed[i];
+            if (i == 0 || keyed[i] >>> 32 != keyed[i - 1] >>> 32) {
+                regionKeys[++slot] = (int) (keyed[i] >>> 32);
+            }
+            for (int y = rects[rect * 4 + 1]; y <= rects[rect * 4 + 3]; y++) {
+                rowCounts[slot * Regions.SIZE + (y & (Regions.SIZE - 1))]++;
+            }
+        }
+        this.rowStarts = new int[regions * Regions.SIZE + 1];
+        for (int row = 0; row < regions * Regions.SIZE; row++) {
+            rowStarts[row + 1] = rowStarts[row] + rowCounts[row];
+        }
+        int runs = rowStarts[regions * Regions.SIZE];
+        this.runMinX = new byte[runs];
+        this.runMaxX = new byte[runs];
+        this.runRects = new int[runs];
+        int[] filled = Arrays.copyOf(rowStarts, rowStarts.length);
+        slot = -1;
+        for (int i = 0; i < keyed.length; i++) {
+            int rect = (int) keyed[i];
+            if (i == 0 || keyed[i] >>> 32 != keyed[i - 1] >>> 32) {
+                slot++;
+            }
+            for (int y = rects[rect * 4 + 1]; y <= rects[rect * 4 + 3]; y++) {
+                int run = filled[slot * Regions.SIZE + (y & (Regions.SIZE - 1))]++;
+                runMinX[run] = (byte) (rects[rect * 4] & (Regions.SIZE - 1));
+                runMaxX[run] = (byte) (rects[rect * 4 + 2] & (Regions.SIZE - 1));
+                runRects[run] = rect;
+            }
+        }
+        for (int row = 0; row < regions * Regions.SIZE; row++) {
+            sortRuns(rowStarts[row], rowStarts[row + 1]);
+        }
+    }
+
+    private int regionKey(int rect) {
+        int plane = areaPlanes[rectAreas[rect]];
+        return (plane << 16) | Regions.id(rects[rect * 4], rects[rect * 4 + 1]);
+    }
+
+    /**
+     * Sorts the runs of one row by minimum x, rows holding few runs.
+     */
+    private void sortRuns(int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && runMinX[j - 1] > runMinX[j]; j--) {
+                byte minX = runMinX[j];
+                runMinX[j] = runMinX[j - 1];
+                runMinX[j - 1] = minX;
+                byte maxX = runMaxX[j];
+                runMaxX[j] = runMaxX[j - 1];
+                runMaxX[j - 1] = maxX;
+                int rect = runRects[j];
+                runRects[j] = runRects[j - 1];
+                runRects[j - 1] = rect;
+            }
+        }
+    }
+
+    public int getRectangleCount() {
+        return rectAreas.length;
+    }
+
+    /**
+     * Finds the area a tile belongs to.
+     *
+     * @return the area, or -1 if the tile has no type or was not part of the build
+     */
+    public int area(int x, int y, int plane) {
+        int slot = Arrays.binarySearch(regionKeys, (plane << 16) | Regions.id(x, y));
+        if (slot < 0) {
+            return -1;
+        }
+        int row = slot * Regions.SIZE + (y & (Regions.SIZE - 1));
+        int localX = x & (Regions.SIZE - 1);
+        // Last run starting at or before the tile
+        int low = rowStarts[row];
+        int high = rowStarts[row + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (runMinX[mid] <= localX) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < rowStarts[row] || runMaxX[high] < localX) {
+            return -1;
+        }
+        return rectAreas[runRects[high]];
+    }
+
+    /**
+     * Checks if a tile belongs to an area.
+     */
+    public boolean contains(int area, int x, int y, int plane) {
+        return area(x, y, plane) == area;
+    }
+
+    /**
+     * Gets the tile type of an area, see {@link TileType}.
+     */
+    public byte type(int area) {
+        return areaTypes[area];
+    }
+
+    public int plane(int area) {
+        return areaPlanes[area];
+    }
+
+    public int tileCount(int area) {
+        return areaTileCounts[area];
+    }
+
+    /**
+     * Gets the bounding box of an area.
+     *
+     * @return minimum x, minimum y, maximum x and maximum y, all inclusive
+     */
+    public int[] bounds(int area) {
+        return Arrays.copyOfRange(areaBounds, area * 4, area * 4 + 4);
+    }
+
+    /**
+     * Gets the rectangles an area is split into.
+     *
+     * @return minimum x, minimum y, maximum x and maximum y of each rectangle in turn, all inclusive
+     */
+    public int[] rectangles(int area) {
+        return Arrays.copyOfRange(rects, areaRectStarts[area] * 4, areaRectStarts[area + 1] * 4);
+    }
+
+    /**
+     * Gets the areas of a tile type.
+     */
+    public int[] areasOfType(byte type) {
+        int count = 0;
+        for (byte areaType : areaTypes) {
+            if (areaType == type) {
+                count++;
+            }
+        }
+        int[] areas = new int[count];
+        count = 0;
+        for (int area = 0; area < areaCount; area++) {
+            if (areaTypes[area] == type) {
+                areas[count++] = area;
+            }
+        }
+        return areas;
+    }
+
+    /**
+     * Saves the area table, gzipped if the path ends with .gz.
+     *
+     * @param filePath the file to write
+     * @throws IOException if writing fails
+     */
+    public void save(String filePath) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filePath);
+             OutputStream out = filePath.endsWith(".gz") ? new GZIPOutputStream(fos) : fos;
+             DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(areaCount);
+            for (int area = 0; area < areaCount; area++) {
+                dos.writeByte(areaTypes[area]);
+                dos.writeByte(areaPlanes[area]);
+                dos.writeInt(areaTileCounts[area]);
+                for (int i = 0; i < 4; i++) {
+                    dos.writeInt(areaBounds[area * 4 + i]);
+                }
+                dos.writeInt(areaRectStarts[area + 1] - areaRectStarts[area]);
+                for (int i = areaRectStarts[area] * 4; i < areaRectStarts[area + 1] * 4; i++) {
+                    dos.writeShort(rects[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads an area table written by {@link #save}, gunzipping it if the path ends with .gz.
+     *
+     * @param filePath the file to read
+     * @return the area table
+     * @throws IOException if reading fails or the file does not hold tile type areas
+     */
+    public static TileTypeAreas load(String filePath) throws IOException {
+        try (FileInputStream fis = new FileInputStream(filePath);
+             InputStream in = filePath.endsWith(".gz") ? new GZIPInputStream(fis) : fis;
+             DataInputStream dis = new DataInputStream(new BufferedInputStream(in))) {
+            if (dis.readInt() != MAGIC) {
+                throw new IOException("Not a tile type area table: " + filePath);
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported tile type area table version " + version);
+            }
+            int areas = dis.readInt();
+            byte[] areaTypes = new byte[areas];
+            byte[] areaPlanes = new byte[areas];
+            int[] areaTileCounts = new int[areas];
+            int[] areaBounds = new int[areas * 4];
+            int[] areaRectStarts = new int[areas + 1];
+            int[] rects = new int[0];
+            for (int area = 0; area < areas; area++) {
+                areaTypes[area] = dis.readByte();
+                areaPlanes[area] = dis.readByte();
+                areaTileCounts[area] = dis.readInt();
+                for (int i = 0; i < 4; i++) {
+                    areaBounds[area * 4 + i] = dis.readInt();
+                }
+                int count = dis.readInt();
+                int from = areaRectStarts[area] * 4;
+                areaRectStarts[area + 1] = areaRectStarts[area] + count;
+                if (areaRectStarts[area + 1] * 4 > rects.length) {
+                    rects = Arrays.copyOf(rects, Math.max(areaRectStarts[area + 1] * 4, rects.length * 2));
+                }
+                for (int i = from; i < areaRectStarts[area + 1] * 4; i++) {
+                    rects[i] = dis.readUnsignedShort();
+                }
+            }
+            return new TileTypeAreas(areaTypes, areaPlanes, areaTileCounts, areaBounds, areaRectStarts,
+                    Arrays.copyOf(rects, areaRectStarts[areas] * 4));
+        }
+    }
+}
@@ -14,6 +14,16 @@ public class TileTypeMap {
         this.dataMap = dataMap;
     }
 
+    /**
+     * Creates a view of this map reading through a cursor, see {@link ITileDataMap#cursor()}.
+     * Hold one per search or render pass; it is not thread-safe.
+     *
+     * @return a cursor-backed view of this map
+     */
+    public TileTypeMap cursor() {
+        return new TileTypeMap(dataMap.cursor());
+    }
+
     public ICoordIndexer getIndexer() {
         return dataMap.getIndexer();
     }
@@ -22,6 +32,13 @@ public class TileTypeMap {
         return dataMap.isDataBitSet(x, y, plane, dataBitIndex);
     }
 
+    /**
+     * Gets one data bit for 64 consecutive tiles, bit {@code i} for the tile at {@code x + i}.
+     */
+    public long getDataBitWord(int x, int y, int plane, int dataBitIndex) {
+        return dataMap.getDataBitWord(x, y, plane, dataBitIndex);
+    }
+
     public byte getTileType(int x, int y, int plane) {
         int data = 0;
         for (int i = 0; i <= getIndexer().getMaxDataBitIndex(); i++) {
@@ -3,6 +3,7 @@ package osrs.dev.tiletypemap;
 import lombok.extern.slf4j.Slf4j;
 import osrs.dev.tiledatamap.ITileDataMap;
 import osrs.dev.tiledatamap.ITileDataMapWriter;
+import osrs.dev.tiledatamap.Planes;
 import osrs.dev.tiledatamap.roaring.RoaringTileDataMap;
 import osrs.dev.tiledatamap.roaring.RoaringTileDataMapWriter;
 import osrs.dev.tiledatamap.sparse.SparseTileDataMap;
@@ -45,6 +46,19 @@ public class TileTypeMapFactory {
      * @throws Exception if loading fails
      */
     public static TileTypeMap load(String filePath) throws Exception {
+        return load(filePath, Planes.ALL);
+    }
+
+    /**
+     * Loads a tile type map keeping only the selected planes, auto-detecting the format and handling gzip decompression.
+     * Memory use shrinks roughly in proportion to the planes left out.
+     *
+     * @param filePath path to the tile type map file
+     * @param planes   mask of planes to keep, see {@link Planes}
+     * @return the loaded tile type map
+     * @throws Exception if loading fails
+     */
+    public static TileTypeMap load(String filePath, int planes) throws Exception {
         File file = new File(filePath);
         if (!file.exists() || !file.isFile()) {
             System.err.println("File not found: " + filePath);
@@ -61,11 +75,11 @@ public class TileTypeMapFactory {
             ITileDataMap dataMap;
             switch (format) {
                 case ROARING:
-                    dataMap = RoaringTileDataMap.load(inputStream);
+                    dataMap = RoaringTileDataMap.load(inputStream, planes);
                     break;
                 case SPARSE_BITSET:
                 default:
-                    dataMap = SparseTileDataMap.load(inputStream);
+                    dataMap = SparseTileDataMap.load(inputStream, planes);
                     break;
             }
             return new TileTypeMap(dataMap);
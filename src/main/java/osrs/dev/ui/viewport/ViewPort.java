@@ -3,7 +3,9 @@ package osrs.dev.ui.viewport;
 import com.google.common.collect.ImmutableMap;
 import lombok.Getter;
 import osrs.dev.Main;
+import osrs.dev.collisionmap.CollisionMap;
 import osrs.dev.tiletypemap.TileType;
+import osrs.dev.tiletypemap.TileTypeMap;
 import osrs.dev.ui.ViewerMode;
 import osrs.dev.util.WorldPoint;
 import java.awt.*;
@@ -109,9 +111,10 @@ public class ViewPort
      * Renders collision data.
      */
     private void renderCollisionMode(Graphics2D g2d, int width, int height) {
-        if (Main.getCollision() == null) return;
+        CollisionMap collision = Main.getCollision();
+        if (collision == null) return;
 
-        Cell[][] cells = buildCells();
+        Cell[][] cells = buildCells(collision.cursor());
         for(Cell[] row : cells)
         {
             for(Cell cell : row)
@@ -125,7 +128,9 @@ public class ViewPort
      * Renders tile type data with color-coded tiles.
      */
     private void renderTileTypeMode(Graphics2D g2d, int width, int height) {
-        if (Main.getTileTypeMap() == null) return;
+        TileTypeMap snapshot = Main.getTileTypeMap();
+        if (snapshot == null) return;
+        TileTypeMap tileTypeMap = snapshot.cursor();
 
         if(lastPlane != base.getPlane())
         {
@@ -140,7 +145,7 @@ public class ViewPort
         {
             for(int y = 0; y < cellDim; y++)
             {
-                byte tileType = Main.getTileTypeMap().getTileType(base.getX() + x, base.getY() + y, displayPlane);
+                byte tileType = tileTypeMap.getTileType(base.getX() + x, base.getY() + y, displayPlane);
                 if (tileType > 0) {
                     Color color = getTileTypeColor(tileType);
                     g2d.setColor(color);
@@ -162,9 +167,10 @@ public class ViewPort
     /**
      * Builds the cells for the game world tiles
      *
+     * @param collision The collision map snapshot to render.
      * @return The cells for the game world.
      */
-    private Cell[][] buildCells()
+    private Cell[][] buildCells(CollisionMap collision)
     {
         if(lastPlane != base.getPlane())
         {
@@ -179,7 +185,7 @@ public class ViewPort
             for(int y = 0; y < cellDim; y++)
             {
                 cellPoint = new Point(x, y);
-                flag = Main.getCollision().all(base.getX() + x, base.getY() + y, displayPlane);
+                flag = collision.all(base.getX() + x, base.getY() + y, displayPlane);
                 cells[x][y] = new Cell(flag, cellPoint);
             }
         }
@@ -0,0 +1,121 @@
+package osrs.dev.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations for reading latency percentiles.
+ * Durations are counted in buckets that split each power of two into 8 steps, so a
+ * percentile is reported to within an eighth of its value while recording stays a single
+ * atomic increment.
+ * Thread-safe.
+ */
+public class LatencyRecorder
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Records one duration.
+     * @param nanos the duration in nanoseconds, negative durations count as 0
+     */
+    public void record(long nanos)
+    {
+        nanos = Math.max(nanos, 0);
+        counts.incrementAndGet(bucket(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean recorded duration, 0 before the first record.
+     */
+    public double getMeanNanos()
+    {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.sum() / (double) count;
+    }
+
+    /**
+     * Gets a percentile of the recorded durations.
+     * @param percentile the percentile, from 0 to 100
+     * @return the largest duration of the bucket holding the percentile, 0 before the first record
+     */
+    public long percentile(double percentile)
+    {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0)
+        {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= rank)
+            {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Clears the recorded durations. Durations recorded while clearing may be kept or lost.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%,d samples, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms",
+                getCount(), percentile(50) / 1e6, percentile(90) / 1e6, percentile(99) / 1e6, percentile(100) / 1e6);
+    }
+
+    private static int bucket(long nanos)
+    {
+        if (nanos < SUB_BUCKETS)
+        {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -4,6 +4,11 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import osrs.dev.collisionmap.CollisionMapFactory;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Parses command line options.
  */
@@ -11,9 +16,22 @@ import osrs.dev.collisionmap.CollisionMapFactory;
 @Slf4j
 public class OptionsParser
 {
+    public static final String LAYER_REGION_GRAPH = "graph";
+    public static final String LAYER_REGION_CONNECTIVITY = "connectivity";
+    public static final String LAYER_COMPONENTS = "components";
+    public static final String LAYER_TRANSPORTS = "transports";
+    public static final String LAYER_CLEARANCE = "clearance";
+    public static final String LAYER_TILE_TYPE_AREAS = "areas";
+    /**
+     * The layers the dumper derives from the saved maps, built unless {@code -derived} says otherwise.
+     */
+    public static final List<String> DERIVED_LAYERS = Arrays.asList(LAYER_REGION_GRAPH, LAYER_REGION_CONNECTIVITY,
+            LAYER_COMPONENTS, LAYER_TRANSPORTS, LAYER_CLEARANCE, LAYER_TILE_TYPE_AREAS);
+
     private String outputDir = System.getProperty("user.home") + "/VitaX/";
     private boolean freshCache = true;
     private CollisionMapFactory.Format format = CollisionMapFactory.Format.ROARING;
+    private Set<String> derivedLayers = new LinkedHashSet<>(DERIVED_LAYERS);
 
     public OptionsParser(String[] args) {
         for(int i = 0; i < args.length; ++i) {
@@ -34,10 +52,46 @@ public class OptionsParser
                         log.warn("Unknown format: {}, defaulting to RoaringBitmap", formatStr);
                     }
                     break;
+                case "-derived":
+                    derivedLayers = parseLayers(args[++i]);
+                    break;
             }
         }
     }
 
+    /**
+     * Parses the derived layers to build: {@code all}, {@code none} or a comma separated list
+     * of layer names, see {@link #DERIVED_LAYERS}.
+     */
+    private static Set<String> parseLayers(String value) {
+        Set<String> layers = new LinkedHashSet<>();
+        if ("all".equalsIgnoreCase(value)) {
+            layers.addAll(DERIVED_LAYERS);
+            return layers;
+        }
+        if ("none".equalsIgnoreCase(value)) {
+            return layers;
+        }
+        for (String name : value.split(",")) {
+            String layer = name.trim().toLowerCase();
+            if (DERIVED_LAYERS.contains(layer)) {
+                layers.add(layer);
+            } else if (!layer.isEmpty()) {
+                log.warn("Unknown derived layer: {}, expected one of {}", layer, DERIVED_LAYERS);
+            }
+        }
+        return layers;
+    }
+
+    /**
+     * Checks if a derived layer should be built.
+     *
+     * @param layer the layer name, see {@link #DERIVED_LAYERS}
+     */
+    public boolean isDerivedLayerEnabled(String layer) {
+        return derivedLayers.contains(layer);
+    }
+
     /**
      * Gets the collision map file path based on output directory and format.
      */
@@ -67,4 +121,70 @@ public class OptionsParser
             return dir + "tile_types_roaring.dat.gz";
         }
     }
+
+    /**
+     * Gets the region graph file path based on output directory.
+     */
+    public String getRegionGraphPath() {
+        String dir = outputDir;
+        if (!dir.endsWith("/") && !dir.endsWith("\\")) {
+            dir += "/";
+        }
+        return dir + "region_graph.dat.gz";
+    }
+
+    /**
+     * Gets the component map file path based on output directory.
+     */
+    public String getComponentMapPath() {
+        String dir = outputDir;
+        if (!dir.endsWith("/") && !dir.endsWith("\\")) {
+            dir += "/";
+        }
+        return dir + "components.dat.gz";
+    }
+
+    /**
+     * Gets the transport layer file path based on output directory.
+     */
+    public String getTransportLayerPath() {
+        String dir = outputDir;
+        if (!dir.endsWith("/") && !dir.endsWith("\\")) {
+            dir += "/";
+        }
+        return dir + "transports.dat.gz";
+    }
+
+    /**
+     * Gets the clearance map file path based on output directory.
+     */
+    public String getClearanceMapPath() {
+        String dir = outputDir;
+        if (!dir.endsWith("/") && !dir.endsWith("\\")) {
+            dir += "/";
+        }
+        return dir + "clearance.dat.gz";
+    }
+
+    /**
+     * Gets the tile type areas file path based on output directory.
+     */
+    public String getTileTypeAreasPath() {
+        String dir = outputDir;
+        if (!dir.endsWith("/") && !dir.endsWith("\\")) {
+            dir += "/";
+        }
+        return dir + "tile_type_areas.dat.gz";
+    }
+
+    /**
+     * Gets the region connectivity file path based on output directory.
+     */
+    public String getRegionConnectivityPath() {
+        String dir = outputDir;
+        if (!dir.endsWith("/") && !dir.endsWith("\\")) {
+            dir += "/";
+        }
+        return dir + "region_connectivity.dat.gz";
+    }
 }
@@ -0,0 +1,122 @@
+package osrs.dev.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Helpers for the 64x64 map regions the game world is divided into.
+ * Region ids pack the region's x index into the high byte and its y index into the low byte.
+ */
+public final class Regions
+{
+    public static final int SIZE = 64;
+    public static final int SHIFT = 6;
+
+    private Regions() {}
+
+    /**
+     * Gets the id of the region containing a tile.
+     * @param x the tile x coordinate
+     * @param y the tile y coordinate
+     * @return the region id
+     */
+    public static int id(int x, int y)
+    {
+        return ((x >> SHIFT) << 8) | (y >> SHIFT);
+    }
+
+    /**
+     * Gets the x coordinate of the south-west tile of a region.
+     * @param regionId the region id
+     * @return the base x coordinate
+     */
+    public static int baseX(int regionId)
+    {
+        return (regionId >> 8) << SHIFT;
+    }
+
+    /**
+     * Gets the y coordinate of the south-west tile of a region.
+     * @param regionId the region id
+     * @return the base y coordinate
+     */
+    public static int baseY(int regionId)
+    {
+        return (regionId & 0xFF) << SHIFT;
+    }
+
+    /**
+     * Creates a pool with one thread per processor for {@link #forEachParallel}, for builders
+     * that run several passes and keep per-thread state between them. The caller shuts it down.
+     * @return the pool
+     */
+    public static ExecutorService newWorkerPool()
+    {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Runs a task once per region slot on a pool with one thread per processor, for builders
+     * that process each region on its own. Tasks read the map through their own cursor and
+     * write their result into the slot they are given.
+     * @param slots the number of slots, the task being called with 0 to {@code slots - 1}
+     * @param task  the work for one slot
+     * @throws InterruptedException if interrupted while waiting for the tasks
+     * @throws ExecutionException   if a task failed
+     */
+    public static void forEachParallel(int slots, IntConsumer task) throws InterruptedException, ExecutionException
+    {
+        ExecutorService executor = newWorkerPool();
+        try
+        {
+            forEachParallel(executor, slots, task);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a task once per region slot on a given pool, as {@link #forEachParallel(int, IntConsumer)}.
+     * If a task fails or the caller is interrupted, the tasks not yet finished are cancelled.
+     * @param executor the pool to run the tasks on, left running
+     * @param slots    the number of slots, the task being called with 0 to {@code slots - 1}
+     * @param task     the work for one slot
+     * @throws InterruptedException if interrupted while waiting for the tasks
+     * @throws ExecutionException   if a task failed
+     */
+    public static void forEachParallel(ExecutorService executor, int slots, IntConsumer task) throws InterruptedException, ExecutionException
+    {
+        List<Future<?>> futures = new ArrayList<>(slots);
+        boolean done = false;
+        try
+        {
+            for (int slot = 0; slot < slots; slot++)
+            {
+                int s = slot;
+                futures.add(executor.submit(() -> task.accept(s)));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+            done = true;
+        }
+        finally
+        {
+            if (!done)
+            {
+                for (Future<?> future : futures)
+                {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+}
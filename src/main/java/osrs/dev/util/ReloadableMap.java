@@ -0,0 +1,247 @@
+package osrs.dev.util;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Holds a map loaded from a file and swaps in a fresh snapshot whenever the file changes.
+ * Readers call {@link #get()} once per unit of work and keep using that snapshot; a reload
+ * publishes the new map with a single volatile write, so readers never block and in-flight
+ * work finishes on the snapshot it started with.
+ *
+ * @param <T> the map type
+ */
+@Slf4j
+public class ReloadableMap<T> implements AutoCloseable
+{
+    /**
+     * Time to wait after the last file event before reloading, so a file that is still
+     * being written is not picked up half way.
+     */
+    private static final long DEBOUNCE_MILLIS = 750;
+
+    /**
+     * Loads a map from a file path.
+     *
+     * @param <T> the map type
+     */
+    @FunctionalInterface
+    public interface Loader<T>
+    {
+        T load(String filePath) throws Exception;
+    }
+
+    @Getter
+    private final Path file;
+    private final Loader<T> loader;
+    private final List<Consumer<T>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService reloadExecutor;
+    private volatile T current;
+    private ScheduledFuture<?> pendingReload;
+    private WatchService watchService;
+    private Thread watchThread;
+
+    @Getter
+    private volatile long lastReloadMillis = -1;
+    @Getter
+    private volatile int reloadCount;
+    @Getter
+    private volatile int failureCount;
+    @Getter
+    private volatile Throwable lastFailure;
+
+    /**
+     * Creates a holder for the map stored at the given path. Nothing is loaded until
+     * {@link #reload()} or {@link #startWatching()} is called.
+     *
+     * @param filePath the map file
+     * @param loader   the loader for the map file
+     */
+    public ReloadableMap(String filePath, Loader<T> loader)
+    {
+        this.file = Paths.get(filePath).toAbsolutePath();
+        this.loader = loader;
+        this.reloadExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "map-reload-" + file.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the current snapshot.
+     *
+     * @return the current map, or {@code null} if none has been loaded yet
+     */
+    public T get()
+    {
+        return current;
+    }
+
+    /**
+     * Registers a listener called with each newly swapped in snapshot.
+     * Listeners run on the reload thread.
+     *
+     * @param listener the listener
+     */
+    public void addReloadListener(Consumer<T> listener)
+    {
+        listeners.add(listener);
+    }
+
+    /**
+     * Loads the file on the calling thread and swaps the result in.
+     * On failure the previous snapshot stays in place.
+     *
+     * @return true if a new snapshot was swapped in
+     */
+    public synchronized boolean reload()
+    {
+        if (!Files.isRegularFile(file))
+        {
+            log.warn("Skipping reload, {} does not exist", file);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        T loaded;
+        try
+        {
+            loaded = loader.load(file.toString());
+            if (loaded == null)
+            {
+                throw new IOException("Loader returned no map for " + file);
+            }
+        }
+        catch (Throwable t)
+        {
+            failureCount++;
+            lastFailure = t;
+            log.error("Failed to reload {}, keeping previous snapshot", file, t);
+            return false;
+        }
+
+        current = loaded;
+        reloadCount++;
+        lastReloadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Reloaded {} in {} ms (reloads: {}, failures: {})", file.getFileName(), lastReloadMillis, reloadCount, failureCount);
+
+        for (Consumer<T> listener : listeners)
+        {
+            try
+            {
+                listener.accept(loaded);
+            }
+            catch (Throwable t)
+            {
+                log.error("Reload listener failed for {}", file, t);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Schedules a background reload after the debounce delay, replacing any pending one.
+     */
+    public void scheduleReload()
+    {
+        synchronized (reloadExecutor)
+        {
+            if (reloadExecutor.isShutdown())
+            {
+                return;
+            }
+            if (pendingReload != null)
+            {
+                pendingReload.cancel(false);
+            }
+            pendingReload = reloadExecutor.schedule(this::reload, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Watches the parent directory of the file and reloads in the background whenever
+     * the file is created or modified.
+     *
+     * @throws IOException if the directory cannot be watched
+     */
+    public synchronized void startWatching() throws IOException
+    {
+        if (watchService != null)
+        {
+            return;
+        }
+
+        Path dir = file.getParent();
+        watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        WatchService service = watchService;
+        watchThread = new Thread(() -> watch(service), "map-watch-" + file.getFileName());
+        watchThread.setDaemon(true);
+        watchThread.start();
+        log.debug("Watching {} for changes", file);
+    }
+
+    private void watch(WatchService service)
+    {
+        Path name = file.getFileName();
+        try
+        {
+            while (!Thread.currentThread().isInterrupted())
+            {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents())
+                {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context()))
+                    {
+                        scheduleReload();
+                    }
+                }
+                if (!key.reset())
+                {
+                    log.warn("Stopped watching {}, directory is no longer accessible", file);
+                    return;
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException ignored)
+        {
+        }
+    }
+
+    /**
+     * Stops watching and releases the reload thread. The current snapshot stays readable.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (watchThread != null)
+        {
+            watchThread.interrupt();
+            watchThread = null;
+        }
+        if (watchService != null)
+        {
+            try
+            {
+                watchService.close();
+            }
+            catch (IOException e)
+            {
+                log.debug("Failed to close watch service for {}", file, e);
+            }
+            watchService = null;
+        }
+        synchronized (reloadExecutor)
+        {
+            reloadExecutor.shutdownNow();
+        }
+    }
+}
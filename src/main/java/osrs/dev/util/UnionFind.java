@@ -0,0 +1,77 @@
+package osrs.dev.util;
+
+/**
+ * Disjoint sets over the integers {@code 0} to {@code size - 1}, for joining per-region
+ * labels into sets that span regions. Each set's root is its smallest member, so numbering
+ * the sets by root numbers them in order of their first member.
+ * Not thread-safe.
+ */
+public final class UnionFind
+{
+    private final int[] parents;
+    private int setCount;
+
+    /**
+     * Creates sets holding one member each.
+     * @param size the number of members
+     */
+    public UnionFind(int size)
+    {
+        this.parents = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            parents[i] = i;
+        }
+        this.setCount = size;
+    }
+
+    /**
+     * Joins the sets of two members.
+     */
+    public void union(int a, int b)
+    {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB)
+        {
+            parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+            setCount--;
+        }
+    }
+
+    /**
+     * Gets the root of a member's set, halving the path to it on the way.
+     * @param i the member
+     * @return the smallest member of its set
+     */
+    public int find(int i)
+    {
+        while (parents[i] != i)
+        {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Numbers the sets densely from 0 in order of their first member.
+     * @return the number of each member's set
+     */
+    public int[] labels()
+    {
+        int[] labels = new int[parents.length];
+        int count = 0;
+        for (int i = 0; i < parents.length; i++)
+        {
+            int root = find(i);
+            labels[i] = root == i ? count++ : labels[root];
+        }
+        return labels;
+    }
+
+    public int getSetCount()
+    {
+        return setCount;
+    }
+}
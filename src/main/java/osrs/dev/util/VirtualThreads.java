@@ -0,0 +1,34 @@
+package osrs.dev.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors running each task on its own virtual thread where the runtime has them.
+ * Virtual threads are looked up by reflection so the code still runs on older runtimes, which
+ * get a cached thread pool instead.
+ */
+@Slf4j
+public final class VirtualThreads
+{
+    private VirtualThreads() {}
+
+    /**
+     * Creates an executor starting a new virtual thread for each task.
+     * @return the executor, a cached thread pool if virtual threads are unavailable
+     */
+    public static ExecutorService newPerTaskExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            log.debug("Virtual threads unavailable, falling back to a cached thread pool");
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
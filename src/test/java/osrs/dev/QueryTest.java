@@ -0,0 +1,160 @@
+package osrs.dev;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.collisionmap.CollisionMapWriter;
+import osrs.dev.tiletypemap.TileType;
+import osrs.dev.tiletypemap.TileTypeMap;
+import osrs.dev.tiletypemap.TileTypeMapFactory;
+import osrs.dev.tiletypemap.TileTypeMapWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Query Tests")
+class QueryTest {
+    private static final int MIN = 3200;
+    private static final int SPAN = 40;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("CSV coordinates split over many chunks should be annotated in order")
+    void testCsv() throws Exception {
+        CollisionMap collisionMap = collisionMap();
+        TileTypeMap tileTypeMap = tileTypeMap();
+        Random random = new Random(11);
+        int[][] coords = coords(random, 2000);
+        StringBuilder csv = new StringBuilder("x,y,plane\r\n");
+        for (int[] c : coords) {
+            csv.append(c[0]).append(',').append(c[1]).append(',').append(c[2]).append(random.nextBoolean() ? "\n" : "\r\n");
+            if (random.nextInt(50) == 0) {
+                csv.append('\n');
+            }
+        }
+        Path input = tempDir.resolve("coords.csv");
+        Path output = tempDir.resolve("annotated.csv");
+        Files.write(input, csv.toString().getBytes(StandardCharsets.US_ASCII));
+
+        // Small chunks so lines regularly straddle chunk borders
+        assertEquals(coords.length, Query.annotate(collisionMap, tileTypeMap, input, output, 3, 97));
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.US_ASCII);
+        assertEquals(coords.length, lines.size());
+        for (int i = 0; i < coords.length; i++) {
+            int[] c = coords[i];
+            String expected = c[0] + "," + c[1] + "," + c[2] + ","
+                    + (collisionMap.all(c[0], c[1], c[2]) & 0xFF) + "," + tileTypeMap.getTileType(c[0], c[1], c[2]);
+            assertEquals(expected, lines.get(i), "line " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Binary coordinates should give a flags and a tile type byte each")
+    void testBinary() throws Exception {
+        CollisionMap collisionMap = collisionMap();
+        TileTypeMap tileTypeMap = tileTypeMap();
+        int[][] coords = coords(new Random(13), 5000);
+        Path input = tempDir.resolve("coords.bin");
+        Path output = tempDir.resolve("annotated.bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(input)))) {
+            for (int[] c : coords) {
+                out.writeInt(c[0]);
+                out.writeInt(c[1]);
+                out.writeInt(c[2]);
+            }
+        }
+
+        assertEquals(coords.length, Query.annotate(collisionMap, tileTypeMap, input, output, 4, 12 * 333));
+
+        byte[] annotated = Files.readAllBytes(output);
+        assertEquals(coords.length * 2, annotated.length);
+        for (int i = 0; i < coords.length; i++) {
+            int[] c = coords[i];
+            assertEquals(collisionMap.all(c[0], c[1], c[2]), annotated[i * 2], "flags " + i);
+            assertEquals(tileTypeMap.getTileType(c[0], c[1], c[2]), annotated[i * 2 + 1], "type " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Coordinates outside the map layout should read as 0 rather than wrap onto other tiles")
+    void testOutOfRange() throws Exception {
+        CollisionMapWriter collisionWriter = CollisionMapFactory.createWriter(CollisionMapFactory.Format.ROARING);
+        TileTypeMapWriter tileTypeWriter = TileTypeMapFactory.createWriter(TileTypeMapFactory.Format.ROARING);
+        // Open tiles with a type, which the out of range rows below would wrap onto
+        tileTypeWriter.setTileType(3200, 3200, 0, TileType.WATER);
+        tileTypeWriter.setTileType(4496, 3200, 0, TileType.WATER);
+        String collisionPath = tempDir.resolve("edge_map_roaring.dat").toString();
+        String tileTypePath = tempDir.resolve("edge_tile_types_roaring.dat").toString();
+        collisionWriter.save(collisionPath);
+        tileTypeWriter.save(tileTypePath);
+        CollisionMap collisionMap = CollisionMapFactory.load(collisionPath);
+        TileTypeMap tileTypeMap = TileTypeMapFactory.load(tileTypePath);
+
+        Path input = tempDir.resolve("edge.csv");
+        Path output = tempDir.resolve("edge_annotated.csv");
+        Files.write(input, "3200,3200,0\n7296,3200,0\n3200,19584,0\n400,3200,0\n3200,3200,4\n".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(5, Query.annotate(collisionMap, tileTypeMap, input, output, 1));
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.US_ASCII);
+        assertEquals("3200,3200,0," + (collisionMap.all(3200, 3200, 0) & 0xFF) + "," + TileType.WATER, lines.get(0));
+        assertEquals("7296,3200,0,0,0", lines.get(1));
+        assertEquals("3200,19584,0,0,0", lines.get(2));
+        assertEquals("400,3200,0,0,0", lines.get(3));
+        assertEquals("3200,3200,4,0,0", lines.get(4));
+    }
+
+    @Test
+    @DisplayName("Malformed input should be rejected")
+    void testMalformed() throws Exception {
+        CollisionMap collisionMap = collisionMap();
+        Path csv = tempDir.resolve("bad.csv");
+        Files.write(csv, "3200,3200,0\n3200,x,0\n".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IOException.class, () -> Query.annotate(collisionMap, null, csv, tempDir.resolve("out.csv"), 1));
+        Path binary = tempDir.resolve("bad.bin");
+        Files.write(binary, new byte[13]);
+        assertThrows(IOException.class, () -> Query.annotate(collisionMap, null, binary, tempDir.resolve("out.bin"), 1));
+    }
+
+    private static int[][] coords(Random random, int count) {
+        int[][] coords = new int[count][];
+        for (int i = 0; i < count; i++) {
+            coords[i] = new int[]{MIN + random.nextInt(SPAN), MIN + random.nextInt(SPAN), random.nextInt(2)};
+        }
+        return coords;
+    }
+
+    private CollisionMap collisionMap() throws Exception {
+        CollisionMapWriter writer = CollisionMapFactory.createWriter(CollisionMapFactory.Format.ROARING);
+        Random random = new Random(5);
+        for (int i = 0; i < 300; i++) {
+            writer.eastBlocking(MIN + random.nextInt(SPAN), MIN + random.nextInt(SPAN), random.nextInt(2), true);
+            writer.northBlocking(MIN + random.nextInt(SPAN), MIN + random.nextInt(SPAN), random.nextInt(2), true);
+        }
+        String path = tempDir.resolve("map_roaring.dat").toString();
+        writer.save(path);
+        return CollisionMapFactory.load(path);
+    }
+
+    private TileTypeMap tileTypeMap() throws Exception {
+        TileTypeMapWriter writer = TileTypeMapFactory.createWriter(TileTypeMapFactory.Format.ROARING);
+        Random random = new Random(7);
+        for (int i = 0; i < 400; i++) {
+            writer.setTileType(MIN + random.nextInt(SPAN), MIN + random.nextInt(SPAN), random.nextInt(2),
+                    random.nextBoolean() ? TileType.WATER : TileType.KELP_WATER);
+        }
+        String path = tempDir.resolve("tile_types_roaring.dat").toString();
+        writer.save(path);
+        return TileTypeMapFactory.load(path);
+    }
+}
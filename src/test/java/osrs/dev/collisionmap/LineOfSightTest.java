@@ -0,0 +1,76 @@
+package osrs.dev.collisionmap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LineOfSight Tests")
+class LineOfSightTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CollisionMap build(Random random) throws Exception {
+        CollisionMapWriter writer = CollisionMapFactory.createWriter(CollisionMapFactory.Format.ROARING);
+        // A wall along the east edge of x = 3205
+        for (int y = 3195; y <= 3205; y++) {
+            writer.eastBlocking(3205, y, 0, true);
+        }
+        for (int i = 0; i < 400; i++) {
+            writer.fullBlocking(3100 + random.nextInt(200), 3250 + random.nextInt(100), 0, true);
+        }
+        String path = tempDir.resolve("map_roaring.dat").toString();
+        writer.save(path);
+        return CollisionMapFactory.load(path);
+    }
+
+    @Test
+    @DisplayName("Walls should block sight across them only")
+    void testWall() throws Exception {
+        CollisionMap map = build(new Random(5));
+        LineOfSight sight = new LineOfSight(map);
+
+        assertTrue(sight.hasLineOfSight(3200, 3200, 3205, 3203, 0));
+        assertFalse(sight.hasLineOfSight(3200, 3200, 3206, 3200, 0));
+        assertFalse(sight.hasLineOfSight(3210, 3198, 3201, 3204, 0));
+        assertTrue(sight.hasLineOfSight(3200, 3200, 3210, 3220, 0));
+        assertTrue(sight.hasLineOfSight(3200, 3200, 3200, 3200, 0));
+        assertTrue(map.hasLineOfSight(3206, 3190, 3206, 3210, 0));
+    }
+
+    @Test
+    @DisplayName("Sight should be symmetric and batches should match single queries")
+    void testBatchMatchesSingle() throws Exception {
+        Random random = new Random(9);
+        CollisionMap map = build(random);
+        LineOfSight sight = new LineOfSight(map);
+        int[] xs = new int[300];
+        int[] ys = new int[300];
+        boolean[] out = new boolean[300];
+
+        for (int source = 0; source < 20; source++) {
+            int x = 3130 + random.nextInt(140);
+            int y = 3270 + random.nextInt(60);
+            int range = source % 2 == 0 ? 20 : LineOfSight.SHORT_RANGE;
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = x + random.nextInt(range * 2 + 1) - range;
+                ys[i] = y + random.nextInt(range * 2 + 1) - range;
+            }
+            int count = sight.visible(x, y, 0, xs, ys, out);
+
+            int expected = 0;
+            for (int i = 0; i < xs.length; i++) {
+                boolean single = sight.hasLineOfSight(x, y, xs[i], ys[i], 0);
+                assertEquals(single, out[i], "ray to " + xs[i] + "," + ys[i]);
+                assertEquals(single, sight.hasLineOfSight(xs[i], ys[i], x, y, 0));
+                expected += single ? 1 : 0;
+            }
+            assertEquals(expected, count);
+        }
+    }
+}
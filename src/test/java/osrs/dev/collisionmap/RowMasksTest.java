@@ -0,0 +1,114 @@
+package osrs.dev.collisionmap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.tiledatamap.ITileDataMapWriter;
+import osrs.dev.tiledatamap.roaring.RoaringTileDataMap;
+import osrs.dev.tiledatamap.roaring.RoaringTileDataMapWriter;
+import osrs.dev.tiledatamap.sparse.SparseTileDataMap;
+import osrs.dev.tiledatamap.sparse.SparseTileDataMapWriter;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RowMasks Tests")
+class RowMasksTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void fill(ITileDataMapWriter writer) {
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            writer.setDataBit(3100 + random.nextInt(300), 3100 + random.nextInt(300), 0, random.nextInt(2));
+        }
+        // A fully blocked strip crossing a word boundary
+        for (int x = 3190; x < 3270; x++) {
+            writer.setDataBit(x, 3050, 0, 0);
+            writer.setDataBit(x, 3050, 0, 1);
+        }
+    }
+
+    private static void assertMatchesTiles(CollisionMap map) {
+        for (int y = 3090; y < 3410; y += 7) {
+            for (int x = 3090; x < 3410; x += 13) {
+                long north = map.northBlockedMask(x, y, 0);
+                long east = map.eastBlockedMask(x, y, 0);
+                long south = map.southBlockedMask(x, y, 0);
+                long west = map.westBlockedMask(x, y, 0);
+                for (int i = 0; i < 64; i++) {
+                    assertEquals(!map.pathableNorth(x + i, y, 0), (north >>> i & 1) != 0);
+                    assertEquals(!map.pathableEast(x + i, y, 0), (east >>> i & 1) != 0);
+                    assertEquals(!map.pathableSouth(x + i, y, 0), (south >>> i & 1) != 0);
+                    assertEquals(!map.pathableWest(x + i, y, 0), (west >>> i & 1) != 0);
+                }
+            }
+        }
+
+        long[] all = new long[8];
+        long[] north = new long[9];
+        long[] east = new long[9];
+        long[] aligned = new long[8];
+        for (int y = 3095; y < 3405; y += 11) {
+            map.allMasks(3100, y, 0, all);
+            for (int i = 0; i < 9; i++) {
+                north[i] = map.northBlockedMask(3100 + (i % 3 - 1) * 64, y + i / 3 - 1, 0);
+                east[i] = map.eastBlockedMask(3100 + (i % 3 - 1) * 64, y + i / 3 - 1, 0);
+            }
+            CollisionMap.allMasks(north, east, aligned);
+            assertArrayEquals(all, aligned);
+            for (int i = 0; i < 64; i++) {
+                int flags = 0;
+                for (int bit = 0; bit < 8; bit++) {
+                    flags |= (int) (all[bit] >>> i & 1) << bit;
+                }
+                assertEquals(map.all(3100 + i, y, 0) & 0xFF, flags, "x=" + (3100 + i) + " y=" + y);
+            }
+        }
+
+        RowMasks masks = map.fillRowMasks(3180, 3050, 0, new RowMasks(100));
+        assertEquals(2, masks.getWords());
+        for (int x = 3180; x < 3280; x++) {
+            int word = (x - 3180) >> 6;
+            long bit = 1L << ((x - 3180) & 63);
+            assertEquals(map.isBlocked(x, 3050, 0), (masks.blocked(word) & bit) != 0, "x=" + x);
+            assertEquals(map.pathableWest(x, 3050, 0), (masks.pathableWest(word) & bit) != 0, "x=" + x);
+        }
+        assertEquals(0L, masks.pathableNorth(1) >>> 36);
+    }
+
+    @Test
+    @DisplayName("Roaring row masks should match per-tile lookups")
+    void testRoaringRowMasks() throws Exception {
+        RoaringTileDataMapWriter writer = new RoaringTileDataMapWriter();
+        fill(writer);
+        String path = tempDir.resolve("map_roaring.dat").toString();
+        writer.save(path);
+
+        try (InputStream in = new FileInputStream(path)) {
+            CollisionMap map = new CollisionMap(RoaringTileDataMap.load(in));
+            assertMatchesTiles(map);
+            assertMatchesTiles(map.cursor());
+        }
+    }
+
+    @Test
+    @DisplayName("Sparse row masks should match per-tile lookups")
+    void testSparseRowMasks() throws Exception {
+        SparseTileDataMapWriter writer = new SparseTileDataMapWriter();
+        fill(writer);
+        String path = tempDir.resolve("map_sparse.dat").toString();
+        writer.save(path);
+
+        try (InputStream in = new FileInputStream(path)) {
+            CollisionMap map = new CollisionMap(SparseTileDataMap.load(in));
+            assertMatchesTiles(map);
+            assertMatchesTiles(map.cursor());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AStarPathfinder Tests")
+class AStarPathfinderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Open ground should give a path of octile cost")
+    void testOpenGround() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        AStarPathfinder pathfinder = new AStarPathfinder(map, 64);
+
+        PathResult result = pathfinder.find(3200, 3200, 3210, 3204, 0);
+
+        assertTrue(result.isFound());
+        assertEquals(6 * 10 + 4 * 14, result.getCost());
+        assertEquals(10, result.getSteps());
+    }
+
+    @Test
+    @DisplayName("A* should agree with BFS on reachability in a scattered map")
+    void testMatchesBfsReachability() throws Exception {
+        Random random = new Random(5);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 900; i++) {
+                writer.fullBlocking(3180 + random.nextInt(60), 3180 + random.nextInt(60), 0, true);
+            }
+        });
+        AStarPathfinder astar = new AStarPathfinder(map, 128);
+        BfsPathfinder bfs = new BfsPathfinder(map, 128);
+
+        for (int i = 0; i < 50; i++) {
+            int sx = 3180 + random.nextInt(60), sy = 3180 + random.nextInt(60);
+            int gx = 3180 + random.nextInt(60), gy = 3180 + random.nextInt(60);
+            PathResult a = astar.find(sx, sy, gx, gy, 0);
+            PathResult b = bfs.find(sx, sy, gx, gy, 0);
+            assertEquals(b.isFound(), a.isFound());
+            if (a.isFound()) {
+                assertTrue(TestMaps.isWalkable(map, a.getPath()));
+                assertTrue(a.getSteps() >= b.getSteps());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Node budget and timeout should stop the search")
+    void testLimits() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> TestMaps.eastWall(writer, 3205, 3150, 3250));
+        AStarPathfinder pathfinder = new AStarPathfinder(map, 256);
+
+        assertEquals(PathResult.Status.NODE_BUDGET_EXHAUSTED, pathfinder.find(3200, 3200, 3210, 3200, 0, 100, Long.MAX_VALUE).getStatus());
+        assertEquals(PathResult.Status.TIMED_OUT, pathfinder.find(3200, 3200, 3210, 3200, 0, Integer.MAX_VALUE, 0).getStatus());
+        assertEquals(PathResult.Status.FOUND, pathfinder.find(3200, 3200, 3210, 3200, 0).getStatus());
+    }
+
+    @Test
+    @DisplayName("Nearest goal search should reach the goal with the cheapest path")
+    void testFindNearest() throws Exception {
+        Random random = new Random(9);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 900; i++) {
+                writer.fullBlocking(3180 + random.nextInt(60), 3180 + random.nextInt(60), 0, true);
+            }
+        });
+        AStarPathfinder pathfinder = new AStarPathfinder(map, 128);
+        AStarPathfinder single = new AStarPathfinder(map, 128);
+
+        for (int i = 0; i < 30; i++) {
+            GoalSet goals = new GoalSet();
+            for (int g = 0; g < 40; g++) {
+                goals.add(3180 + random.nextInt(60), 3180 + random.nextInt(60), 0);
+            }
+            int sx = 3180 + random.nextInt(60), sy = 3180 + random.nextInt(60);
+            int best = Integer.MAX_VALUE;
+            for (int goal : goals.toArray()) {
+                PathResult result = single.find(sx, sy, Coords.x(goal), Coords.y(goal), 0);
+                if (result.isFound()) {
+                    best = Math.min(best, result.getCost());
+                }
+            }
+
+            NearestGoal nearest = pathfinder.findNearest(sx, sy, 0, goals);
+            assertEquals(best != Integer.MAX_VALUE, nearest.isFound());
+            if (nearest.isFound()) {
+                int[] path = nearest.getResult().getPath();
+                assertEquals(Coords.pack(sx, sy, 0), path[0]);
+                assertEquals(nearest.getGoal(), path[path.length - 1]);
+                assertTrue(goals.contains(Coords.x(nearest.getGoal()), Coords.y(nearest.getGoal()), 0));
+                assertTrue(TestMaps.isWalkable(map, path));
+                assertEquals(best, nearest.getResult().getCost());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A search run in slices should return partial paths and end on the cheapest path")
+    void testResumableSearch() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> TestMaps.eastWall(writer, 3205, 3150, 3250));
+        AStarPathfinder pathfinder = new AStarPathfinder(map, 256);
+        int expectedCost = pathfinder.find(3200, 3200, 3210, 3200, 0).getCost();
+        int wholeSearch = pathfinder.find(3200, 3200, 3210, 3200, 0).getNodesExpanded();
+
+        AStarPathfinder.Search search = pathfinder.start(3200, 3200, 3210, 3200, 0);
+        PathResult slice = search.resume(100, Long.MAX_VALUE);
+        assertEquals(PathResult.Status.NODE_BUDGET_EXHAUSTED, slice.getStatus());
+        assertTrue(slice.isPartial());
+        assertEquals(Coords.pack(3200, 3200, 0), slice.getPath()[0]);
+        assertTrue(TestMaps.isWalkable(map, slice.getPath()));
+        int last = slice.getPath()[slice.getPath().length - 1];
+        assertTrue(Directions.octile(Coords.x(last), Coords.y(last), 3210, 3200) <= Directions.octile(3200, 3200, 3210, 3200));
+
+        int slices = 1;
+        while (!search.isDone()) {
+            slice = search.resume(100, Long.MAX_VALUE);
+            slices++;
+        }
+        assertTrue(slice.isFound());
+        assertEquals(expectedCost, slice.getCost());
+        // Resuming carries on rather than starting over
+        assertEquals(wholeSearch, search.getNodesExpanded());
+        assertTrue(slices > 1);
+        assertSame(slice, search.resume(100, Long.MAX_VALUE));
+
+        AStarPathfinder.Search superseded = pathfinder.start(3200, 3200, 3210, 3200, 0);
+        pathfinder.find(3200, 3200, 3201, 3201, 0);
+        assertThrows(IllegalStateException.class, () -> superseded.resume(100, Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("An unreachable goal should give the path to the nearest reachable tile")
+    void testResumableUnreachable() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            // Shut the goal in a one tile cell
+            writer.fullBlocking(3210, 3200, 0, true);
+        });
+        AStarPathfinder pathfinder = new AStarPathfinder(map, 64);
+        AStarPathfinder.Search search = pathfinder.start(3200, 3200, 3210, 3200, 0);
+        PathResult result = search.resume(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        assertTrue(search.isDone());
+        assertEquals(PathResult.Status.UNREACHABLE, result.getStatus());
+        assertTrue(result.isPartial());
+        int last = result.getPath()[result.getPath().length - 1];
+        assertEquals(10, Directions.octile(Coords.x(last), Coords.y(last), 3210, 3200));
+        assertEquals(9, result.getSteps());
+    }
+}
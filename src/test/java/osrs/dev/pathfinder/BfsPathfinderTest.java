@@ -0,0 +1,84 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BfsPathfinder Tests")
+class BfsPathfinderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Open ground should give a path of Chebyshev length")
+    void testOpenGround() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        BfsPathfinder pathfinder = new BfsPathfinder(map, 64);
+
+        PathResult result = pathfinder.find(3200, 3200, 3210, 3204, 0);
+
+        assertTrue(result.isFound());
+        assertEquals(10, result.getSteps());
+        assertEquals(Coords.pack(3200, 3200, 0), result.getPath()[0]);
+        assertEquals(Coords.pack(3210, 3204, 0), result.getPath()[10]);
+        assertTrue(result.getNodesExpanded() > 0);
+    }
+
+    @Test
+    @DisplayName("Walls should force a detour through the gap")
+    void testWallDetour() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> TestMaps.eastWall(writer, 3205, 3190, 3209));
+        BfsPathfinder pathfinder = new BfsPathfinder(map, 64);
+
+        PathResult result = pathfinder.find(3200, 3200, 3210, 3200, 0);
+
+        assertTrue(result.isFound());
+        assertTrue(TestMaps.isWalkable(map, result.getPath()));
+        // Diagonals may not cut the wall end, so the gap costs one extra step
+        assertEquals(21, result.getSteps());
+    }
+
+    @Test
+    @DisplayName("Enclosed goals and goals outside the window should not be found")
+    void testUnreachable() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> writer.fullBlocking(3210, 3210, 0, true));
+        BfsPathfinder pathfinder = new BfsPathfinder(map, 64);
+
+        assertFalse(pathfinder.find(3200, 3200, 3210, 3210, 0).isFound());
+        assertFalse(pathfinder.find(3200, 3200, 3300, 3200, 0).isFound());
+        // Reusing the pathfinder must not leak visited state between searches
+        assertEquals(5, pathfinder.find(3200, 3200, 3205, 3200, 0).getSteps());
+        assertEquals(5, pathfinder.find(3200, 3200, 3205, 3200, 0).getSteps());
+    }
+
+    @Test
+    @DisplayName("A goal on the far edge of the search window should still be reached")
+    void testGoalOnWindowEdge() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        AStarPathfinder astar = new AStarPathfinder(map, 64);
+
+        for (int[] goal : new int[][]{{3263, 3200}, {3200, 3263}, {3137, 3200}, {3263, 3263}}) {
+            PathResult[] results = {
+                    astar.find(3200, 3200, goal[0], goal[1], 0),
+                    new BfsPathfinder(map, 64).find(3200, 3200, goal[0], goal[1], 0),
+                    new JumpPointPathfinder(map, 64).find(3200, 3200, goal[0], goal[1], 0),
+                    new BidirectionalPathfinder(map, 64).find(3200, 3200, goal[0], goal[1], 0),
+                    astar.start(3200, 3200, goal[0], goal[1], 0).resume(Integer.MAX_VALUE, Long.MAX_VALUE)
+            };
+            for (PathResult result : results) {
+                assertTrue(result.isFound());
+                int last = result.getPath()[result.getPath().length - 1];
+                assertEquals(goal[0], Coords.x(last));
+                assertEquals(goal[1], Coords.y(last));
+                assertTrue(TestMaps.isWalkable(map, result.getPath()));
+            }
+        }
+        assertEquals(PathResult.Status.OUT_OF_WINDOW, astar.find(3200, 3200, 3264, 3200, 0).getStatus());
+    }
+}
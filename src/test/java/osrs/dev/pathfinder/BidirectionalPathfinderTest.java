@@ -0,0 +1,49 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BidirectionalPathfinder Tests")
+class BidirectionalPathfinderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Bidirectional paths should be as short as BFS paths")
+    void testMatchesBfs() throws Exception {
+        Random random = new Random(29);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 1200; i++) {
+                writer.fullBlocking(3160 + random.nextInt(80), 3160 + random.nextInt(80), 0, true);
+            }
+            for (int i = 0; i < 400; i++) {
+                writer.northBlocking(3160 + random.nextInt(80), 3160 + random.nextInt(80), 0, true);
+                writer.eastBlocking(3160 + random.nextInt(80), 3160 + random.nextInt(80), 0, true);
+            }
+        });
+        BfsPathfinder bfs = new BfsPathfinder(map, 128);
+        BidirectionalPathfinder bidirectional = new BidirectionalPathfinder(map, 128);
+
+        for (int i = 0; i < 300; i++) {
+            int sx = 3160 + random.nextInt(80), sy = 3160 + random.nextInt(80);
+            int gx = 3160 + random.nextInt(80), gy = 3160 + random.nextInt(80);
+            PathResult expected = bfs.find(sx, sy, gx, gy, 0);
+            PathResult actual = bidirectional.find(sx, sy, gx, gy, 0);
+            assertEquals(expected.isFound(), actual.isFound(), "from " + sx + "," + sy + " to " + gx + "," + gy);
+            if (actual.isFound()) {
+                assertEquals(expected.getSteps(), actual.getSteps());
+                assertEquals(Coords.pack(sx, sy, 0), actual.getPath()[0]);
+                assertEquals(Coords.pack(gx, gy, 0), actual.getPath()[actual.getPath().length - 1]);
+                assertTrue(TestMaps.isWalkable(map, actual.getPath()));
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.roaringbitmap.RoaringBitmap;
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BitboardReachability Tests")
+class BitboardReachabilityTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Step distances should match BFS across word boundaries")
+    void testMatchesBfs() throws Exception {
+        Random random = new Random(31);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 1500; i++) {
+                writer.fullBlocking(3150 + random.nextInt(100), 3150 + random.nextInt(100), 0, true);
+            }
+            for (int i = 0; i < 300; i++) {
+                writer.northBlocking(3150 + random.nextInt(100), 3150 + random.nextInt(100), 0, true);
+                writer.eastBlocking(3150 + random.nextInt(100), 3150 + random.nextInt(100), 0, true);
+            }
+        });
+        ReachableArea area = new BitboardReachability(map, 128).expand(3200, 3200, 0, 1000);
+        BfsPathfinder bfs = new BfsPathfinder(map, 128);
+
+        for (int i = 0; i < 300; i++) {
+            int x = 3150 + random.nextInt(100);
+            int y = 3150 + random.nextInt(100);
+            PathResult expected = bfs.find(3200, 3200, x, y, 0);
+            assertEquals(expected.isFound() ? expected.getSteps() : -1, area.distance(x, y), "to " + x + "," + y);
+        }
+        assertEquals(area.count(), area.toBitmap().getCardinality());
+        assertTrue(area.ring(0).contains(Coords.pack(3200, 3200, 0)));
+    }
+
+    @Test
+    @DisplayName("Expansion should stop at the step limit")
+    void testStepLimit() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        ReachableArea area = new BitboardReachability(map, 64).expand(3200, 3200, 0, 5);
+
+        assertEquals(5, area.getMaxDistance());
+        assertEquals(11 * 11, area.count());
+        RoaringBitmap ring = area.ring(5);
+        assertEquals(40, ring.getCardinality());
+        assertEquals(5, area.distance(3195, 3205));
+        assertEquals(-1, area.distance(3194, 3200));
+    }
+}
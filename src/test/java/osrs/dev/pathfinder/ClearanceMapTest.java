@@ -0,0 +1,99 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ClearanceMap Tests")
+class ClearanceMapTest {
+    private static final int MIN = 3136;
+    private static final int SPAN = Regions.SIZE * 2;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Distances should match a brute force search across region borders")
+    void testMatchesBruteForce() throws Exception {
+        Random random = new Random(29);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 3000; i++) {
+                writer.fullBlocking(MIN + random.nextInt(SPAN), MIN + random.nextInt(SPAN), 0, true);
+            }
+            // A lake straddling the border between the two western regions
+            for (int x = MIN + 10; x < MIN + 40; x++) {
+                for (int y = MIN + 45; y < MIN + 85; y++) {
+                    writer.fullBlocking(x, y, 0, true);
+                }
+            }
+        });
+        List<Integer> regionIds = new ArrayList<>();
+        for (int x = MIN; x < MIN + SPAN; x += Regions.SIZE) {
+            for (int y = MIN; y < MIN + SPAN; y += Regions.SIZE) {
+                regionIds.add(Regions.id(x, y));
+            }
+        }
+        String path = tempDir.resolve("clearance.dat.gz").toString();
+        DistanceTransform.compute(map, regionIds, 1).save(path);
+        ClearanceMap clearance = ClearanceMap.load(path);
+
+        for (int i = 0; i < 400; i++) {
+            int x = MIN + random.nextInt(SPAN);
+            int y = MIN + random.nextInt(SPAN);
+            boolean walkable = !map.isBlocked(x, y, 0);
+            int expected = nearest(map, x, y, !walkable);
+            assertEquals(walkable, clearance.isWalkable(x, y, 0), x + "," + y);
+            if (walkable) {
+                assertEquals(Math.min(expected, ClearanceMap.MAX_DISTANCE), clearance.clearance(x, y, 0), x + "," + y);
+            } else {
+                assertEquals(expected < ClearanceMap.MAX_DISTANCE ? expected : -1, clearance.distanceToWalkable(x, y, 0), x + "," + y);
+            }
+        }
+
+        // The middle of the lake is 15 tiles from its shore, wherever that is closest
+        assertEquals(15, clearance.distanceToWalkable(MIN + 24, MIN + 65, 0));
+        int nearest = clearance.nearestWalkable(MIN + 24, MIN + 65, 0);
+        assertTrue(nearest >= 0);
+        assertFalse(map.isBlocked(Coords.x(nearest), Coords.y(nearest), 0));
+        assertEquals(15, Math.max(Math.abs(Coords.x(nearest) - (MIN + 24)), Math.abs(Coords.y(nearest) - (MIN + 65))));
+        int x = MIN + 50;
+        while (map.isBlocked(x, MIN + 65, 0)) {
+            x++;
+        }
+        assertEquals(Coords.pack(x, MIN + 65, 0), clearance.nearestWalkable(x, MIN + 65, 0));
+        assertEquals(-1, clearance.nearestWalkable(MIN - 200, MIN, 0));
+    }
+
+    /**
+     * Finds the distance on either axis to the nearest tile that is blocked, or not, by brute force.
+     * Tiles outside the transformed area count as blocked.
+     */
+    private static int nearest(CollisionMap map, int x, int y, boolean walkable) {
+        for (int d = 1; d <= ClearanceMap.MAX_DISTANCE; d++) {
+            for (int dx = -d; dx <= d; dx++) {
+                for (int dy = -d; dy <= d; dy++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != d) {
+                        continue;
+                    }
+                    int tx = x + dx;
+                    int ty = y + dy;
+                    boolean inside = tx >= MIN && ty >= MIN && tx < MIN + SPAN && ty < MIN + SPAN;
+                    boolean open = inside && !map.isBlocked(tx, ty, 0);
+                    if (open == walkable) {
+                        return d;
+                    }
+                }
+            }
+        }
+        return ClearanceMap.MAX_DISTANCE;
+    }
+}
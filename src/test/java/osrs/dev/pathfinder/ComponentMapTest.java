@@ -0,0 +1,72 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ComponentMap Tests")
+class ComponentMapTest {
+    private static final int MIN = 3136;
+    private static final int SPAN = Regions.SIZE * 2;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Components should match BFS reachability across region borders")
+    void testMatchesBfs() throws Exception {
+        Random random = new Random(17);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 5000; i++) {
+                int x = MIN + random.nextInt(SPAN);
+                int y = MIN + random.nextInt(SPAN);
+                if (x < MIN + 56 || x > MIN + 70 || y < MIN + 17 || y > MIN + 31) {
+                    writer.fullBlocking(x, y, 0, true);
+                }
+            }
+            for (int i = 0; i < SPAN; i++) {
+                writer.eastBlocking(MIN - 1, MIN + i, 0, true);
+                writer.eastBlocking(MIN + SPAN - 1, MIN + i, 0, true);
+                writer.northBlocking(MIN + i, MIN - 1, 0, true);
+                writer.northBlocking(MIN + i, MIN + SPAN - 1, 0, true);
+            }
+            // A closed room straddling a region border
+            for (int i = 0; i < 10; i++) {
+                writer.eastBlocking(MIN + 58, MIN + 20 + i, 0, true);
+                writer.eastBlocking(MIN + 68, MIN + 20 + i, 0, true);
+                writer.northBlocking(MIN + 59 + i, MIN + 19, 0, true);
+                writer.northBlocking(MIN + 59 + i, MIN + 29, 0, true);
+            }
+        });
+        List<Integer> regionIds = new ArrayList<>();
+        for (int x = MIN; x < MIN + SPAN; x += Regions.SIZE) {
+            for (int y = MIN; y < MIN + SPAN; y += Regions.SIZE) {
+                regionIds.add(Regions.id(x, y));
+            }
+        }
+        String path = tempDir.resolve("components.dat.gz").toString();
+        ComponentLabeller.label(map, regionIds, 1).save(path);
+        ComponentMap components = ComponentMap.load(path);
+
+        assertTrue(components.areConnected(MIN + 60, MIN + 22, MIN + 66, MIN + 27, 0));
+        assertFalse(components.areConnected(Coords.pack(MIN + 60, MIN + 22, 0), Coords.pack(MIN + 70, MIN + 22, 0)));
+        assertEquals(0, components.component(MIN + SPAN + 5, MIN, 0));
+
+        BfsPathfinder bfs = new BfsPathfinder(map, 256);
+        for (int i = 0; i < 300; i++) {
+            int sx = MIN + random.nextInt(SPAN), sy = MIN + random.nextInt(SPAN);
+            int gx = MIN + random.nextInt(SPAN), gy = MIN + random.nextInt(SPAN);
+            boolean reachable = !map.isBlocked(sx, sy, 0) && bfs.find(sx, sy, gx, gy, 0).isFound();
+            assertEquals(reachable, components.areConnected(sx, sy, gx, gy, 0), "from " + sx + "," + sy + " to " + gx + "," + gy);
+        }
+    }
+}
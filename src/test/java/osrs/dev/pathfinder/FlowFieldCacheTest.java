@@ -0,0 +1,72 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.util.ReloadableMap;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FlowFieldCache Tests")
+class FlowFieldCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Flow field distances should match BFS steps")
+    void testMatchesBfs() throws Exception {
+        Random random = new Random(23);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 1500; i++) {
+                writer.fullBlocking(3150 + random.nextInt(100), 3150 + random.nextInt(100), 0, true);
+            }
+        });
+        FlowField field = FlowField.build(map, 3200, 3200, 0, 128);
+        BfsPathfinder bfs = new BfsPathfinder(map, 128);
+
+        assertEquals(0, field.distance(3200, 3200));
+        assertEquals(-1, field.nextStep(3200, 3200));
+        for (int i = 0; i < 200; i++) {
+            int x = 3150 + random.nextInt(100);
+            int y = 3150 + random.nextInt(100);
+            PathResult expected = bfs.find(x, y, 3200, 3200, 0);
+            assertEquals(expected.isFound() ? expected.getSteps() : -1, field.distance(x, y), "from " + x + "," + y);
+            int[] path = field.path(x, y);
+            assertEquals(Math.max(field.distance(x, y) + 1, 0), path.length);
+            assertTrue(TestMaps.isWalkable(map, path));
+        }
+    }
+
+    @Test
+    @DisplayName("Cache should count hits, evict old fields and clear on reload")
+    void testCache() throws Exception {
+        TestMaps.build(tempDir, writer -> {});
+        String path = tempDir.resolve("map_roaring.dat").toString();
+        try (ReloadableMap<CollisionMap> maps = new ReloadableMap<>(path, CollisionMapFactory::load)) {
+            assertTrue(maps.reload());
+            FlowFieldCache cache = new FlowFieldCache(maps, 2, 64);
+
+            FlowField first = cache.get(3200, 3200, 0);
+            assertSame(first, cache.get(3200, 3200, 0));
+            cache.get(3210, 3200, 0);
+            cache.get(3220, 3200, 0);
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.getHits());
+            assertEquals(3, cache.getMisses());
+            assertEquals(1, cache.getEvictions());
+            assertEquals(11, cache.get(3210, 3200, 0).distance(3199, 3200));
+
+            TestMaps.build(tempDir, writer -> TestMaps.eastWall(writer, 3205, 3170, 3230));
+            assertTrue(maps.reload());
+            assertEquals(0, cache.size());
+            assertEquals(1, cache.getInvalidations());
+            assertTrue(cache.get(3210, 3200, 0).distance(3199, 3200) > 11);
+        }
+    }
+}
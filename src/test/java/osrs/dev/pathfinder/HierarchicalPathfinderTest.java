@@ -0,0 +1,80 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HierarchicalPathfinder Tests")
+class HierarchicalPathfinderTest {
+    private static final int MIN = 3136;
+    private static final int SPAN = Regions.SIZE * 3;
+
+    @TempDir
+    Path tempDir;
+
+    private static List<Integer> regionIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (int x = MIN; x < MIN + SPAN; x += Regions.SIZE) {
+            for (int y = MIN; y < MIN + SPAN; y += Regions.SIZE) {
+                ids.add(Regions.id(x, y));
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Hierarchical paths should be walkable and agree with A* on reachability")
+    void testMatchesAStar() throws Exception {
+        Random random = new Random(11);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 4000; i++) {
+                writer.fullBlocking(MIN + random.nextInt(SPAN), MIN + random.nextInt(SPAN), 0, true);
+            }
+            // Close the edges of the regions, which the graph never leaves but A* would
+            for (int i = 0; i < SPAN; i++) {
+                writer.eastBlocking(MIN - 1, MIN + i, 0, true);
+                writer.eastBlocking(MIN + SPAN - 1, MIN + i, 0, true);
+                writer.northBlocking(MIN + i, MIN - 1, 0, true);
+                writer.northBlocking(MIN + i, MIN + SPAN - 1, 0, true);
+            }
+            // A long wall with a single gap, forcing routes through one region
+            TestMaps.eastWall(writer, MIN + 100, MIN, MIN + 89);
+            TestMaps.eastWall(writer, MIN + 100, MIN + 91, MIN + SPAN - 1);
+        });
+        RegionGraph graph = RegionGraphBuilder.build(map, regionIds(), 1);
+        assertEquals(9, graph.getRegionCount());
+
+        String path = tempDir.resolve("region_graph.dat.gz").toString();
+        graph.save(path);
+        RegionGraph loaded = RegionGraph.load(path);
+        assertEquals(graph.getNodeCount(), loaded.getNodeCount());
+        assertEquals(graph.getEdgeCount(), loaded.getEdgeCount());
+
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder(map, loaded);
+        AStarPathfinder astar = new AStarPathfinder(map, 256);
+        for (int i = 0; i < 100; i++) {
+            int sx = MIN + random.nextInt(SPAN), sy = MIN + random.nextInt(SPAN);
+            int gx = MIN + random.nextInt(SPAN), gy = MIN + random.nextInt(SPAN);
+            PathResult expected = astar.find(sx, sy, gx, gy, 0);
+            PathResult actual = hierarchical.find(sx, sy, gx, gy, 0);
+            assertEquals(expected.isFound(), actual.isFound(), "from " + sx + "," + sy + " to " + gx + "," + gy);
+            if (actual.isFound()) {
+                int[] tiles = actual.getPath();
+                assertEquals(Coords.pack(sx, sy, 0), tiles[0]);
+                assertEquals(Coords.pack(gx, gy, 0), tiles[tiles.length - 1]);
+                assertTrue(TestMaps.isWalkable(map, tiles));
+                assertTrue(actual.getCost() >= expected.getCost());
+                assertTrue(actual.getCost() <= expected.getCost() * 5 / 4 + 40, actual.getCost() + " vs " + expected.getCost());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JumpPointPathfinder Tests")
+class JumpPointPathfinderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Open ground should be crossed with few expansions")
+    void testOpenGround() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        JumpPointPathfinder jps = new JumpPointPathfinder(map, 256);
+        AStarPathfinder astar = new AStarPathfinder(map, 256);
+
+        PathResult result = jps.find(3150, 3160, 3260, 3230, 0);
+
+        assertTrue(result.isFound());
+        assertEquals(astar.find(3150, 3160, 3260, 3230, 0).getCost(), result.getCost());
+        assertEquals(110, result.getSteps());
+        assertTrue(TestMaps.isWalkable(map, result.getPath()));
+        assertTrue(result.getNodesExpanded() < 10);
+    }
+
+    @Test
+    @DisplayName("JPS should match A* path costs around edge walls and blocked tiles")
+    void testMatchesAStar() throws Exception {
+        Random random = new Random(9);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int i = 0; i < 400; i++) {
+                writer.fullBlocking(3170 + random.nextInt(80), 3170 + random.nextInt(80), 0, true);
+            }
+            for (int i = 0; i < 60; i++) {
+                int x = 3170 + random.nextInt(80), y = 3170 + random.nextInt(80), length = 2 + random.nextInt(12);
+                for (int j = 0; j < length; j++) {
+                    if (random.nextBoolean()) {
+                        writer.eastBlocking(x, y + j, 0, true);
+                    } else {
+                        writer.northBlocking(x + j, y, 0, true);
+                    }
+                }
+            }
+        });
+        JumpPointPathfinder jps = new JumpPointPathfinder(map, 128);
+        AStarPathfinder astar = new AStarPathfinder(map, 128);
+
+        for (int i = 0; i < 300; i++) {
+            int sx = 3170 + random.nextInt(80), sy = 3170 + random.nextInt(80);
+            int gx = 3170 + random.nextInt(80), gy = 3170 + random.nextInt(80);
+            PathResult expected = astar.find(sx, sy, gx, gy, 0);
+            PathResult actual = jps.find(sx, sy, gx, gy, 0);
+            assertEquals(expected.isFound(), actual.isFound(), "search " + i);
+            if (actual.isFound()) {
+                assertEquals(expected.getCost(), actual.getCost(), "search " + i);
+                assertTrue(TestMaps.isWalkable(map, actual.getPath()), "search " + i);
+                assertEquals(Coords.pack(sx, sy, 0), actual.getPath()[0]);
+                assertEquals(Coords.pack(gx, gy, 0), actual.getPath()[actual.getPath().length - 1]);
+            }
+        }
+    }
+}
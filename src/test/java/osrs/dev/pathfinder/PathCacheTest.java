@@ -0,0 +1,134 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PathCache Tests")
+class PathCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Repeated searches should be served from the cache")
+    void testHits() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> TestMaps.eastWall(writer, 3205, 3195, 3205));
+        AStarPathfinder pathfinder = new AStarPathfinder(map);
+        AtomicInteger searches = new AtomicInteger();
+        PathSearch search = (sx, sy, gx, gy, plane) -> {
+            searches.incrementAndGet();
+            return pathfinder.find(sx, sy, gx, gy, plane);
+        };
+        PathCache cache = new PathCache(100);
+
+        PathResult first = cache.find(3200, 3200, 3210, 3200, 0, search);
+        PathResult second = cache.find(3200, 3200, 3210, 3200, 0, search);
+
+        assertTrue(first.isFound());
+        assertSame(first, second);
+        assertEquals(1, searches.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate());
+        assertTrue(cache.getMemoryBytes() >= first.getPath().length * 4L);
+    }
+
+    @Test
+    @DisplayName("Invalidating a region should drop only the paths through it")
+    void testInvalidateRegion() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        AStarPathfinder pathfinder = new AStarPathfinder(map);
+        PathCache cache = new PathCache(100);
+        // Region (50, 50) spans 3200..3263; the second path crosses into (51, 50)
+        cache.find(3200, 3200, 3210, 3210, 0, pathfinder::find);
+        cache.find(3260, 3200, 3270, 3200, 0, pathfinder::find);
+        cache.find(3300, 3300, 3310, 3300, 0, pathfinder::find);
+        assertEquals(3, cache.size());
+
+        assertEquals(1, cache.invalidateRegion(Regions.id(3270, 3200)));
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(Coords.pack(3200, 3200, 0), Coords.pack(3210, 3210, 0)));
+        assertNull(cache.get(Coords.pack(3260, 3200, 0), Coords.pack(3270, 3200, 0)));
+
+        assertEquals(1, cache.invalidateRegion(Regions.id(3200, 3200)));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getInvalidations());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("A path searched across an invalidation should not be cached")
+    void testInvalidateDuringSearch() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        AStarPathfinder pathfinder = new AStarPathfinder(map);
+        PathCache cache = new PathCache(100);
+
+        PathResult regionResult = cache.find(3200, 3200, 3210, 3200, 0, (sx, sy, gx, gy, plane) -> {
+            PathResult result = pathfinder.find(sx, sy, gx, gy, plane);
+            cache.invalidateRegion(Regions.id(sx, sy));
+            return result;
+        });
+        PathResult allResult = cache.find(3300, 3300, 3310, 3300, 0, (sx, sy, gx, gy, plane) -> {
+            PathResult result = pathfinder.find(sx, sy, gx, gy, plane);
+            cache.invalidateAll();
+            return result;
+        });
+
+        assertTrue(regionResult.isFound());
+        assertTrue(allResult.isFound());
+        assertEquals(0, cache.size());
+        assertNull(cache.get(Coords.pack(3200, 3200, 0), Coords.pack(3210, 3200, 0)));
+
+        // Later searches cache as usual
+        cache.find(3200, 3200, 3210, 3200, 0, pathfinder::find);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("A path put after an invalidation since its search began should not be cached")
+    void testPutAfterInvalidation() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        AStarPathfinder pathfinder = new AStarPathfinder(map);
+        PathCache cache = new PathCache(100);
+        int start = Coords.pack(3200, 3200, 0);
+        int goal = Coords.pack(3210, 3200, 0);
+
+        int token = cache.beginSearch(start, goal);
+        PathResult result = pathfinder.find(3200, 3200, 3210, 3200, 0);
+        cache.invalidateRegion(Regions.id(3200, 3200));
+        cache.put(start, goal, result, token);
+        assertEquals(0, cache.size());
+
+        cache.put(start, goal, result, cache.beginSearch(start, goal));
+        assertSame(result, cache.get(start, goal));
+    }
+
+    @Test
+    @DisplayName("The cache should evict least recently used paths past its bound")
+    void testEviction() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        AStarPathfinder pathfinder = new AStarPathfinder(map);
+        PathCache cache = new PathCache(16);
+
+        for (int i = 0; i < 200; i++) {
+            cache.find(3200, 3200, 3201 + i % 50, 3200 + i / 50, 0, pathfinder::find);
+        }
+
+        assertTrue(cache.size() <= 16);
+        assertEquals(200 - cache.size(), cache.getEvictions());
+        // Dropped entries are dropped from the region index too
+        assertEquals(cache.size(), cache.invalidateRegion(Regions.id(3200, 3200)));
+        assertEquals(0, cache.getMemoryBytes());
+    }
+}
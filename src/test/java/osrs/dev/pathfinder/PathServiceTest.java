@@ -0,0 +1,140 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PathService Tests")
+class PathServiceTest {
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Concurrent requests should match single-threaded searches on a bounded pool")
+    void testMatchesDirectSearch() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> TestMaps.eastWall(writer, 3205, 3180, 3220));
+        AStarPathfinder direct = new AStarPathfinder(map);
+        int[] starts = new int[200];
+        int[] goals = new int[200];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = Coords.pack(3200 - i % 5, 3200 + i % 7, 0);
+            goals[i] = Coords.pack(3210 + i % 4, 3195 + i % 3, 0);
+        }
+
+        try (PathService service = new PathService(map, 2)) {
+            PathResult[] results = service.findAll(starts, goals, TIMEOUT);
+            for (int i = 0; i < results.length; i++) {
+                PathResult expected = direct.find(Coords.x(starts[i]), Coords.y(starts[i]), Coords.x(goals[i]), Coords.y(goals[i]), 0);
+                assertTrue(results[i].isFound());
+                assertEquals(expected.getCost(), results[i].getCost(), "request " + i);
+                assertTrue(TestMaps.isWalkable(map, results[i].getPath()));
+            }
+            assertTrue(service.getPathfinderCount() <= 2);
+            assertEquals(starts.length, service.getSearches() + service.getCoalesced());
+            assertEquals(service.getSearches(), service.getLatency().getCount());
+            assertTrue(service.getLatency().percentile(99) >= service.getLatency().percentile(50));
+            assertEquals(0, service.getQueueDepth());
+            assertEquals(0, service.getInFlight());
+        }
+    }
+
+    @Test
+    @DisplayName("Identical requests in flight should share one search")
+    void testCoalescing() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (PathService service = new PathService(() -> blocking(map, entered, release), 1)) {
+            CompletableFuture<PathResult> first = service.submit(3200, 3200, 3210, 3210, 0, TIMEOUT);
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            // Joiners need deadlines no later than the search's own
+            CompletableFuture<PathResult> second = service.submit(3200, 3200, 3210, 3210, 0, TIMEOUT / 2);
+            CompletableFuture<PathResult> third = service.submit(3200, 3200, 3210, 3210, 0, TIMEOUT / 2);
+            assertNotSame(first, second);
+            assertEquals(2, service.getCoalesced());
+            assertEquals(1, service.getInFlight());
+            // Each caller holds its own future, so one cancelling leaves the others waiting on the search
+            second.cancel(true);
+            third.complete(PathResult.notFound(PathResult.Status.UNREACHABLE, 0, 0));
+
+            release.countDown();
+            assertTrue(first.get(10, TimeUnit.SECONDS).isFound());
+            assertTrue(second.isCancelled());
+            assertFalse(third.get().isFound());
+            assertEquals(1, service.getSearches());
+            // A finished search is not joined again
+            assertNotSame(first, service.submit(3200, 3200, 3210, 3210, 0, TIMEOUT));
+        }
+    }
+
+    @Test
+    @DisplayName("A request waiting past its deadline should time out")
+    void testDeadline() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (PathService service = new PathService(() -> blocking(map, entered, release), 1)) {
+            CompletableFuture<PathResult> busy = service.submit(3200, 3200, 3210, 3210, 0, TIMEOUT);
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+            PathResult late = service.find(3200, 3200, 3220, 3220, 0, TimeUnit.MILLISECONDS.toNanos(20));
+            assertEquals(PathResult.Status.TIMED_OUT, late.getStatus());
+            assertEquals(1, service.getTimeouts());
+
+            release.countDown();
+            assertTrue(busy.get(10, TimeUnit.SECONDS).isFound());
+        }
+    }
+
+    @Test
+    @DisplayName("A request should not join a search whose deadline is earlier than its own")
+    void testCoalescingDeadline() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {});
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (PathService service = new PathService(() -> blocking(map, entered, release), 1)) {
+            CompletableFuture<PathResult> busy = service.submit(3200, 3200, 3210, 3210, 0, TIMEOUT);
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+            CompletableFuture<PathResult> hasty = service.submit(3200, 3200, 3220, 3220, 0, TimeUnit.MILLISECONDS.toNanos(50));
+            CompletableFuture<PathResult> patient = service.submit(3200, 3200, 3220, 3220, 0, TIMEOUT);
+            // A later request with an earlier deadline may still join the patient search
+            CompletableFuture<PathResult> joined = service.submit(3200, 3200, 3220, 3220, 0, TimeUnit.SECONDS.toNanos(20));
+            assertEquals(1, service.getCoalesced());
+
+            assertEquals(PathResult.Status.TIMED_OUT, hasty.get(10, TimeUnit.SECONDS).getStatus());
+            release.countDown();
+            assertTrue(busy.get(10, TimeUnit.SECONDS).isFound());
+            assertTrue(patient.get(10, TimeUnit.SECONDS).isFound());
+            assertTrue(joined.get(10, TimeUnit.SECONDS).isFound());
+        }
+    }
+
+    /**
+     * Creates a pathfinder whose searches wait for a latch, signalling when the first one starts.
+     */
+    private static AStarPathfinder blocking(CollisionMap map, CountDownLatch entered, CountDownLatch release) {
+        return new AStarPathfinder(map) {
+            @Override
+            public PathResult find(int startX, int startY, int goalX, int goalY, int plane, int nodeBudget, long timeoutNanos) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.find(startX, startY, goalX, goalY, plane, nodeBudget, timeoutNanos);
+            }
+        };
+    }
+}
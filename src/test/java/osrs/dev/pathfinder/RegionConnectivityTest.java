@@ -0,0 +1,167 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.util.Regions;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RegionConnectivity Tests")
+class RegionConnectivityTest {
+    private static final int MIN = 3200;
+    private static final int SPAN = Regions.SIZE * 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Region connectivity should match a flood fill of the whole area")
+    void testMatchesFloodFill() throws Exception {
+        Random random = new Random(17);
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            // Long walls with a few gaps, some of them sealing regions off
+            for (int wall = 0; wall < 14; wall++) {
+                boolean vertical = random.nextBoolean();
+                int line = MIN + random.nextInt(SPAN);
+                int gaps = random.nextInt(3);
+                Set<Integer> gapAt = new HashSet<>();
+                for (int g = 0; g < gaps; g++) {
+                    gapAt.add(random.nextInt(SPAN));
+                }
+                for (int i = 0; i < SPAN; i++) {
+                    if (gapAt.contains(i)) {
+                        continue;
+                    }
+                    if (vertical) {
+                        writer.eastBlocking(line, MIN + i, 0, true);
+                    } else {
+                        writer.northBlocking(MIN + i, line, 0, true);
+                    }
+                }
+            }
+        });
+        List<Integer> regionIds = regionIds();
+        String path = tempDir.resolve("region_connectivity.dat.gz").toString();
+        RegionConnectivityBuilder.build(map, regionIds, 1).save(path);
+        RegionConnectivity connectivity = RegionConnectivity.load(path);
+
+        int[] components = floodFill(map);
+        for (int a : regionIds) {
+            for (int b : regionIds) {
+                if (a == b) {
+                    continue;
+                }
+                boolean expected = shareComponent(components, a, b);
+                assertEquals(expected, connectivity.isConnected(a, b, 0), Regions.baseX(a) + "," + Regions.baseY(a) + " to " + Regions.baseX(b) + "," + Regions.baseY(b));
+                int[] route = connectivity.route(a, b, 0);
+                assertEquals(expected, route.length > 0);
+                if (expected) {
+                    assertEquals(a, route[0]);
+                    assertEquals(b, route[route.length - 1]);
+                    for (int i = 1; i < route.length; i++) {
+                        int dx = Math.abs((route[i] >> 8) - (route[i - 1] >> 8));
+                        int dy = Math.abs((route[i] & 0xFF) - (route[i - 1] & 0xFF));
+                        assertEquals(1, dx + dy, "route steps to a neighbouring region");
+                    }
+                }
+            }
+        }
+        assertFalse(connectivity.isConnected(regionIds.get(0), regionIds.get(1), 1));
+    }
+
+    @Test
+    @DisplayName("A wall across a region should split its sides and detour routes")
+    void testSplitRegion() throws Exception {
+        int centre = Regions.id(MIN + Regions.SIZE, MIN + Regions.SIZE);
+        int west = Regions.id(MIN, MIN + Regions.SIZE);
+        int east = Regions.id(MIN + 2 * Regions.SIZE, MIN + Regions.SIZE);
+        CollisionMap map = TestMaps.build(tempDir, writer ->
+                TestMaps.eastWall(writer, MIN + Regions.SIZE + 31, MIN + Regions.SIZE, MIN + 2 * Regions.SIZE - 1));
+        RegionConnectivity connectivity = RegionConnectivityBuilder.build(map, regionIds(), 1);
+
+        assertFalse(connectivity.areSidesConnected(centre, 0, RegionConnectivity.WEST, RegionConnectivity.EAST));
+        assertTrue(connectivity.areSidesConnected(centre, 0, RegionConnectivity.WEST, RegionConnectivity.NORTH));
+        assertTrue(connectivity.areSidesConnected(centre, 0, RegionConnectivity.NORTH, RegionConnectivity.SOUTH));
+        assertEquals(RegionConnectivity.NORTH | RegionConnectivity.EAST | RegionConnectivity.SOUTH | RegionConnectivity.WEST,
+                connectivity.openSides(centre, 0));
+        int south = Regions.id(MIN + Regions.SIZE, MIN);
+        int north = Regions.id(MIN + Regions.SIZE, MIN + 2 * Regions.SIZE);
+        int[] expected = {south, west, east, north};
+        Arrays.sort(expected);
+        assertArrayEquals(expected, connectivity.neighbours(centre, 0));
+        int[] westNeighbours = {Regions.id(MIN, MIN), Regions.id(MIN, MIN + 2 * Regions.SIZE), centre};
+        Arrays.sort(westNeighbours);
+        assertArrayEquals(westNeighbours, connectivity.neighbours(west, 0));
+
+        // The straight route west to east crosses the centre, which now needs two of its parts
+        assertTrue(connectivity.isConnected(west, east, 0));
+        assertEquals(5, connectivity.route(west, east, 0).length);
+    }
+
+    private static List<Integer> regionIds() {
+        List<Integer> regionIds = new ArrayList<>();
+        for (int x = MIN; x < MIN + SPAN; x += Regions.SIZE) {
+            for (int y = MIN; y < MIN + SPAN; y += Regions.SIZE) {
+                regionIds.add(Regions.id(x, y));
+            }
+        }
+        return regionIds;
+    }
+
+    /**
+     * Labels the tiles of the whole area by the set connected to them, walking between cardinal neighbours.
+     */
+    private static int[] floodFill(CollisionMap map) {
+        int[] labels = new int[SPAN * SPAN];
+        Arrays.fill(labels, -1);
+        int count = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int start = 0; start < labels.length; start++) {
+            if (labels[start] >= 0) {
+                continue;
+            }
+            labels[start] = count;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int tile = queue.poll();
+                int x = tile % SPAN;
+                int y = tile / SPAN;
+                visit(labels, queue, count, x, y + 1, y + 1 < SPAN && map.pathableNorth(MIN + x, MIN + y, 0));
+                visit(labels, queue, count, x + 1, y, x + 1 < SPAN && map.pathableEast(MIN + x, MIN + y, 0));
+                visit(labels, queue, count, x, y - 1, y > 0 && map.pathableSouth(MIN + x, MIN + y, 0));
+                visit(labels, queue, count, x - 1, y, x > 0 && map.pathableWest(MIN + x, MIN + y, 0));
+            }
+            count++;
+        }
+        return labels;
+    }
+
+    private static void visit(int[] labels, ArrayDeque<Integer> queue, int label, int x, int y, boolean open) {
+        if (open && labels[y * SPAN + x] < 0) {
+            labels[y * SPAN + x] = label;
+            queue.add(y * SPAN + x);
+        }
+    }
+
+    private static boolean shareComponent(int[] labels, int regionA, int regionB) {
+        Set<Integer> inA = new HashSet<>();
+        for (int y = 0; y < Regions.SIZE; y++) {
+            for (int x = 0; x < Regions.SIZE; x++) {
+                inA.add(labels[(Regions.baseY(regionA) - MIN + y) * SPAN + Regions.baseX(regionA) - MIN + x]);
+            }
+        }
+        for (int y = 0; y < Regions.SIZE; y++) {
+            for (int x = 0; x < Regions.SIZE; x++) {
+                if (inA.contains(labels[(Regions.baseY(regionB) - MIN + y) * SPAN + Regions.baseX(regionB) - MIN + x])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
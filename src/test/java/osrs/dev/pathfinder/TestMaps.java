@@ -0,0 +1,59 @@
+package osrs.dev.pathfinder;
+
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.collisionmap.CollisionMapWriter;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Builds small collision maps for pathfinder tests.
+ */
+final class TestMaps {
+    private TestMaps() {}
+
+    /**
+     * Writes a RoaringBitmap collision map and loads it back.
+     *
+     * @param dir     the directory to write the map to
+     * @param builder places the walls, every other tile is open
+     * @return the loaded map
+     */
+    static CollisionMap build(Path dir, Consumer<CollisionMapWriter> builder) throws Exception {
+        CollisionMapWriter writer = CollisionMapFactory.createWriter(CollisionMapFactory.Format.ROARING);
+        builder.accept(writer);
+        String path = dir.resolve("map_roaring.dat").toString();
+        writer.save(path);
+        return CollisionMapFactory.load(path);
+    }
+
+    /**
+     * Blocks a vertical wall along the east edge of column x, from y0 to y1 inclusive.
+     */
+    static void eastWall(CollisionMapWriter writer, int x, int y0, int y1) {
+        for (int y = y0; y <= y1; y++) {
+            writer.eastBlocking(x, y, 0, true);
+        }
+    }
+
+    /**
+     * Checks each step of a path moves one tile to a neighbour the map allows.
+     */
+    static boolean isWalkable(CollisionMap map, int[] path) {
+        for (int i = 1; i < path.length; i++) {
+            int dx = Coords.x(path[i]) - Coords.x(path[i - 1]);
+            int dy = Coords.y(path[i]) - Coords.y(path[i - 1]);
+            int bit = -1;
+            for (int b = 0; b < 8; b++) {
+                if (Directions.DX[b] == dx && Directions.DY[b] == dy) {
+                    bit = b;
+                }
+            }
+            if (bit < 0 || (map.all(Coords.x(path[i - 1]), Coords.y(path[i - 1]), Coords.plane(path[i - 1])) & (1 << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.tiletypemap.TileType;
+import osrs.dev.tiletypemap.TileTypeMap;
+import osrs.dev.tiletypemap.TileTypeMapFactory;
+import osrs.dev.tiletypemap.TileTypeMapWriter;
+import osrs.dev.util.Regions;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TileTypeIndex Tests")
+class TileTypeIndexTest {
+    private static final int MIN = 3072;
+    private static final int SPAN = Regions.SIZE * 4;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Nearest and radius queries should match a brute force scan")
+    void testMatchesBruteForce() throws Exception {
+        Random random = new Random(31);
+        TileTypeMapWriter writer = TileTypeMapFactory.createWriter(TileTypeMapFactory.Format.ROARING);
+        for (int i = 0; i < 3000; i++) {
+            writer.setTileType(MIN + random.nextInt(SPAN), MIN + random.nextInt(SPAN), 0, TileType.WATER);
+        }
+        for (int i = 0; i < 40; i++) {
+            writer.setTileType(MIN + random.nextInt(SPAN), MIN + random.nextInt(SPAN), random.nextInt(2), TileType.KELP_WATER);
+        }
+        String path = tempDir.resolve("tile_types_roaring.dat").toString();
+        writer.save(path);
+        TileTypeMap map = TileTypeMapFactory.load(path);
+        List<Integer> regionIds = new ArrayList<>();
+        for (int x = MIN; x < MIN + SPAN; x += Regions.SIZE) {
+            for (int y = MIN; y < MIN + SPAN; y += Regions.SIZE) {
+                regionIds.add(Regions.id(x, y));
+            }
+        }
+        TileTypeIndex index = TileTypeIndex.build(map, regionIds, 2);
+
+        assertEquals(0, index.count(TileType.ICE_WATER));
+        assertEquals(0, index.nearest(TileType.ICE_WATER, MIN, MIN, 0, 1, 1000).length);
+        for (int query = 0; query < 30; query++) {
+            int x = MIN + random.nextInt(SPAN);
+            int y = MIN + random.nextInt(SPAN);
+            int plane = query % 2;
+            for (byte type : new byte[]{TileType.WATER, TileType.KELP_WATER}) {
+                List<Integer> all = scan(map, type, plane);
+                all.sort(Comparator.comparingLong((Integer tile) -> squared(tile, x, y)).thenComparingInt(tile -> tile));
+
+                int[] nearest = index.nearest(type, x, y, plane, 5, 1000);
+                assertEquals(Math.min(5, all.size()), nearest.length);
+                for (int i = 0; i < nearest.length; i++) {
+                    assertEquals(squared(all.get(i), x, y), squared(nearest[i], x, y), "type " + type + " match " + i);
+                }
+
+                int[] within = index.withinRadius(type, x, y, plane, 20);
+                long expected = all.stream().filter(tile -> squared(tile, x, y) <= 400).count();
+                assertEquals(expected, within.length);
+                for (int tile : within) {
+                    assertTrue(squared(tile, x, y) <= 400);
+                    assertEquals(type, map.getTileType(Coords.x(tile), Coords.y(tile), plane));
+                }
+            }
+        }
+
+        // Radii far past the map are clamped to it rather than overflowing or looping over every region
+        int kelp = scan(map, TileType.KELP_WATER, 0).size();
+        assertTrue(kelp > 0);
+        assertEquals(kelp, index.withinRadius(TileType.KELP_WATER, MIN, MIN, 0, 1_000_000).length);
+        assertEquals(kelp, index.withinRadius(TileType.KELP_WATER, MIN, MIN, 0, Integer.MAX_VALUE).length);
+    }
+
+    private static List<Integer> scan(TileTypeMap map, byte type, int plane) {
+        List<Integer> tiles = new ArrayList<>();
+        for (int x = MIN; x < MIN + SPAN; x++) {
+            for (int y = MIN; y < MIN + SPAN; y++) {
+                if (map.getTileType(x, y, plane) == type) {
+                    tiles.add(Coords.pack(x, y, plane));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    private static long squared(int tile, int x, int y) {
+        long dx = Coords.x(tile) - x;
+        long dy = Coords.y(tile) - y;
+        return dx * dx + dy * dy;
+    }
+}
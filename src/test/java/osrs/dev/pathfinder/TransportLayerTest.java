@@ -0,0 +1,98 @@
+package osrs.dev.pathfinder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransportLayer Tests")
+class TransportLayerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Climb actions should link the tiles around an object to the next plane")
+    void testClimbActions() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            writer.fullBlocking(3200, 3200, 0, true);
+            writer.fullBlocking(3200, 3200, 1, true);
+        });
+        TransportLayerBuilder builder = new TransportLayerBuilder();
+        assertTrue(builder.add(100, new String[]{"Climb-up", null, "Examine"}, 3200, 3200, 0, 1, 1));
+        assertTrue(builder.add(101, new String[]{"Climb-down"}, 3200, 3200, 1, 1, 1));
+        assertFalse(builder.add(102, new String[]{"Climb-down"}, 3300, 3300, 0, 1, 1));
+        assertFalse(builder.add(103, new String[]{"Open", "Enter"}, 3300, 3300, 0, 1, 1));
+        TransportLayer layer = builder.build(map);
+
+        // Eight open neighbours on each plane, the blocked object tile itself is not a source
+        assertEquals(16, layer.getSourceCount());
+        assertEquals(16, layer.getTransportCount());
+        assertEquals(0, layer.destinations(3200, 3200, 0).length);
+        assertEquals(0, layer.destinations(3205, 3200, 0).length);
+        int[] up = layer.destinations(3199, 3201, 0);
+        assertEquals(1, up.length);
+        assertEquals(1, Coords.plane(up[0]));
+        assertTrue(Math.abs(Coords.x(up[0]) - 3200) <= 1 && Math.abs(Coords.y(up[0]) - 3200) <= 1);
+        int row = layer.row(Coords.pack(3201, 3200, 1));
+        assertEquals(1, layer.edgeEnd(row) - layer.edgeStart(row));
+        assertEquals(0, Coords.plane(layer.destination(layer.edgeStart(row))));
+        assertEquals(101, layer.objectId(layer.edgeStart(row)));
+    }
+
+    @Test
+    @DisplayName("A plain climb action should lead to the planes above and below")
+    void testClimbBothWays() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> {
+            for (int plane = 0; plane <= 3; plane++) {
+                writer.fullBlocking(3200, 3200, plane, true);
+            }
+        });
+        TransportLayerBuilder builder = new TransportLayerBuilder();
+        assertTrue(builder.add(100, new String[]{"Climb"}, 3200, 3200, 1, 1, 1));
+        assertTrue(builder.add(101, new String[]{"Climb"}, 3200, 3200, 3, 1, 1));
+        assertTrue(builder.add(102, new String[]{"Climb"}, 3200, 3200, 0, 1, 1));
+        TransportLayer layer = builder.build(map);
+
+        int[] middle = layer.destinations(3201, 3200, 1);
+        assertEquals(2, middle.length);
+        assertEquals(Set.of(0, 2), Set.of(Coords.plane(middle[0]), Coords.plane(middle[1])));
+        // The top and bottom planes only lead inwards
+        int[] top = layer.destinations(3201, 3200, 3);
+        assertEquals(1, top.length);
+        assertEquals(2, Coords.plane(top[0]));
+        int[] bottom = layer.destinations(3201, 3200, 0);
+        assertEquals(1, bottom.length);
+        assertEquals(1, Coords.plane(bottom[0]));
+    }
+
+    @Test
+    @DisplayName("Transports should survive a save and load")
+    void testSaveLoad() throws Exception {
+        CollisionMap map = TestMaps.build(tempDir, writer -> writer.fullBlocking(3200, 3200, 0, true));
+        TransportLayerBuilder builder = new TransportLayerBuilder();
+        builder.add(100, new String[]{"Climb-up"}, 3200, 3200, 0, 2, 1);
+        TransportLayer layer = builder.build(map);
+        String path = tempDir.resolve("transports.dat.gz").toString();
+        layer.save(path);
+        TransportLayer loaded = TransportLayer.load(path);
+
+        assertEquals(layer.getTransportCount(), loaded.getTransportCount());
+        for (int x = 3198; x <= 3203; x++) {
+            for (int y = 3198; y <= 3202; y++) {
+                assertArrayEquals(layer.destinations(x, y, 0), loaded.destinations(x, y, 0), x + "," + y);
+            }
+        }
+
+        Path other = tempDir.resolve("other.dat");
+        Files.write(other, new byte[16]);
+        assertThrows(IOException.class, () -> TransportLayer.load(other.toString()));
+    }
+}
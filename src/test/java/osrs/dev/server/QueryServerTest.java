@@ -0,0 +1,178 @@
+package osrs.dev.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.collisionmap.CollisionMap;
+import osrs.dev.collisionmap.CollisionMapFactory;
+import osrs.dev.collisionmap.CollisionMapWriter;
+import osrs.dev.pathfinder.AStarPathfinder;
+import osrs.dev.pathfinder.Coords;
+import osrs.dev.pathfinder.PathResult;
+import osrs.dev.tiletypemap.TileType;
+import osrs.dev.tiletypemap.TileTypeMap;
+import osrs.dev.tiletypemap.TileTypeMapFactory;
+import osrs.dev.tiletypemap.TileTypeMapWriter;
+import osrs.dev.util.Regions;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QueryServer Tests")
+class QueryServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Endpoints should answer batches like the maps they serve")
+    void testEndpoints() throws Exception {
+        CollisionMapWriter collisionWriter = CollisionMapFactory.createWriter(CollisionMapFactory.Format.ROARING);
+        for (int y = 3190; y <= 3210; y++) {
+            collisionWriter.eastBlocking(3205, y, 0, true);
+        }
+        String collisionPath = tempDir.resolve("map_roaring.dat").toString();
+        collisionWriter.save(collisionPath);
+        CollisionMap collisionMap = CollisionMapFactory.load(collisionPath);
+        TileTypeMapWriter tileTypeWriter = TileTypeMapFactory.createWriter(TileTypeMapFactory.Format.ROARING);
+        tileTypeWriter.setTileType(3201, 3202, 0, TileType.KELP_WATER);
+        String tileTypePath = tempDir.resolve("tile_types_roaring.dat").toString();
+        tileTypeWriter.save(tileTypePath);
+        TileTypeMap tileTypeMap = TileTypeMapFactory.load(tileTypePath);
+
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (QueryServer server = new QueryServer(address, collisionMap, tileTypeMap, TimeUnit.SECONDS.toNanos(10))) {
+            int[] tiles = {Coords.pack(3205, 3200, 0), Coords.pack(3206, 3200, 0), Coords.pack(3201, 3202, 0)};
+            DataInputStream flags = post(server, "/flags", out -> {
+                out.writeInt(tiles.length);
+                for (int tile : tiles) {
+                    out.writeInt(tile);
+                }
+            });
+            for (int tile : tiles) {
+                assertEquals(collisionMap.all(Coords.x(tile), Coords.y(tile), 0), flags.readByte());
+            }
+
+            DataInputStream types = post(server, "/tiletypes", out -> {
+                out.writeInt(2);
+                out.writeInt(Coords.pack(3201, 3202, 0));
+                out.writeInt(Coords.pack(3202, 3202, 0));
+            });
+            assertEquals(TileType.KELP_WATER, types.readByte());
+            assertEquals(0, types.readByte());
+
+            int regionId = Regions.id(3201, 3202);
+            DataInputStream region = post(server, "/region", out -> {
+                out.writeInt(regionId);
+                out.writeInt(0);
+            });
+            byte[] regionFlags = new byte[Regions.SIZE * Regions.SIZE];
+            byte[] regionTypes = new byte[Regions.SIZE * Regions.SIZE];
+            region.readFully(regionFlags);
+            region.readFully(regionTypes);
+            int local = ((3200 - Regions.baseY(regionId)) << Regions.SHIFT) | (3205 - Regions.baseX(regionId));
+            assertEquals(collisionMap.all(3205, 3200, 0), regionFlags[local]);
+            assertEquals(TileType.KELP_WATER, regionTypes[((3202 - Regions.baseY(regionId)) << Regions.SHIFT) | (3201 - Regions.baseX(regionId))]);
+
+            DataInputStream paths = post(server, "/paths", out -> {
+                out.writeInt(1);
+                out.writeInt(Coords.pack(3200, 3200, 0));
+                out.writeInt(Coords.pack(3210, 3200, 0));
+            });
+            PathResult expected = new AStarPathfinder(collisionMap).find(3200, 3200, 3210, 3200, 0);
+            assertEquals(PathResult.Status.FOUND.ordinal(), paths.readByte());
+            int[] path = new int[paths.readInt()];
+            for (int i = 0; i < path.length; i++) {
+                path[i] = paths.readInt();
+            }
+            assertEquals(expected.getPath().length, path.length);
+            assertEquals(Coords.pack(3210, 3200, 0), path[path.length - 1]);
+
+            assertEquals(4, server.getLatency("/flags").getCount() + server.getLatency("/tiletypes").getCount()
+                    + server.getLatency("/region").getCount() + server.getLatency("/paths").getCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed requests should be rejected with a 400 response")
+    void testBadRequest() throws Exception {
+        CollisionMap collisionMap = CollisionMapFactory.load(saveEmptyMap());
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (QueryServer server = new QueryServer(address, collisionMap, null, TimeUnit.SECONDS.toNanos(10))) {
+            assertEquals(400, status(server, "/flags", out -> out.writeInt(-1)));
+            assertEquals(400, status(server, "/flags", out -> {
+                out.writeInt(2);
+                out.writeInt(0);
+            }));
+            assertEquals(400, status(server, "/tiletypes", out -> out.writeInt(0)));
+        }
+    }
+
+    @Test
+    @DisplayName("Regions outside the map layout should be rejected rather than wrap onto other tiles")
+    void testRegionOutOfRange() throws Exception {
+        CollisionMap collisionMap = CollisionMapFactory.load(saveEmptyMap());
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (QueryServer server = new QueryServer(address, collisionMap, null, TimeUnit.SECONDS.toNanos(10))) {
+            // The layout covers x 480 to 4575, so regions x 8 to 70
+            for (int regionX : new int[]{0, 7, 71, 72, 0xFF}) {
+                int regionId = (regionX << 8) | 50;
+                assertEquals(400, status(server, "/region", out -> {
+                    out.writeInt(regionId);
+                    out.writeInt(0);
+                }), "region x " + regionX);
+            }
+            for (int regionX : new int[]{8, 70}) {
+                int regionId = (regionX << 8) | 0xFF;
+                assertEquals(200, status(server, "/region", out -> {
+                    out.writeInt(regionId);
+                    out.writeInt(0);
+                }), "region x " + regionX);
+            }
+        }
+    }
+
+    private String saveEmptyMap() throws IOException {
+        String path = tempDir.resolve("empty_roaring.dat").toString();
+        CollisionMapFactory.createWriter(CollisionMapFactory.Format.ROARING).save(path);
+        return path;
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static HttpURLConnection open(QueryServer server, String endpoint, Body body) throws IOException {
+        URL url = new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), endpoint);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (DataOutputStream out = new DataOutputStream(connection.getOutputStream())) {
+            body.write(out);
+        }
+        return connection;
+    }
+
+    private static DataInputStream post(QueryServer server, String endpoint, Body body) throws IOException {
+        HttpURLConnection connection = open(server, endpoint, body);
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return new DataInputStream(new ByteArrayInputStream(in.readAllBytes()));
+        }
+    }
+
+    private static int status(QueryServer server, String endpoint, Body body) throws IOException {
+        HttpURLConnection connection = open(server, endpoint, body);
+        int status = connection.getResponseCode();
+        connection.disconnect();
+        return status;
+    }
+}
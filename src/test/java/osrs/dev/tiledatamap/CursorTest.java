@@ -0,0 +1,86 @@
+package osrs.dev.tiledatamap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.tiledatamap.roaring.RoaringTileDataMap;
+import osrs.dev.tiledatamap.roaring.RoaringTileDataMapWriter;
+import osrs.dev.tiledatamap.sparse.SparseTileDataMap;
+import osrs.dev.tiledatamap.sparse.SparseTileDataMapWriter;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cursor Tests")
+class CursorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void fill(ITileDataMapWriter writer, int maxDataBit) {
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            writer.setDataBit(3150 + random.nextInt(200), 3150 + random.nextInt(200),
+                    random.nextInt(4), random.nextInt(maxDataBit + 1));
+        }
+    }
+
+    /**
+     * Walks an area row by row, then jumps around it, comparing the cursor with the map.
+     */
+    private static void assertSameAsMap(ITileDataMap map) {
+        ITileDataMap cursor = map.cursor();
+        int maxDataBit = map.getIndexer().getMaxDataBitIndex();
+        for (int plane = 0; plane < 4; plane++) {
+            for (int y = 3140; y < 3360; y++) {
+                for (int x = 3140; x < 3360; x++) {
+                    for (int bit = 0; bit <= maxDataBit; bit++) {
+                        assertEquals(map.isDataBitSet(x, y, plane, bit), cursor.isDataBitSet(x, y, plane, bit));
+                    }
+                }
+            }
+        }
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            int x = 3000 + random.nextInt(500);
+            int y = 3000 + random.nextInt(500);
+            int plane = random.nextInt(4);
+            int bit = random.nextInt(maxDataBit + 1);
+            assertEquals(map.isDataBitSet(x, y, plane, bit), cursor.isDataBitSet(x, y, plane, bit));
+        }
+    }
+
+    @Test
+    @DisplayName("Roaring cursor should read the same bits as the map")
+    void testRoaringCursor() throws Exception {
+        RoaringTileDataMapWriter writer = new RoaringTileDataMapWriter();
+        fill(writer, 4);
+        String path = tempDir.resolve("map_roaring.dat").toString();
+        writer.save(path);
+
+        try (InputStream in = new FileInputStream(path)) {
+            RoaringTileDataMap map = RoaringTileDataMap.load(in);
+            assertNotSame(map, map.cursor());
+            assertSameAsMap(map);
+        }
+    }
+
+    @Test
+    @DisplayName("Sparse cursor should read the same bits as the map")
+    void testSparseCursor() throws Exception {
+        SparseTileDataMapWriter writer = new SparseTileDataMapWriter();
+        fill(writer, 3);
+        String path = tempDir.resolve("map_sparse.dat").toString();
+        writer.save(path);
+
+        try (InputStream in = new FileInputStream(path)) {
+            SparseTileDataMap map = SparseTileDataMap.load(in);
+            assertNotSame(map, map.cursor());
+            assertSameAsMap(map);
+        }
+    }
+}
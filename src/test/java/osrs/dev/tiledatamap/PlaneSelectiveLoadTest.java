@@ -0,0 +1,91 @@
+package osrs.dev.tiledatamap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.dumper.ConfigurableCoordIndexer;
+import osrs.dev.tiledatamap.roaring.RoaringTileDataMap;
+import osrs.dev.tiledatamap.roaring.RoaringTileDataMapWriter;
+import osrs.dev.tiledatamap.sparse.SparseTileDataMap;
+import osrs.dev.tiledatamap.sparse.SparseTileDataMapWriter;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Plane-selective loading Tests")
+class PlaneSelectiveLoadTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Planes.of should build a bit per plane")
+    void testPlanesOf() {
+        assertEquals(0b0101, Planes.of(0, 2));
+        assertTrue(Planes.contains(Planes.of(0, 2), 2));
+        assertFalse(Planes.contains(Planes.of(0, 2), 1));
+        assertTrue(Planes.contains(Planes.ALL, 3));
+    }
+
+    @Test
+    @DisplayName("indexRanges should cover one range per data bit and selected plane")
+    void testIndexRanges() {
+        ConfigurableCoordIndexer indexer = ConfigurableCoordIndexer.ROARINGBITMAP_5BIT_DATA_COORD_INDEXER;
+        long[] ranges = Planes.indexRanges(indexer, Planes.of(1));
+
+        assertEquals(5 * 2, ranges.length);
+        long packed = Integer.toUnsignedLong(indexer.packToBitmapIndex(3200, 3200, 1, 4));
+        boolean covered = false;
+        for (int i = 0; i < ranges.length; i += 2) {
+            covered |= packed >= ranges[i] && packed < ranges[i + 1];
+        }
+        assertTrue(covered);
+    }
+
+    @Test
+    @DisplayName("Roaring load should keep only the selected planes")
+    void testRoaringPlaneFilter() throws Exception {
+        RoaringTileDataMapWriter writer = new RoaringTileDataMapWriter();
+        for (int plane = 0; plane < 4; plane++) {
+            writer.setDataBit(3200, 3200, plane, 0);
+            writer.setDataBit(3201, 3200, plane, 4);
+        }
+        String path = tempDir.resolve("map_roaring.dat").toString();
+        writer.save(path);
+
+        RoaringTileDataMap map;
+        try (InputStream in = new FileInputStream(path)) {
+            map = RoaringTileDataMap.load(in, Planes.of(0, 3));
+        }
+
+        assertTrue(map.isDataBitSet(3200, 3200, 0, 0));
+        assertTrue(map.isDataBitSet(3201, 3200, 3, 4));
+        assertFalse(map.isDataBitSet(3200, 3200, 1, 0));
+        assertFalse(map.isDataBitSet(3201, 3200, 2, 4));
+    }
+
+    @Test
+    @DisplayName("Sparse load should keep only the selected planes")
+    void testSparsePlaneFilter() throws Exception {
+        SparseTileDataMapWriter writer = new SparseTileDataMapWriter();
+        for (int plane = 0; plane < 4; plane++) {
+            writer.setDataBit(3200, 3200, plane, 0);
+            writer.setDataBit(3201, 3200, plane, 3);
+        }
+        String path = tempDir.resolve("map_sparse.dat").toString();
+        writer.save(path);
+
+        SparseTileDataMap map;
+        try (InputStream in = new FileInputStream(path)) {
+            map = SparseTileDataMap.load(in, Planes.of(1));
+        }
+
+        assertTrue(map.isDataBitSet(3200, 3200, 1, 0));
+        assertTrue(map.isDataBitSet(3201, 3200, 1, 3));
+        assertFalse(map.isDataBitSet(3200, 3200, 0, 0));
+        assertFalse(map.isDataBitSet(3201, 3200, 3, 3));
+    }
+}
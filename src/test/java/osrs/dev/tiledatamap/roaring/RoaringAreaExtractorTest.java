@@ -0,0 +1,77 @@
+package osrs.dev.tiledatamap.roaring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.tiledatamap.Planes;
+import osrs.dev.util.Regions;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RoaringAreaExtractor Tests")
+class RoaringAreaExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RoaringTileDataMap.View worldView() throws Exception {
+        RoaringTileDataMapWriter writer = new RoaringTileDataMapWriter();
+        writer.setDataBit(3200, 3200, 0, 0);
+        writer.setDataBit(3210, 3215, 0, 1);
+        writer.setDataBit(3205, 3205, 1, 3);
+        writer.setDataBit(3300, 3300, 0, 0);
+        String path = tempDir.resolve("world_roaring.dat").toString();
+        writer.save(path);
+        return RoaringTileDataMap.view(Files.readAllBytes(Path.of(path)));
+    }
+
+    private RoaringTileDataMap saveAndLoad(RoaringTileDataMapWriter writer, String name) throws Exception {
+        String path = tempDir.resolve(name).toString();
+        writer.save(path);
+        try (InputStream in = new FileInputStream(path)) {
+            return RoaringTileDataMap.load(in);
+        }
+    }
+
+    @Test
+    @DisplayName("layoutFor should size the layout to the area")
+    void testLayoutFor() {
+        var layout = RoaringAreaExtractor.layoutFor(3200, 3200, 3263, 3263, 0, 0);
+
+        assertEquals(3200, layout.getMinX());
+        assertEquals(3263, layout.getMaxX());
+        assertEquals(12, layout.getTotalCoordBits());
+    }
+
+    @Test
+    @DisplayName("extractBox should keep tiles inside the box and drop the rest")
+    void testExtractBox() throws Exception {
+        RoaringTileDataMap area = saveAndLoad(
+                RoaringAreaExtractor.extractBox(worldView(), 3195, 3195, 3220, 3220, Planes.ALL), "area_roaring.dat");
+
+        assertTrue(area.isDataBitSet(3200, 3200, 0, 0));
+        assertTrue(area.isDataBitSet(3210, 3215, 0, 1));
+        assertTrue(area.isDataBitSet(3205, 3205, 1, 3));
+        assertFalse(area.isDataBitSet(3210, 3215, 0, 0));
+        assertFalse(area.isDataBitSet(3300, 3300, 0, 0));
+        // Outside the compact layout must not wrap onto tiles inside it
+        assertFalse(area.isDataBitSet(3200 + 32, 3200, 0, 0));
+    }
+
+    @Test
+    @DisplayName("extractRegions should honour the plane mask")
+    void testExtractRegions() throws Exception {
+        RoaringTileDataMap area = saveAndLoad(
+                RoaringAreaExtractor.extractRegions(worldView(), new int[] {Regions.id(3200, 3200)}, Planes.of(0)), "region_roaring.dat");
+
+        assertTrue(area.isDataBitSet(3200, 3200, 0, 0));
+        assertTrue(area.isDataBitSet(3210, 3215, 0, 1));
+        assertFalse(area.isDataBitSet(3205, 3205, 1, 3));
+        assertFalse(area.isDataBitSet(3300, 3300, 0, 0));
+    }
+}
@@ -0,0 +1,120 @@
+package osrs.dev.tiletypemap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import osrs.dev.util.Regions;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TileTypeAreas Tests")
+class TileTypeAreasTest {
+    private static final int MIN = 3136;
+    private static final int SPAN = Regions.SIZE * 2;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Areas should match a flood fill of same-type tiles across region borders")
+    void testMatchesFloodFill() throws Exception {
+        Random random = new Random(37);
+        TileTypeMapWriter writer = TileTypeMapFactory.createWriter(TileTypeMapFactory.Format.ROARING);
+        // Storm water straddling all four regions, a reef inside it and scattered kelp
+        for (int x = MIN + 40; x < MIN + 90; x++) {
+            for (int y = MIN + 50; y < MIN + 80; y++) {
+                boolean reef = x >= MIN + 60 && x < MIN + 66 && y >= MIN + 60 && y < MIN + 70;
+                writer.setTileType(x, y, 0, reef ? TileType.JAGGED_REEFS_WATER : TileType.TEMPOR_STORM_WATER);
+            }
+        }
+        for (int i = 0; i < 800; i++) {
+            int x = MIN + random.nextInt(SPAN);
+            int y = MIN + random.nextInt(SPAN);
+            if (x < MIN + 38 || x > MIN + 91 || y < MIN + 48 || y > MIN + 81) {
+                writer.setTileType(x, y, 0, TileType.KELP_WATER);
+            }
+        }
+        String mapPath = tempDir.resolve("tile_types_roaring.dat").toString();
+        writer.save(mapPath);
+        TileTypeMap map = TileTypeMapFactory.load(mapPath);
+        List<Integer> regionIds = new ArrayList<>();
+        for (int x = MIN; x < MIN + SPAN; x += Regions.SIZE) {
+            for (int y = MIN; y < MIN + SPAN; y += Regions.SIZE) {
+                regionIds.add(Regions.id(x, y));
+            }
+        }
+        String path = tempDir.resolve("tile_type_areas.dat.gz").toString();
+        TileTypeAreaBuilder.build(map, regionIds, 1).save(path);
+        TileTypeAreas areas = TileTypeAreas.load(path);
+
+        int[] labels = floodFill(map);
+        Map<Integer, Integer> areaOfLabel = new HashMap<>();
+        for (int y = 0; y < SPAN; y++) {
+            for (int x = 0; x < SPAN; x++) {
+                int area = areas.area(MIN + x, MIN + y, 0);
+                int label = labels[y * SPAN + x];
+                if (label == 0) {
+                    assertEquals(-1, area);
+                    continue;
+                }
+                assertEquals(map.getTileType(MIN + x, MIN + y, 0), areas.type(area));
+                assertEquals(area, (int) areaOfLabel.computeIfAbsent(label, l -> area), "tile " + x + "," + y);
+            }
+        }
+        assertEquals(areaOfLabel.size(), areas.getAreaCount());
+
+        int storm = areas.area(MIN + 45, MIN + 55, 0);
+        assertEquals(50 * 30 - 60, areas.tileCount(storm));
+        assertArrayEquals(new int[]{MIN + 40, MIN + 50, MIN + 89, MIN + 79}, areas.bounds(storm));
+        assertArrayEquals(new int[]{storm}, areas.areasOfType(TileType.TEMPOR_STORM_WATER));
+        int reef = areas.area(MIN + 62, MIN + 62, 0);
+        // The reef straddles the corner of four regions, so it is split at the borders
+        int[] rectangles = areas.rectangles(reef);
+        assertEquals(4 * 4, rectangles.length);
+        int tiles = 0;
+        for (int i = 0; i < rectangles.length; i += 4) {
+            tiles += (rectangles[i + 2] - rectangles[i] + 1) * (rectangles[i + 3] - rectangles[i + 1] + 1);
+        }
+        assertEquals(60, tiles);
+        assertArrayEquals(new int[]{MIN + 60, MIN + 60, MIN + 65, MIN + 69}, areas.bounds(reef));
+        assertFalse(areas.contains(storm, MIN + 62, MIN + 62, 0));
+        assertEquals(-1, areas.area(MIN + 45, MIN + 55, 1));
+    }
+
+    /**
+     * Labels connected tiles of one type by flood fill, 0 for untyped tiles.
+     */
+    private static int[] floodFill(TileTypeMap map) {
+        int[] labels = new int[SPAN * SPAN];
+        int count = 0;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int start = 0; start < labels.length; start++) {
+            byte type = map.getTileType(MIN + start % SPAN, MIN + start / SPAN, 0);
+            if (type == 0 || labels[start] != 0) {
+                continue;
+            }
+            labels[start] = ++count;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int tile = queue.poll();
+                int x = tile % SPAN;
+                int y = tile / SPAN;
+                int[][] neighbours = {{x - 1, y}, {x + 1, y}, {x, y - 1}, {x, y + 1}};
+                for (int[] n : neighbours) {
+                    if (n[0] < 0 || n[1] < 0 || n[0] >= SPAN || n[1] >= SPAN) {
+                        continue;
+                    }
+                    int next = n[1] * SPAN + n[0];
+                    if (labels[next] == 0 && map.getTileType(MIN + n[0], MIN + n[1], 0) == type) {
+                        labels[next] = count;
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,67 @@
+package osrs.dev.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Regions Tests")
+class RegionsTest {
+
+    @Test
+    @DisplayName("Tasks on a shared pool should run on its threads")
+    void testSharedPool() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            int[] slots = new int[100];
+            for (int pass = 0; pass < 2; pass++) {
+                Regions.forEachParallel(executor, slots.length, slot -> {
+                    threads.add(Thread.currentThread());
+                    slots[slot]++;
+                });
+            }
+            for (int count : slots) {
+                assertEquals(2, count);
+            }
+            assertTrue(threads.size() <= 2);
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A failed task should cancel the tasks not yet run")
+    void testFailureCancels() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicInteger ran = new AtomicInteger();
+            ExecutionException e = assertThrows(ExecutionException.class, () -> Regions.forEachParallel(executor, 100, slot -> {
+                if (slot == 0) {
+                    throw new IllegalStateException("failed");
+                }
+                // Would hold the only thread well past the test unless cancelled
+                try {
+                    Thread.sleep(10_000);
+                    ran.incrementAndGet();
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+            assertEquals(0, ran.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package osrs.dev.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReloadableMap Tests")
+class ReloadableMapTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Reload should swap in the new map and notify listeners")
+    void testReload() throws Exception {
+        Path file = tempDir.resolve("map.txt");
+        try (ReloadableMap<Integer> map = new ReloadableMap<>(file.toString(), ReloadableMapTest::load)) {
+            List<Integer> notified = new CopyOnWriteArrayList<>();
+            map.addReloadListener(notified::add);
+            assertNull(map.get());
+            assertFalse(map.reload(), "missing file");
+
+            write(file, "1");
+            assertTrue(map.reload());
+            assertEquals(1, map.get());
+            write(file, "2");
+            assertTrue(map.reload());
+
+            assertEquals(2, map.get());
+            assertEquals(List.of(1, 2), notified);
+            assertEquals(2, map.getReloadCount());
+            assertEquals(0, map.getFailureCount());
+            assertTrue(map.getLastReloadMillis() >= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("A corrupt file should keep the previous map and count the failure")
+    void testCorruptFile() throws Exception {
+        Path file = tempDir.resolve("map.txt");
+        write(file, "1");
+        try (ReloadableMap<Integer> map = new ReloadableMap<>(file.toString(), ReloadableMapTest::load)) {
+            List<Integer> notified = new CopyOnWriteArrayList<>();
+            assertTrue(map.reload());
+            map.addReloadListener(notified::add);
+
+            write(file, "not a number");
+            assertFalse(map.reload());
+
+            assertEquals(1, map.get());
+            assertTrue(notified.isEmpty());
+            assertEquals(1, map.getReloadCount());
+            assertEquals(1, map.getFailureCount());
+            assertInstanceOf(NumberFormatException.class, map.getLastFailure());
+        }
+    }
+
+    @Test
+    @DisplayName("Changing the watched file should reload it once after the debounce")
+    void testWatch() throws Exception {
+        Path file = tempDir.resolve("map.txt");
+        write(file, "1");
+        try (ReloadableMap<Integer> map = new ReloadableMap<>(file.toString(), ReloadableMapTest::load)) {
+            assertTrue(map.reload());
+            map.startWatching();
+
+            // Two quick writes, as a file being written in parts would give
+            write(file, "2");
+            write(file, "3");
+            assertEquals(1, map.get(), "reload waits for the debounce");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (map.getReloadCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(3, map.get());
+            Thread.sleep(1_000);
+            assertEquals(2, map.getReloadCount());
+        }
+    }
+
+    private static Integer load(String filePath) throws Exception {
+        return Integer.parseInt(new String(Files.readAllBytes(Paths.get(filePath)), StandardCharsets.US_ASCII).trim());
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+}